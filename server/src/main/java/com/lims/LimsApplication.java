@@ -3,6 +3,7 @@ package com.lims;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * LIMS 实验室信息管理系统
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  */
 @SpringBootApplication
 @MapperScan("com.lims.mapper")
+@EnableScheduling
 public class LimsApplication {
 
     public static void main(String[] args) {
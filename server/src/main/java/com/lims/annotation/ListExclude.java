@@ -0,0 +1,16 @@
+package com.lims.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 列表查询排除字段注解
+ * 标记实体中的大字段（JSON 内容、模板等），分页/列表查询不读取这些列，详情查询不受影响
+ *
+ * 使用示例:
+ * wrapper.select(TestData.class, ListProjection::include);
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ListExclude {
+}
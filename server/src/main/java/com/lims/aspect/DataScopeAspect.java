@@ -3,22 +3,22 @@ package com.lims.aspect;
 import com.lims.annotation.DataScope;
 import com.lims.security.LoginUserDetails;
 import com.lims.security.PermissionService;
+import com.lims.service.DeptTreeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * 数据权限 AOP 切面
- * 在查询前根据用户的数据权限范围自动添加 SQL 过滤条件
- * 
+ * 在被注解方法执行期间根据用户的数据权限范围生成过滤条件，由 DataPermissionInnerInterceptor 追加到 SQL（含分页 COUNT）
+ *
  * 数据权限范围说明:
  * 1 - 全部数据: 不添加任何过滤条件
  * 2 - 本部门及以下: WHERE dept_id IN (用户部门ID, 子部门ID列表)
@@ -33,16 +33,17 @@ import java.util.Map;
 public class DataScopeAspect {
 
     private final PermissionService permissionService;
+    private final DeptTreeService deptTreeService;
 
     /**
-     * 数据权限过滤关键字 - 存储在 ThreadLocal 中供 SQL 拼接使用
+     * 当前线程的数据权限过滤条件 - 由 DataPermissionInnerInterceptor 读取并拼接到 SQL
      */
-    private static final ThreadLocal<String> DATA_SCOPE_FILTER = new ThreadLocal<>();
+    private static final ThreadLocal<DataScopeFilter> DATA_SCOPE_FILTER = new ThreadLocal<>();
 
     /**
      * 获取当前线程的数据权限过滤条件
      */
-    public static String getDataScopeFilter() {
+    public static DataScopeFilter getDataScopeFilter() {
         return DATA_SCOPE_FILTER.get();
     }
 
@@ -55,21 +56,42 @@ public class DataScopeAspect {
 
     /**
      * 数据范围过滤
+     * 过滤条件仅在被注解方法执行期间有效，方法结束（包括异常）后立即清除，避免线程复用时串到其他请求
      */
-    @Before("@annotation(dataScope)")
-    public void doBefore(JoinPoint point, DataScope dataScope) {
-        clearDataScopeFilter();
-        
+    @Around("@annotation(dataScope)")
+    public Object doAround(ProceedingJoinPoint point, DataScope dataScope) throws Throwable {
+        DataScopeFilter previous = DATA_SCOPE_FILTER.get();
+        // 构建过滤条件时可能查询部门树，不能带上外层方法的过滤条件
+        DATA_SCOPE_FILTER.remove();
+        DataScopeFilter filter = buildFilter(dataScope);
+        if (filter != null) {
+            DATA_SCOPE_FILTER.set(filter);
+        }
+        try {
+            return point.proceed();
+        } finally {
+            if (previous != null) {
+                DATA_SCOPE_FILTER.set(previous);
+            } else {
+                DATA_SCOPE_FILTER.remove();
+            }
+        }
+    }
+
+    /**
+     * 根据当前用户的数据权限范围构建过滤条件，无需过滤时返回 null
+     */
+    private DataScopeFilter buildFilter(DataScope dataScope) {
         LoginUserDetails user = permissionService.getCurrentUser();
         if (user == null) {
             log.warn("数据权限过滤: 用户未登录");
-            return;
+            return null;
         }
 
         // 管理员不限制
         if (user.isAdmin()) {
             log.debug("数据权限过滤: 管理员用户 {} 跳过过滤", user.getUsername());
-            return;
+            return null;
         }
 
         Integer scope = user.getDataScope();
@@ -77,7 +99,6 @@ public class DataScopeAspect {
             scope = 4; // 默认仅本人
         }
 
-        StringBuilder sqlFilter = new StringBuilder();
         String deptAlias = dataScope.deptAlias();
         String userAlias = dataScope.userAlias();
         String deptIdColumn = dataScope.deptIdColumn();
@@ -89,52 +110,43 @@ public class DataScopeAspect {
 
         switch (scope) {
             case 1: // 全部数据
-                // 不添加过滤
                 log.debug("数据权限过滤: 用户 {} 拥有全部数据权限", user.getUsername());
-                break;
+                return null;
 
             case 2: // 本部门及以下
-                // 需要递归查询子部门，这里简化处理，使用 ancestors LIKE 方式
-                // 实际使用时需要结合 sys_dept 表的 ancestors 字段
-                if (user.getDeptId() != null) {
-                    sqlFilter.append(String.format(
-                            " AND (%s = %d OR %s IN (SELECT id FROM sys_dept WHERE ancestors LIKE '%%,%d,%%' OR ancestors LIKE '%%,%d'))",
-                            deptField, user.getDeptId(),
-                            deptField, user.getDeptId(), user.getDeptId()
-                    ));
-                    log.debug("数据权限过滤: 用户 {} 本部门及以下 [deptId={}]", user.getUsername(), user.getDeptId());
+                // 下级部门ID取自内存部门树快照，按索引列 IN 过滤
+                if (user.getDeptId() == null) {
+                    return null;
                 }
-                break;
+                List<Long> selfAndChildren = deptTreeService.getSelfAndDescendantIds(user.getDeptId());
+                log.debug("数据权限过滤: 用户 {} 本部门及以下 [deptIds={}]", user.getUsername(), selfAndChildren);
+                return inFilter(deptField, selfAndChildren);
 
             case 3: // 本部门
-                if (user.getDeptId() != null) {
-                    sqlFilter.append(String.format(" AND %s = %d", deptField, user.getDeptId()));
-                    log.debug("数据权限过滤: 用户 {} 本部门 [deptId={}]", user.getUsername(), user.getDeptId());
+                if (user.getDeptId() == null) {
+                    return null;
                 }
-                break;
-
-            case 4: // 仅本人
-                sqlFilter.append(String.format(" AND %s = %d", userField, user.getUserId()));
-                log.debug("数据权限过滤: 用户 {} 仅本人 [userId={}]", user.getUsername(), user.getUserId());
-                break;
+                log.debug("数据权限过滤: 用户 {} 本部门 [deptId={}]", user.getUsername(), user.getDeptId());
+                return new DataScopeFilter(deptField + " = ?", List.of(user.getDeptId()));
 
             case 5: // 自定义部门
-                if (user.getDataScopeDeptIds() != null && !user.getDataScopeDeptIds().isEmpty()) {
-                    String deptIds = String.join(",", 
-                            user.getDataScopeDeptIds().stream().map(String::valueOf).toArray(String[]::new));
-                    sqlFilter.append(String.format(" AND %s IN (%s)", deptField, deptIds));
-                    log.debug("数据权限过滤: 用户 {} 自定义部门 [deptIds={}]", user.getUsername(), deptIds);
+                List<Long> deptIds = user.getDataScopeDeptIds();
+                if (deptIds == null || deptIds.isEmpty()) {
+                    return null;
                 }
-                break;
+                log.debug("数据权限过滤: 用户 {} 自定义部门 [deptIds={}]", user.getUsername(), deptIds);
+                return inFilter(deptField, deptIds);
 
-            default:
-                // 默认只能看自己的数据
-                sqlFilter.append(String.format(" AND %s = %d", userField, user.getUserId()));
-                log.debug("数据权限过滤: 用户 {} 默认仅本人 [userId={}]", user.getUsername(), user.getUserId());
+            case 4: // 仅本人
+            default: // 默认只能看自己的数据
+                log.debug("数据权限过滤: 用户 {} 仅本人 [userId={}]", user.getUsername(), user.getUserId());
+                // create_by 为字符串列，按字符串绑定避免隐式类型转换导致索引失效
+                return new DataScopeFilter(userField + " = ?", List.of(String.valueOf(user.getUserId())));
         }
+    }
 
-        if (sqlFilter.length() > 0) {
-            DATA_SCOPE_FILTER.set(sqlFilter.toString());
-        }
+    private DataScopeFilter inFilter(String field, List<Long> ids) {
+        return new DataScopeFilter(field + " IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")",
+                new ArrayList<>(ids));
     }
 }
@@ -0,0 +1,28 @@
+package com.lims.aspect;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 数据权限过滤条件
+ * 条件片段只包含注解中声明的字段名和 ? 占位符，参数值通过 JDBC 绑定，由 DataPermissionInnerInterceptor 拼接到 SQL 中
+ */
+@Getter
+public class DataScopeFilter {
+
+    /**
+     * 条件片段，例如 dept_id = ?
+     */
+    private final String condition;
+
+    /**
+     * 按占位符顺序排列的参数值
+     */
+    private final List<Object> params;
+
+    public DataScopeFilter(String condition, List<Object> params) {
+        this.condition = condition;
+        this.params = params;
+    }
+}
@@ -0,0 +1,39 @@
+package com.lims.common;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页结果封装
+ * 按 (create_time, id) 倒序定位，翻页时将 nextCursor 原样传回，不使用 OFFSET
+ */
+@Data
+public class CursorPageResult<T> {
+
+    private List<T> records;
+
+    /**
+     * 下一页游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    private long size;
+
+    /**
+     * 总数，仅首页按 count 参数计算（none 时为 null，estimate 为表统计的近似值）
+     */
+    private Long total;
+
+    public CursorPageResult() {}
+
+    public CursorPageResult(List<T> records, String nextCursor, long size, Long total) {
+        this.records = records;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+        this.size = size;
+        this.total = total;
+    }
+}
@@ -17,6 +17,7 @@ public enum ResultCode {
     FORBIDDEN(403, "没有操作权限"),
     NOT_FOUND(404, "资源不存在"),
     METHOD_NOT_ALLOWED(405, "请求方法不支持"),
+    TOO_MANY_REQUESTS(429, "请求过于频繁，请稍后重试"),
     
     // 业务错误 5xx
     INTERNAL_ERROR(500, "系统内部错误"),
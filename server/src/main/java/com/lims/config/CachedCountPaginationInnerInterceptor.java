@@ -0,0 +1,153 @@
+package com.lims.config;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.ParameterUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存 COUNT 结果的分页插件
+ * 同一查询只翻页（current 变化）时复用短时间内的总数，只执行取数 SQL。
+ * 缓存键 = Mapper 命名空间版本 + 查询 SQL（已追加数据权限条件）+ 参数值，不含分页参数；
+ * 同一 Mapper 执行任何写操作（新增/修改/删除，逻辑删除也是修改）时递增该命名空间版本，旧条目不再命中并随 TTL 过期。
+ * 写操作在事务中时，语句执行到事务结束之间其他会话的 COUNT 仍读到写入前的数据却存入了新版本，
+ * 因此在事务结束（提交或回滚）后再递增一次版本，使这段时间缓存的总数失效。
+ * 其他节点的写入在 TTL 内可能看不到。
+ */
+public class CachedCountPaginationInnerInterceptor extends PaginationInnerInterceptor {
+
+    private final Cache<String, Long> countCache;
+    private final Map<String, AtomicLong> namespaceVersions = new ConcurrentHashMap<>();
+
+    public CachedCountPaginationInnerInterceptor(DbType dbType, int cacheSize, long ttlMillis) {
+        super(dbType);
+        this.countCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    @Override
+    public boolean willDoQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                               ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        IPage<?> page = ParameterUtils.findPage(parameter).orElse(null);
+        if (page == null || page.getSize() < 0 || !page.searchCount() || resultHandler != Executor.NO_RESULT_HANDLER) {
+            return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        }
+
+        // 先取版本号再计数，计数期间发生写入时结果存入旧版本，不会被后续查询命中
+        String key = version(namespace(ms)) + "|" + ms.getId() + "|" + boundSql.getSql() + "|" + parameterValues(ms, parameter, boundSql);
+        Long total = countCache.getIfPresent(key);
+        if (total != null) {
+            page.setTotal(total);
+            return continuePage(page);
+        }
+
+        boolean proceed = super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        countCache.put(key, page.getTotal());
+        return proceed;
+    }
+
+    @Override
+    public void beforeUpdate(Executor executor, MappedStatement ms, Object parameter) throws SQLException {
+        String namespace = namespace(ms);
+        bump(namespace);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            namespacesWrittenInTransaction().add(namespace);
+        }
+        super.beforeUpdate(executor, ms, parameter);
+    }
+
+    private void bump(String namespace) {
+        namespaceVersions.computeIfAbsent(namespace, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * 当前事务中有写操作的命名空间，首次写入时注册事务同步，事务结束后递增这些命名空间的版本
+     */
+    @SuppressWarnings("unchecked")
+    private Set<String> namespacesWrittenInTransaction() {
+        Set<String> namespaces = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (namespaces != null) {
+            return namespaces;
+        }
+        Set<String> written = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(this, written);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CachedCountPaginationInnerInterceptor.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(CachedCountPaginationInnerInterceptor.this, written);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CachedCountPaginationInnerInterceptor.this);
+                written.forEach(CachedCountPaginationInnerInterceptor.this::bump);
+            }
+        });
+        return written;
+    }
+
+    private long version(String namespace) {
+        AtomicLong version = namespaceVersions.get(namespace);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * Mapper 命名空间，每个实体一个 Mapper，对应一张表
+     */
+    private String namespace(MappedStatement ms) {
+        String id = ms.getId();
+        int index = id.lastIndexOf('.');
+        return index > 0 ? id.substring(0, index) : id;
+    }
+
+    /**
+     * 按 SQL 占位符顺序取参数值，取值方式与 MyBatis DefaultParameterHandler 一致
+     */
+    private String parameterValues(MappedStatement ms, Object parameter, BoundSql boundSql) {
+        StringBuilder values = new StringBuilder();
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameter == null) {
+                value = null;
+            } else if (ms.getConfiguration().getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                value = parameter;
+            } else {
+                value = ms.getConfiguration().newMetaObject(parameter).getValue(property);
+            }
+            values.append(value).append(',');
+        }
+        return values.toString();
+    }
+}
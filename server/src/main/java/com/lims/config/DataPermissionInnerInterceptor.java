@@ -0,0 +1,99 @@
+package com.lims.config;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.parser.JsqlParserSupport;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.lims.aspect.DataScopeAspect;
+import com.lims.aspect.DataScopeFilter;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据权限拦截器
+ * 读取 DataScopeAspect 在当前线程设置的过滤条件，解析 SQL 后追加到最外层 WHERE，
+ * 条件参数以 JDBC 占位符绑定。需注册在分页插件之前，分页 COUNT 与 LIMIT 查询均基于改写后的 SQL。
+ */
+@Slf4j
+public class DataPermissionInnerInterceptor extends JsqlParserSupport implements InnerInterceptor {
+
+    /**
+     * 条件占位标记，改写后替换为实际条件片段
+     */
+    private static final String MARKER = "__DATA_SCOPE__";
+
+    private static final String PARAM_PREFIX = "__data_scope_";
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                            ResultHandler resultHandler, BoundSql boundSql) {
+        DataScopeFilter filter = DataScopeAspect.getDataScopeFilter();
+        if (filter == null) {
+            return;
+        }
+        PluginUtils.MPBoundSql mpBs = PluginUtils.mpBoundSql(boundSql);
+        String markedSql = parserSingle(mpBs.sql(), null);
+        int markerIndex = markedSql.indexOf(MARKER);
+        if (markerIndex < 0) {
+            log.debug("数据权限过滤: 不支持的查询语句，跳过 [{}]", ms.getId());
+            return;
+        }
+
+        // 条件插入位置之前的占位符数量即新参数在参数列表中的起始下标
+        int insertIndex = countPlaceholders(markedSql, markerIndex);
+        List<ParameterMapping> mappings = new ArrayList<>(mpBs.parameterMappings());
+        List<Object> params = filter.getParams();
+        for (int i = 0; i < params.size(); i++) {
+            String name = PARAM_PREFIX + i;
+            Object value = params.get(i);
+            mappings.add(insertIndex + i,
+                    new ParameterMapping.Builder(ms.getConfiguration(), name, value.getClass()).build());
+            boundSql.setAdditionalParameter(name, value);
+        }
+        mpBs.parameterMappings(mappings);
+        mpBs.sql(markedSql.replace(MARKER, "(" + filter.getCondition() + ")"));
+    }
+
+    /**
+     * 在最外层 WHERE 最前面插入占位标记，原条件加括号保持优先级
+     */
+    @Override
+    protected void processSelect(Select select, int index, String sql, Object obj) {
+        if (!(select.getSelectBody() instanceof PlainSelect plainSelect)) {
+            return;
+        }
+        Expression where = plainSelect.getWhere();
+        Column marker = new Column(MARKER);
+        plainSelect.setWhere(where == null ? marker : new AndExpression(marker, new Parenthesis(where)));
+    }
+
+    /**
+     * 统计 SQL 中指定位置之前的 ? 占位符数量（忽略字符串字面量中的问号）
+     */
+    private int countPlaceholders(String sql, int end) {
+        int count = 0;
+        boolean inQuote = false;
+        for (int i = 0; i < end; i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inQuote = !inQuote;
+            } else if (c == '?' && !inQuote) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 /**
  * MinIO配置
  */
@@ -34,6 +36,21 @@ public class MinioConfig {
      */
     private String bucketName;
 
+    /**
+     * 批量上传并发数
+     */
+    private int uploadConcurrency = 4;
+
+    /**
+     * 允许预签名直传的文件夹，reports/、qrcodes/ 等由系统生成和清理的目录不在其中
+     */
+    private List<String> presignedUploadFolders = List.of("common", "instruments");
+
+    /**
+     * 预签名直传地址最长有效期（秒），不超过 7 天
+     */
+    private int presignedUploadMaxExpiry = 86400;
+
     @Bean
     public MinioClient minioClient() {
         return MinioClient.builder()
@@ -3,8 +3,8 @@ package com.lims.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
-import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
 import org.apache.ibatis.reflection.MetaObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,12 +17,15 @@ import java.time.LocalDateTime;
 public class MybatisPlusConfig {
 
     /**
-     * 分页插件
+     * 数据权限 + 分页插件
+     * 数据权限必须在分页之前，分页 COUNT 基于已追加权限条件的 SQL，COUNT 缓存键因此天然区分数据范围
      */
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(@Value("${page-count-cache.size:2000}") int countCacheSize,
+                                                         @Value("${page-count-cache.ttl:10000}") long countCacheTtl) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
-        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
+        interceptor.addInnerInterceptor(new DataPermissionInnerInterceptor());
+        interceptor.addInnerInterceptor(new CachedCountPaginationInnerInterceptor(DbType.MYSQL, countCacheSize, countCacheTtl));
         return interceptor;
     }
 
@@ -6,6 +6,7 @@ import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.Client;
 import com.lims.mapper.ClientMapper;
+import com.lims.service.SequenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -13,8 +14,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -27,6 +26,7 @@ import java.util.List;
 public class ClientController {
 
     private final ClientMapper clientMapper;
+    private final SequenceService sequenceService;
 
     @Operation(summary = "分页查询客户")
     @GetMapping("/page")
@@ -123,9 +123,6 @@ public class ClientController {
     }
 
     private String generateClientCode() {
-        String prefix = "KH" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Long count = clientMapper.selectCount(new LambdaQueryWrapper<Client>()
-                .likeRight(Client::getCode, prefix));
-        return prefix + String.format("%04d", count + 1);
+        return sequenceService.nextNo(SequenceService.BizNoType.CLIENT);
     }
 }
@@ -6,6 +6,7 @@ import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.Consultation;
 import com.lims.mapper.ConsultationMapper;
+import com.lims.service.SequenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -13,8 +14,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -27,6 +26,7 @@ import java.util.List;
 public class ConsultationController {
 
     private final ConsultationMapper consultationMapper;
+    private final SequenceService sequenceService;
 
     @Operation(summary = "分页查询咨询单")
     @GetMapping("/page")
@@ -176,10 +176,7 @@ public class ConsultationController {
      * 生成咨询单号
      */
     private String generateConsultationNo() {
-        String prefix = "ZX" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Long count = consultationMapper.selectCount(new LambdaQueryWrapper<Consultation>()
-                .likeRight(Consultation::getConsultationNo, prefix));
-        return prefix + String.format("%04d", count + 1);
+        return sequenceService.nextNo(SequenceService.BizNoType.CONSULTATION);
     }
 
     /**
@@ -6,6 +6,7 @@ import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.Contract;
 import com.lims.mapper.ContractMapper;
+import com.lims.service.SequenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -13,8 +14,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -27,6 +26,7 @@ import java.util.List;
 public class ContractController {
 
     private final ContractMapper contractMapper;
+    private final SequenceService sequenceService;
 
     @Operation(summary = "分页查询合同")
     @GetMapping("/page")
@@ -151,9 +151,6 @@ public class ContractController {
     }
 
     private String generateContractNo() {
-        String prefix = "HT" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Long count = contractMapper.selectCount(new LambdaQueryWrapper<Contract>()
-                .likeRight(Contract::getContractNo, prefix));
-        return prefix + String.format("%04d", count + 1);
+        return sequenceService.nextNo(SequenceService.BizNoType.CONTRACT);
     }
 }
@@ -1,9 +1,14 @@
 package com.lims.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.lims.common.Result;
 import com.lims.entity.*;
 import com.lims.mapper.*;
+import com.lims.event.StatusChangeEvent;
+import com.lims.service.DashboardCacheService;
+import com.lims.service.StatusCounterService;
+import com.lims.service.TrendService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.Data;
@@ -13,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -31,11 +37,19 @@ public class DashboardController {
     private final TestReportMapper reportMapper;
     private final ClientMapper clientMapper;
     private final DeviceMapper deviceMapper;
+    private final TrendService trendService;
+    private final DashboardCacheService dashboardCacheService;
+    private final StatusCounterService statusCounterService;
 
     @Operation(summary = "获取概览统计")
     @GetMapping("/overview")
     @PreAuthorize("@ss.hasPermission('dashboard:view')")
     public Result<OverviewStats> getOverview() {
+        return Result.success(dashboardCacheService.getOrLoad("overview",
+                new TypeReference<OverviewStats>() {}, this::loadOverview));
+    }
+
+    private OverviewStats loadOverview() {
         OverviewStats stats = new OverviewStats();
         
         // 今日委托
@@ -43,16 +57,13 @@ public class DashboardController {
                 .apply("DATE(create_time) = CURDATE()")));
         
         // 待检样品
-        stats.setPendingSamples(sampleMapper.selectCount(new LambdaQueryWrapper<Sample>()
-                .eq(Sample::getStatus, "pending")));
+        stats.setPendingSamples(statusCounterService.count(StatusChangeEvent.EntityType.SAMPLE, "pending"));
         
         // 进行中任务
-        stats.setInProgressTasks(taskMapper.selectCount(new LambdaQueryWrapper<TestTask>()
-                .eq(TestTask::getStatus, "in_progress")));
+        stats.setInProgressTasks(statusCounterService.count(StatusChangeEvent.EntityType.TASK, "in_progress"));
         
         // 待审核报告
-        stats.setPendingReports(reportMapper.selectCount(new LambdaQueryWrapper<TestReport>()
-                .eq(TestReport::getStatus, "pending_review")));
+        stats.setPendingReports(statusCounterService.count(StatusChangeEvent.EntityType.REPORT, "pending_review"));
         
         // 客户总数
         stats.setTotalClients(clientMapper.selectCount(new LambdaQueryWrapper<Client>()
@@ -62,7 +73,7 @@ public class DashboardController {
         stats.setTotalDevices(deviceMapper.selectCount(new LambdaQueryWrapper<Device>()
                 .in(Device::getStatus, "running", "idle")));
         
-        return Result.success(stats);
+        return stats;
     }
 
     @Operation(summary = "获取任务统计")
@@ -71,12 +82,9 @@ public class DashboardController {
     public Result<Map<String, Long>> getTaskStats() {
         Map<String, Long> stats = new HashMap<>();
         
-        stats.put("pending", taskMapper.selectCount(new LambdaQueryWrapper<TestTask>()
-                .eq(TestTask::getStatus, "pending")));
-        stats.put("in_progress", taskMapper.selectCount(new LambdaQueryWrapper<TestTask>()
-                .eq(TestTask::getStatus, "in_progress")));
-        stats.put("completed", taskMapper.selectCount(new LambdaQueryWrapper<TestTask>()
-                .eq(TestTask::getStatus, "completed")));
+        stats.put("pending", statusCounterService.count(StatusChangeEvent.EntityType.TASK, "pending"));
+        stats.put("in_progress", statusCounterService.count(StatusChangeEvent.EntityType.TASK, "in_progress"));
+        stats.put("completed", statusCounterService.count(StatusChangeEvent.EntityType.TASK, "completed"));
         
         return Result.success(stats);
     }
@@ -87,14 +95,10 @@ public class DashboardController {
     public Result<Map<String, Long>> getReportStats() {
         Map<String, Long> stats = new HashMap<>();
         
-        stats.put("draft", reportMapper.selectCount(new LambdaQueryWrapper<TestReport>()
-                .eq(TestReport::getStatus, "draft")));
-        stats.put("pending_review", reportMapper.selectCount(new LambdaQueryWrapper<TestReport>()
-                .eq(TestReport::getStatus, "pending_review")));
-        stats.put("approved", reportMapper.selectCount(new LambdaQueryWrapper<TestReport>()
-                .eq(TestReport::getStatus, "approved")));
-        stats.put("issued", reportMapper.selectCount(new LambdaQueryWrapper<TestReport>()
-                .eq(TestReport::getStatus, "issued")));
+        stats.put("draft", statusCounterService.count(StatusChangeEvent.EntityType.REPORT, "draft"));
+        stats.put("pending_review", statusCounterService.count(StatusChangeEvent.EntityType.REPORT, "pending_review"));
+        stats.put("approved", statusCounterService.count(StatusChangeEvent.EntityType.REPORT, "approved"));
+        stats.put("issued", statusCounterService.count(StatusChangeEvent.EntityType.REPORT, "issued"));
         
         return Result.success(stats);
     }
@@ -103,15 +107,25 @@ public class DashboardController {
     @GetMapping("/weekly-trend")
     @PreAuthorize("@ss.hasPermission('dashboard:view')")
     public Result<List<Map<String, Object>>> getWeeklyTrend() {
-        // 简化实现：返回最近7天每天的任务完成数
-        // 实际需要自定义SQL查询
-        return Result.success();
+        // 最近7天每天的任务完成数，以及新增委托、接收样品数
+        Map<String, TrendService.Metric> series = new LinkedHashMap<>();
+        series.put("completed", TrendService.Metric.TASK_COMPLETED);
+        series.put("entrustments", TrendService.Metric.ENTRUSTMENT_CREATED);
+        series.put("samples", TrendService.Metric.SAMPLE_RECEIVED);
+
+        LocalDate today = LocalDate.now();
+        return Result.success(trendService.trend(series, today.minusDays(6), today, TrendService.Granularity.DAY));
     }
 
     @Operation(summary = "获取待办事项")
     @GetMapping("/todos")
     @PreAuthorize("@ss.hasPermission('dashboard:view')")
     public Result<TodoList> getTodos(@RequestParam(required = false) Long userId) {
+        return Result.success(dashboardCacheService.getOrLoad("todos",
+                new TypeReference<TodoList>() {}, this::loadTodos));
+    }
+
+    private TodoList loadTodos() {
         TodoList todos = new TodoList();
         
         // 待接收任务
@@ -120,8 +134,7 @@ public class DashboardController {
                 .isNull(TestTask::getAssigneeId)));
         
         // 待审核报告
-        todos.setPendingReportReviews(reportMapper.selectCount(new LambdaQueryWrapper<TestReport>()
-                .eq(TestReport::getStatus, "pending_review")));
+        todos.setPendingReportReviews(statusCounterService.count(StatusChangeEvent.EntityType.REPORT, "pending_review"));
         
         // 即将到期任务（3天内）
         LocalDate deadline = LocalDate.now().plusDays(3);
@@ -135,7 +148,14 @@ public class DashboardController {
                 .le(Device::getNextCalibrationDate, calibrationDue)
                 .in(Device::getStatus, "running", "idle")));
         
-        return Result.success(todos);
+        return todos;
+    }
+
+    @Operation(summary = "获取仪表盘缓存命中统计")
+    @GetMapping("/cache-stats")
+    @PreAuthorize("@ss.hasPermission('dashboard:view')")
+    public Result<Map<String, Map<String, Object>>> getCacheStats() {
+        return Result.success(dashboardCacheService.getStats());
     }
 
     @Operation(summary = "获取我的工作统计")
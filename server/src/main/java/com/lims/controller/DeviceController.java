@@ -6,6 +6,7 @@ import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.Device;
 import com.lims.mapper.DeviceMapper;
+import com.lims.service.SequenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -14,7 +15,6 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -27,6 +27,7 @@ import java.util.List;
 public class DeviceController {
 
     private final DeviceMapper deviceMapper;
+    private final SequenceService sequenceService;
 
     @Operation(summary = "分页查询设备")
     @GetMapping("/page")
@@ -123,10 +124,7 @@ public class DeviceController {
     }
 
     private String generateDeviceCode() {
-        String prefix = "SB" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Long count = deviceMapper.selectCount(new LambdaQueryWrapper<Device>()
-                .likeRight(Device::getCode, prefix));
-        return prefix + String.format("%04d", count + 1);
+        return sequenceService.nextNo(SequenceService.BizNoType.DEVICE);
     }
 }
 
@@ -6,6 +6,7 @@ import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.ElnTemplate;
 import com.lims.mapper.ElnTemplateMapper;
+import com.lims.util.ListProjection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -35,7 +36,8 @@ public class ElnTemplateController {
         
         Page<ElnTemplate> page = new Page<>(current, size);
         LambdaQueryWrapper<ElnTemplate> wrapper = new LambdaQueryWrapper<>();
-        wrapper.like(StringUtils.hasText(name), ElnTemplate::getName, name)
+        wrapper.select(ElnTemplate.class, ListProjection::include)
+               .like(StringUtils.hasText(name), ElnTemplate::getName, name)
                .like(StringUtils.hasText(testParameter), ElnTemplate::getTestParameter, testParameter)
                .eq(ElnTemplate::getStatus, 1)
                .orderByDesc(ElnTemplate::getCreateTime);
@@ -1,23 +1,29 @@
 package com.lims.controller;
 
 import com.lims.common.Result;
+import com.lims.common.ResultCode;
+import com.lims.config.MinioConfig;
+import com.lims.exception.BusinessException;
 import com.lims.service.FileStorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 文件上传Controller
@@ -28,7 +34,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class FileController {
 
+    /**
+     * 预签名地址有效期上限（MinIO/S3 限制为 7 天）
+     */
+    private static final int MAX_PRESIGNED_EXPIRY = 7 * 24 * 3600;
+
     private final FileStorageService fileStorageService;
+    private final MinioConfig minioConfig;
 
     @Operation(summary = "上传单个文件")
     @PostMapping("/upload")
@@ -55,9 +67,11 @@ public class FileController {
             @RequestParam("files") MultipartFile[] files,
             @RequestParam(defaultValue = "common") String folder) {
         
+        List<String> paths = fileStorageService.uploadBatch(files, folder);
         List<FileUploadResult> results = new ArrayList<>();
-        for (MultipartFile file : files) {
-            String path = fileStorageService.upload(file, folder);
+        for (int i = 0; i < files.length; i++) {
+            MultipartFile file = files[i];
+            String path = paths.get(i);
             String url = fileStorageService.getPresignedUrl(path);
             
             FileUploadResult result = new FileUploadResult();
@@ -72,6 +86,27 @@ public class FileController {
         return Result.success("上传成功", results);
     }
 
+    @Operation(summary = "获取直传上传地址", description = "返回预签名 PUT 地址，客户端直接 PUT 文件到存储，完成后使用返回的 path 引用文件；适用于大体积仪器数据文件。folder 仅限 minio.presigned-upload-folders，expiry 超过上限时按上限签发")
+    @GetMapping("/upload/presigned")
+    public Result<PresignedUploadResult> presignedUpload(
+            @RequestParam String filename,
+            @RequestParam(defaultValue = "common") String folder,
+            @RequestParam(defaultValue = "3600") int expiry) {
+
+        if (!minioConfig.getPresignedUploadFolders().contains(folder)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "不允许直传到该文件夹: " + folder);
+        }
+        int maxExpiry = Math.min(minioConfig.getPresignedUploadMaxExpiry(), MAX_PRESIGNED_EXPIRY);
+        expiry = Math.max(1, Math.min(expiry, maxExpiry));
+
+        String[] presigned = fileStorageService.getPresignedUploadUrl(folder, filename, expiry);
+        PresignedUploadResult result = new PresignedUploadResult();
+        result.setPath(presigned[0]);
+        result.setUploadUrl(presigned[1]);
+        result.setExpiry(expiry);
+        return Result.success(result);
+    }
+
     @Operation(summary = "上传样品照片")
     @PostMapping("/upload/sample-photo")
     public Result<FileUploadResult> uploadSamplePhoto(@RequestParam("file") MultipartFile file) {
@@ -109,25 +144,85 @@ public class FileController {
         return Result.success(url);
     }
 
-    @Operation(summary = "下载文件")
+    @Operation(summary = "下载文件", description = "支持 Range 断点续传和 If-None-Match 条件请求；redirect=true 时重定向到预签名地址直接从存储下载")
     @GetMapping("/download")
-    public ResponseEntity<InputStreamResource> download(
+    public void download(
             @RequestParam String path,
-            @RequestParam(required = false) String filename) {
-        
-        InputStream inputStream = fileStorageService.download(path);
-        
+            @RequestParam(required = false) String filename,
+            @RequestParam(defaultValue = "false") boolean redirect,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        if (redirect) {
+            response.sendRedirect(fileStorageService.getPresignedUrl(path));
+            return;
+        }
+
+        FileStorageService.FileStat stat = fileStorageService.stat(path);
+        if (stat == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
         // 获取文件名
         String downloadName = filename;
         if (downloadName == null || downloadName.isEmpty()) {
             downloadName = path.substring(path.lastIndexOf("/") + 1);
         }
-        
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, 
-                        "attachment; filename=\"" + URLEncoder.encode(downloadName, StandardCharsets.UTF_8) + "\"")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(new InputStreamResource(inputStream));
+
+        String etag = "\"" + stat.getEtag() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (stat.getLastModified() != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, stat.getLastModified().toInstant().toEpochMilli());
+        }
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = stat.getSize();
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // If-Range 与当前 ETag 不一致说明文件已变化，返回完整内容
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] parsed = parseRange(range, size);
+            if (parsed == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(stat.getContentType() != null ? stat.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + URLEncoder.encode(downloadName, StandardCharsets.UTF_8) + "\"");
+        if (length <= 0) {
+            return;
+        }
+
+        // 读取时校验 ETag，文件在 stat 之后被替换则不发送与已设置响应头不符的内容
+        InputStream in = fileStorageService.download(path, start, length, stat.getEtag());
+        if (in == null) {
+            response.reset();
+            response.sendError(HttpServletResponse.SC_CONFLICT, "文件已变更，请重试");
+            return;
+        }
+        try (in) {
+            OutputStream out = response.getOutputStream();
+            in.transferTo(out);
+            out.flush();
+        }
     }
 
     @Operation(summary = "删除文件")
@@ -137,11 +232,11 @@ public class FileController {
         return Result.successMsg("删除成功");
     }
 
-    @Operation(summary = "批量删除文件")
+    @Operation(summary = "批量删除文件", description = "返回删除失败的文件路径及原因，全部成功时为空")
     @DeleteMapping("/batch")
-    public Result<Void> deleteBatch(@RequestBody List<String> paths) {
-        fileStorageService.deleteBatch(paths);
-        return Result.successMsg("删除成功");
+    public Result<Map<String, String>> deleteBatch(@RequestBody List<String> paths) {
+        Map<String, String> failed = fileStorageService.deleteBatch(paths);
+        return Result.success(failed.isEmpty() ? "删除成功" : "部分文件删除失败", failed);
     }
 
     @Operation(summary = "检查文件是否存在")
@@ -151,6 +246,60 @@ public class FileController {
         return Result.success(exists);
     }
 
+    /**
+     * 解析单段 Range 头：bytes=start-end / bytes=start- / bytes=-suffix
+     * @return [start, end]；多段或无法识别时返回空数组（按完整内容响应）；范围无法满足返回 null
+     */
+    private long[] parseRange(String range, long size) {
+        if (!range.startsWith("bytes=") || range.contains(",")) {
+            return new long[0];
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(size - suffix, 0);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Data
     public static class FileUploadResult {
         private String path;
@@ -159,4 +308,11 @@ public class FileController {
         private Long size;
         private String contentType;
     }
+
+    @Data
+    public static class PresignedUploadResult {
+        private String path;
+        private String uploadUrl;
+        private Integer expiry;
+    }
 }
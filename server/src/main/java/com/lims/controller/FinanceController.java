@@ -2,6 +2,7 @@ package com.lims.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.lims.common.CursorPageResult;
 import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.FinanceReceivable;
@@ -10,6 +11,8 @@ import com.lims.entity.FinanceInvoice;
 import com.lims.mapper.FinanceReceivableMapper;
 import com.lims.mapper.FinancePaymentMapper;
 import com.lims.mapper.FinanceInvoiceMapper;
+import com.lims.service.SequenceService;
+import com.lims.util.CursorPaginator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -19,8 +22,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +38,8 @@ public class FinanceController {
     private final FinanceReceivableMapper receivableMapper;
     private final FinancePaymentMapper paymentMapper;
     private final FinanceInvoiceMapper invoiceMapper;
+    private final CursorPaginator cursorPaginator;
+    private final SequenceService sequenceService;
 
     // ==================== 应收管理 ====================
 
@@ -154,6 +157,24 @@ public class FinanceController {
         ));
     }
 
+    @Operation(summary = "游标分页查询收款记录", description = "按创建时间倒序，翻页传回上一页的 nextCursor；count=none/exact/estimate 控制首页是否返回总数")
+    @GetMapping("/payment/cursor")
+    @PreAuthorize("@ss.hasPermission('finance:payment:list')")
+    public Result<CursorPageResult<FinancePayment>> paymentCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "none") String count,
+            @RequestParam(required = false) String clientName,
+            @RequestParam(required = false) String paymentMethod) {
+
+        LambdaQueryWrapper<FinancePayment> wrapper = new LambdaQueryWrapper<>();
+        wrapper.like(StringUtils.hasText(clientName), FinancePayment::getClientName, clientName)
+               .eq(StringUtils.hasText(paymentMethod), FinancePayment::getPaymentMethod, paymentMethod);
+
+        return Result.success(cursorPaginator.page(paymentMapper, wrapper, FinancePayment::getCreateTime,
+                FinancePayment::getId, cursor, size, CursorPaginator.CountMode.of(count)));
+    }
+
     @Operation(summary = "新增收款记录")
     @PostMapping("/payment")
     @PreAuthorize("@ss.hasPermission('finance:payment:create')")
@@ -273,16 +294,10 @@ public class FinanceController {
     // ==================== 工具方法 ====================
 
     private String generatePaymentNo() {
-        String prefix = "SK" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Long count = paymentMapper.selectCount(new LambdaQueryWrapper<FinancePayment>()
-                .likeRight(FinancePayment::getPaymentNo, prefix));
-        return prefix + String.format("%04d", count + 1);
+        return sequenceService.nextNo(SequenceService.BizNoType.PAYMENT);
     }
 
     private String generateInvoiceNo() {
-        String prefix = "FP" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Long count = invoiceMapper.selectCount(new LambdaQueryWrapper<FinanceInvoice>()
-                .likeRight(FinanceInvoice::getInvoiceNo, prefix));
-        return prefix + String.format("%04d", count + 1);
+        return sequenceService.nextNo(SequenceService.BizNoType.INVOICE);
     }
 }
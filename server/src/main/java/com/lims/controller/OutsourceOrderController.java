@@ -6,6 +6,7 @@ import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.OutsourceOrder;
 import com.lims.mapper.OutsourceOrderMapper;
+import com.lims.service.SequenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -15,7 +16,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -28,6 +28,7 @@ import java.util.List;
 public class OutsourceOrderController {
 
     private final OutsourceOrderMapper orderMapper;
+    private final SequenceService sequenceService;
 
     @Operation(summary = "分页查询委外订单")
     @GetMapping("/page")
@@ -174,9 +175,6 @@ public class OutsourceOrderController {
     }
 
     private String generateOrderNo() {
-        String prefix = "WW" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Long count = orderMapper.selectCount(new LambdaQueryWrapper<OutsourceOrder>()
-                .likeRight(OutsourceOrder::getOrderNo, prefix));
-        return prefix + String.format("%04d", count + 1);
+        return sequenceService.nextNo(SequenceService.BizNoType.OUTSOURCE_ORDER);
     }
 }
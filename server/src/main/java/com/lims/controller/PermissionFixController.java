@@ -5,6 +5,7 @@ import com.lims.entity.SysPermission;
 import com.lims.entity.SysRolePermission;
 import com.lims.mapper.SysPermissionMapper;
 import com.lims.mapper.SysRolePermissionMapper;
+import com.lims.security.LoginUserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +23,7 @@ public class PermissionFixController {
 
     private final SysPermissionMapper permissionMapper;
     private final SysRolePermissionMapper rolePermissionMapper;
+    private final LoginUserCache loginUserCache;
 
     /**
      * 修复403权限问题 - 添加缺失的API权限
@@ -72,6 +74,9 @@ public class PermissionFixController {
             }
         }
 
+        // 角色权限已变更，失效登录用户缓存
+        loginUserCache.evictAll();
+
         return Result.success("成功添加 " + addedCount + " 个权限");
     }
 
@@ -6,6 +6,7 @@ import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.Quotation;
 import com.lims.mapper.QuotationMapper;
+import com.lims.service.SequenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -15,7 +16,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -28,6 +28,7 @@ import java.util.List;
 public class QuotationController {
 
     private final QuotationMapper quotationMapper;
+    private final SequenceService sequenceService;
 
     @Operation(summary = "分页查询报价单")
     @GetMapping("/page")
@@ -168,9 +169,6 @@ public class QuotationController {
     }
 
     private String generateQuotationNo() {
-        String prefix = "BJ" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Long count = quotationMapper.selectCount(new LambdaQueryWrapper<Quotation>()
-                .likeRight(Quotation::getQuotationNo, prefix));
-        return prefix + String.format("%04d", count + 1);
+        return sequenceService.nextNo(SequenceService.BizNoType.QUOTATION);
     }
 }
@@ -1,7 +1,10 @@
 package com.lims.controller;
 
 import com.lims.common.Result;
-import com.lims.service.ReportGeneratorService;
+import com.lims.common.ResultCode;
+import com.lims.dto.ReportRenderJob;
+import com.lims.service.ReportArtifactService;
+import com.lims.service.ReportRenderJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +19,8 @@ import org.springframework.web.bind.annotation.*;
 import java.io.File;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * 报告生成控制器
@@ -27,30 +32,37 @@ import java.nio.charset.StandardCharsets;
 @Tag(name = "报告生成", description = "PDF报告生成接口")
 public class ReportGeneratorController {
 
-    private final ReportGeneratorService reportGeneratorService;
+    private final ReportRenderJobService reportRenderJobService;
+    private final ReportArtifactService reportArtifactService;
 
-    @Operation(summary = "根据任务ID生成报告")
+    @Operation(summary = "根据任务ID提交报告生成")
     @PostMapping("/generate/{taskId}")
-    public Result<String> generateReport(@PathVariable Long taskId) {
-        try {
-            String pdfPath = reportGeneratorService.generateReport(taskId);
-            return Result.success(pdfPath);
-        } catch (Exception e) {
-            log.error("报告生成失败", e);
-            return Result.error("报告生成失败: " + e.getMessage());
-        }
+    public Result<ReportRenderJob> generateReport(@PathVariable Long taskId) {
+        return Result.success(reportRenderJobService.submitByTask(taskId));
     }
 
-    @Operation(summary = "根据检测数据ID生成报告")
+    @Operation(summary = "根据检测数据ID提交报告生成")
     @PostMapping("/generate-by-data/{testDataId}")
-    public Result<String> generateReportByTestData(@PathVariable Long testDataId) {
-        try {
-            String pdfPath = reportGeneratorService.generateReportByTestData(testDataId);
-            return Result.success(pdfPath);
-        } catch (Exception e) {
-            log.error("报告生成失败", e);
-            return Result.error("报告生成失败: " + e.getMessage());
+    public Result<ReportRenderJob> generateReportByTestData(@PathVariable Long testDataId) {
+        return Result.success(reportRenderJobService.submit(testDataId));
+    }
+
+    @Operation(summary = "查询报告生成任务")
+    @GetMapping("/jobs/{jobId}")
+    public Result<ReportRenderJob> getJob(@PathVariable String jobId) {
+        ReportRenderJob job = reportRenderJobService.getJob(jobId);
+        if (job == null) {
+            return Result.error(ResultCode.NOT_FOUND.getCode(), "生成任务不存在或已过期");
         }
+        return Result.success(job);
+    }
+
+    @Operation(summary = "报告生成队列指标")
+    @GetMapping("/stats")
+    public Result<Map<String, Object>> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(reportRenderJobService.getStats());
+        stats.put("artifactCache", reportArtifactService.getStats());
+        return Result.success(stats);
     }
 
     @Operation(summary = "下载报告")
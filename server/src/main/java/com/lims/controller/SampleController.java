@@ -1,6 +1,7 @@
 package com.lims.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.lims.common.CursorPageResult;
 import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.Sample;
@@ -44,6 +45,20 @@ public class SampleController {
         ));
     }
 
+    @Operation(summary = "游标分页查询样品", description = "按创建时间倒序，翻页传回上一页的 nextCursor；count=none/exact/estimate 控制首页是否返回总数")
+    @GetMapping("/cursor")
+    @PreAuthorize("@ss.hasPermission('sample:list')")
+    public Result<CursorPageResult<Sample>> cursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "none") String count,
+            @RequestParam(required = false) String sampleNo,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String status) {
+
+        return Result.success(sampleService.cursorList(cursor, size, count, sampleNo, name, status));
+    }
+
     @Operation(summary = "获取样品详情")
     @GetMapping("/{id}")
     @PreAuthorize("@ss.hasPermission('sample:query')")
@@ -65,9 +80,7 @@ public class SampleController {
     @PostMapping
     @PreAuthorize("@ss.hasPermission('sample:create')")
     public Result<Void> create(@RequestBody Sample sample) {
-        sample.setSampleNo(sampleService.generateSampleNo());
-        sample.setStatus("pending");
-        sampleService.save(sample);
+        sampleService.createSample(sample);
         return Result.successMsg("创建成功");
     }
 
@@ -75,7 +88,7 @@ public class SampleController {
     @PutMapping
     @PreAuthorize("@ss.hasPermission('sample:update')")
     public Result<Void> update(@RequestBody Sample sample) {
-        sampleService.updateById(sample);
+        sampleService.updateSample(sample);
         return Result.successMsg("更新成功");
     }
 
@@ -83,7 +96,7 @@ public class SampleController {
     @DeleteMapping("/{id}")
     @PreAuthorize("@ss.hasPermission('sample:delete')")
     public Result<Void> delete(@PathVariable Long id) {
-        sampleService.removeById(id);
+        sampleService.deleteSample(id);
         return Result.successMsg("删除成功");
     }
 
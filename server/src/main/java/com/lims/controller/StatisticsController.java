@@ -1,19 +1,17 @@
 package com.lims.controller;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.lims.common.Result;
-import com.lims.entity.*;
-import com.lims.mapper.*;
+import com.lims.mapper.StatisticsMapper;
+import com.lims.service.TrendService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -26,11 +24,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class StatisticsController {
 
-    private final EntrustmentMapper entrustmentMapper;
-    private final SampleMapper sampleMapper;
-    private final TestTaskMapper taskMapper;
-    private final TestReportMapper reportMapper;
-    private final ClientMapper clientMapper;
+    private final StatisticsMapper statisticsMapper;
+    private final TrendService trendService;
 
     // ==================== 委托单统计 ====================
 
@@ -41,24 +36,18 @@ public class StatisticsController {
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
         
-        LambdaQueryWrapper<Entrustment> wrapper = buildDateWrapper(startDate, endDate);
-        List<Entrustment> list = entrustmentMapper.selectList(wrapper);
+        LocalDateTime startTime = parseStartTime(startDate);
+        LocalDateTime endTime = parseEndTime(endDate);
+        Map<String, Object> summary = statisticsMapper.entrustmentSummary(startTime, endTime);
         
         Map<String, Object> result = new HashMap<>();
-        result.put("total", list.size());
+        result.put("total", getLong(summary, "total"));
         
         // 按状态分组
-        Map<String, Long> byStatus = list.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getStatus() != null ? e.getStatus() : "unknown",
-                        Collectors.counting()));
-        result.put("byStatus", byStatus);
+        result.put("byStatus", toCountMap(statisticsMapper.countEntrustmentByStatus(startTime, endTime)));
         
         // 金额统计
-        BigDecimal totalAmount = list.stream()
-                .map(e -> e.getEstimatedAmount() != null ? e.getEstimatedAmount() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        result.put("totalAmount", totalAmount);
+        result.put("totalAmount", getDecimal(summary, "totalAmount"));
         
         return Result.success(result);
     }
@@ -69,23 +58,9 @@ public class StatisticsController {
     public Result<List<Map<String, Object>>> entrustmentTrend(
             @RequestParam(defaultValue = "7") Integer days) {
         
-        List<Map<String, Object>> trend = new ArrayList<>();
         LocalDate today = LocalDate.now();
-        
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            String dateStr = date.format(DateTimeFormatter.ISO_LOCAL_DATE);
-            
-            Long count = entrustmentMapper.selectCount(new LambdaQueryWrapper<Entrustment>()
-                    .apply("DATE(create_time) = {0}", dateStr));
-            
-            Map<String, Object> item = new HashMap<>();
-            item.put("date", dateStr);
-            item.put("count", count);
-            trend.add(item);
-        }
-        
-        return Result.success(trend);
+        return Result.success(trendService.trend(Map.of("count", TrendService.Metric.ENTRUSTMENT_CREATED),
+                today.minusDays(days - 1), today, TrendService.Granularity.DAY));
     }
 
     @Operation(summary = "按客户统计委托")
@@ -96,20 +71,14 @@ public class StatisticsController {
             @RequestParam(required = false) String endDate,
             @RequestParam(defaultValue = "10") Integer limit) {
         
-        LambdaQueryWrapper<Entrustment> wrapper = buildDateWrapper(startDate, endDate);
-        List<Entrustment> list = entrustmentMapper.selectList(wrapper);
+        List<Map<String, Object>> rows = statisticsMapper.countEntrustmentByClient(
+                parseStartTime(startDate), parseEndTime(endDate), limit);
         
-        Map<String, Long> byClient = list.stream()
-                .filter(e -> e.getClientName() != null)
-                .collect(Collectors.groupingBy(Entrustment::getClientName, Collectors.counting()));
-        
-        List<Map<String, Object>> result = byClient.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(limit)
-                .map(e -> {
+        List<Map<String, Object>> result = rows.stream()
+                .map(row -> {
                     Map<String, Object> item = new HashMap<>();
-                    item.put("clientName", e.getKey());
-                    item.put("count", e.getValue());
+                    item.put("clientName", row.get("name"));
+                    item.put("count", getLong(row, "count"));
                     return item;
                 })
                 .collect(Collectors.toList());
@@ -126,16 +95,13 @@ public class StatisticsController {
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
         
-        List<Sample> list = sampleMapper.selectList(buildSampleDateWrapper(startDate, endDate));
+        Map<String, Long> byStatus = toCountMap(statisticsMapper.countSampleByStatus(
+                parseDate(startDate), parseDate(endDate)));
         
         Map<String, Object> result = new HashMap<>();
-        result.put("total", list.size());
+        result.put("total", sumCounts(byStatus));
         
         // 按状态分组
-        Map<String, Long> byStatus = list.stream()
-                .collect(Collectors.groupingBy(
-                        s -> s.getStatus() != null ? s.getStatus() : "unknown",
-                        Collectors.counting()));
         result.put("byStatus", byStatus);
         
         return Result.success(result);
@@ -147,23 +113,9 @@ public class StatisticsController {
     public Result<List<Map<String, Object>>> sampleTrend(
             @RequestParam(defaultValue = "7") Integer days) {
         
-        List<Map<String, Object>> trend = new ArrayList<>();
         LocalDate today = LocalDate.now();
-        
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            String dateStr = date.format(DateTimeFormatter.ISO_LOCAL_DATE);
-            
-            Long count = sampleMapper.selectCount(new LambdaQueryWrapper<Sample>()
-                    .apply("DATE(receipt_date) = {0}", dateStr));
-            
-            Map<String, Object> item = new HashMap<>();
-            item.put("date", dateStr);
-            item.put("count", count);
-            trend.add(item);
-        }
-        
-        return Result.success(trend);
+        return Result.success(trendService.trend(Map.of("count", TrendService.Metric.SAMPLE_RECEIVED),
+                today.minusDays(days - 1), today, TrendService.Granularity.DAY));
     }
 
     // ==================== 任务统计 ====================
@@ -175,20 +127,13 @@ public class StatisticsController {
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
         
-        List<TestTask> list = taskMapper.selectList(buildTaskDateWrapper(startDate, endDate));
+        Map<String, Object> summary = statisticsMapper.taskCompletionSummary(
+                parseStartTime(startDate), parseEndTime(endDate));
         
-        long total = list.size();
-        long completed = list.stream().filter(t -> "completed".equals(t.getStatus())).count();
-        long onTime = list.stream()
-                .filter(t -> "completed".equals(t.getStatus()))
-                .filter(t -> t.getCompletedDate() != null && t.getDueDate() != null)
-                .filter(t -> !t.getCompletedDate().isAfter(t.getDueDate()))
-                .count();
-        long overdue = list.stream()
-                .filter(t -> "completed".equals(t.getStatus()))
-                .filter(t -> t.getCompletedDate() != null && t.getDueDate() != null)
-                .filter(t -> t.getCompletedDate().isAfter(t.getDueDate()))
-                .count();
+        long total = getLong(summary, "total");
+        long completed = getLong(summary, "completed");
+        long onTime = getLong(summary, "onTime");
+        long overdue = getLong(summary, "overdue");
         
         Map<String, Object> result = new HashMap<>();
         result.put("total", total);
@@ -207,24 +152,9 @@ public class StatisticsController {
     public Result<List<Map<String, Object>>> taskTrend(
             @RequestParam(defaultValue = "7") Integer days) {
         
-        List<Map<String, Object>> trend = new ArrayList<>();
         LocalDate today = LocalDate.now();
-        
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            String dateStr = date.format(DateTimeFormatter.ISO_LOCAL_DATE);
-            
-            Long completed = taskMapper.selectCount(new LambdaQueryWrapper<TestTask>()
-                    .eq(TestTask::getStatus, "completed")
-                    .apply("DATE(completed_date) = {0}", dateStr));
-            
-            Map<String, Object> item = new HashMap<>();
-            item.put("date", dateStr);
-            item.put("completed", completed);
-            trend.add(item);
-        }
-        
-        return Result.success(trend);
+        return Result.success(trendService.trend(Map.of("completed", TrendService.Metric.TASK_COMPLETED),
+                today.minusDays(days - 1), today, TrendService.Granularity.DAY));
     }
 
     @Operation(summary = "检测员工作量统计")
@@ -234,20 +164,14 @@ public class StatisticsController {
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
         
-        LambdaQueryWrapper<TestTask> wrapper = buildTaskDateWrapper(startDate, endDate);
-        wrapper.eq(TestTask::getStatus, "completed");
-        List<TestTask> list = taskMapper.selectList(wrapper);
-        
-        Map<String, Long> byTester = list.stream()
-                .filter(t -> t.getAssignee() != null)
-                .collect(Collectors.groupingBy(TestTask::getAssignee, Collectors.counting()));
+        List<Map<String, Object>> rows = statisticsMapper.countCompletedTaskByTester(
+                parseStartTime(startDate), parseEndTime(endDate));
         
-        List<Map<String, Object>> result = byTester.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .map(e -> {
+        List<Map<String, Object>> result = rows.stream()
+                .map(row -> {
                     Map<String, Object> item = new HashMap<>();
-                    item.put("tester", e.getKey());
-                    item.put("completedCount", e.getValue());
+                    item.put("tester", row.get("name"));
+                    item.put("completedCount", getLong(row, "count"));
                     return item;
                 })
                 .collect(Collectors.toList());
@@ -264,70 +188,65 @@ public class StatisticsController {
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
         
-        List<TestReport> list = reportMapper.selectList(buildReportDateWrapper(startDate, endDate));
+        Map<String, Long> byStatus = toCountMap(statisticsMapper.countReportByStatus(
+                parseStartTime(startDate), parseEndTime(endDate)));
+        long total = sumCounts(byStatus);
         
         Map<String, Object> result = new HashMap<>();
-        result.put("total", list.size());
+        result.put("total", total);
         
         // 按状态分组
-        Map<String, Long> byStatus = list.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getStatus() != null ? r.getStatus() : "unknown",
-                        Collectors.counting()));
         result.put("byStatus", byStatus);
         
         // 已发布数量
-        long issued = list.stream().filter(r -> "issued".equals(r.getStatus())).count();
+        long issued = byStatus.getOrDefault("issued", 0L);
         result.put("issuedCount", issued);
-        result.put("issueRate", list.size() > 0 ? (double) issued / list.size() * 100 : 0);
+        result.put("issueRate", total > 0 ? (double) issued / total * 100 : 0);
         
         return Result.success(result);
     }
 
     // ==================== 工具方法 ====================
 
-    private LambdaQueryWrapper<Entrustment> buildDateWrapper(String startDate, String endDate) {
-        LambdaQueryWrapper<Entrustment> wrapper = new LambdaQueryWrapper<>();
-        if (startDate != null && !startDate.isEmpty()) {
-            wrapper.ge(Entrustment::getCreateTime, LocalDate.parse(startDate).atStartOfDay());
-        }
-        if (endDate != null && !endDate.isEmpty()) {
-            wrapper.le(Entrustment::getCreateTime, LocalDate.parse(endDate).plusDays(1).atStartOfDay());
-        }
-        wrapper.orderByDesc(Entrustment::getCreateTime);
-        return wrapper;
+    private LocalDate parseDate(String date) {
+        return date != null && !date.isEmpty() ? LocalDate.parse(date) : null;
     }
 
-    private LambdaQueryWrapper<Sample> buildSampleDateWrapper(String startDate, String endDate) {
-        LambdaQueryWrapper<Sample> wrapper = new LambdaQueryWrapper<>();
-        if (startDate != null && !startDate.isEmpty()) {
-            wrapper.ge(Sample::getReceiptDate, LocalDate.parse(startDate));
-        }
-        if (endDate != null && !endDate.isEmpty()) {
-            wrapper.le(Sample::getReceiptDate, LocalDate.parse(endDate));
-        }
-        return wrapper;
+    private LocalDateTime parseStartTime(String startDate) {
+        LocalDate date = parseDate(startDate);
+        return date != null ? date.atStartOfDay() : null;
     }
 
-    private LambdaQueryWrapper<TestTask> buildTaskDateWrapper(String startDate, String endDate) {
-        LambdaQueryWrapper<TestTask> wrapper = new LambdaQueryWrapper<>();
-        if (startDate != null && !startDate.isEmpty()) {
-            wrapper.ge(TestTask::getCreateTime, LocalDate.parse(startDate).atStartOfDay());
-        }
-        if (endDate != null && !endDate.isEmpty()) {
-            wrapper.le(TestTask::getCreateTime, LocalDate.parse(endDate).plusDays(1).atStartOfDay());
-        }
-        return wrapper;
+    private LocalDateTime parseEndTime(String endDate) {
+        LocalDate date = parseDate(endDate);
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
     }
 
-    private LambdaQueryWrapper<TestReport> buildReportDateWrapper(String startDate, String endDate) {
-        LambdaQueryWrapper<TestReport> wrapper = new LambdaQueryWrapper<>();
-        if (startDate != null && !startDate.isEmpty()) {
-            wrapper.ge(TestReport::getCreateTime, LocalDate.parse(startDate).atStartOfDay());
+    /**
+     * 分组计数结果 (name, count) 转为 Map
+     */
+    private Map<String, Long> toCountMap(List<Map<String, Object>> rows) {
+        Map<String, Long> result = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            result.put(String.valueOf(row.get("name")), getLong(row, "count"));
         }
-        if (endDate != null && !endDate.isEmpty()) {
-            wrapper.le(TestReport::getCreateTime, LocalDate.parse(endDate).plusDays(1).atStartOfDay());
+        return result;
+    }
+
+    private long sumCounts(Map<String, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private long getLong(Map<String, Object> row, String key) {
+        Object value = row != null ? row.get(key) : null;
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private BigDecimal getDecimal(Map<String, Object> row, String key) {
+        Object value = row != null ? row.get(key) : null;
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
         }
-        return wrapper;
+        return value instanceof Number ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
     }
 }
@@ -6,6 +6,7 @@ import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.Supplier;
 import com.lims.mapper.SupplierMapper;
+import com.lims.service.SequenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -13,8 +14,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -27,6 +26,7 @@ import java.util.List;
 public class SupplierController {
 
     private final SupplierMapper supplierMapper;
+    private final SequenceService sequenceService;
 
     @Operation(summary = "分页查询供应商")
     @GetMapping("/page")
@@ -136,9 +136,6 @@ public class SupplierController {
     }
 
     private String generateSupplierCode() {
-        String prefix = "GYS" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Long count = supplierMapper.selectCount(new LambdaQueryWrapper<Supplier>()
-                .likeRight(Supplier::getCode, prefix));
-        return prefix + String.format("%04d", count + 1);
+        return sequenceService.nextNo(SequenceService.BizNoType.SUPPLIER);
     }
 }
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.lims.common.Result;
 import com.lims.entity.SysDept;
 import com.lims.mapper.SysDeptMapper;
+import com.lims.service.DeptTreeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,7 @@ import java.util.List;
 public class SysDeptController {
 
     private final SysDeptMapper deptMapper;
+    private final DeptTreeService deptTreeService;
 
     @Operation(summary = "获取部门列表(树形)")
     @GetMapping("/list")
@@ -62,6 +64,7 @@ public class SysDeptController {
             dept.setAncestors("0");
         }
         deptMapper.insert(dept);
+        deptTreeService.refresh();
         return Result.successMsg("创建成功");
     }
 
@@ -83,6 +86,7 @@ public class SysDeptController {
             }
         }
         deptMapper.updateById(dept);
+        deptTreeService.refresh();
         return Result.successMsg("更新成功");
     }
 
@@ -98,17 +102,13 @@ public class SysDeptController {
             return Result.error("存在下级部门，不能删除");
         }
         deptMapper.deleteById(id);
+        deptTreeService.refresh();
         return Result.successMsg("删除成功");
     }
 
     @Operation(summary = "获取部门树形下拉选项")
     @GetMapping("/tree")
     public Result<List<SysDept>> tree() {
-        List<SysDept> list = deptMapper.selectList(
-                new LambdaQueryWrapper<SysDept>()
-                        .eq(SysDept::getStatus, 1)
-                        .orderByAsc(SysDept::getSort)
-        );
-        return Result.success(list);
+        return Result.success(deptTreeService.getTree(true));
     }
 }
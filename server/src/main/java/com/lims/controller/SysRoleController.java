@@ -6,6 +6,7 @@ import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.SysRole;
 import com.lims.mapper.SysRoleMapper;
+import com.lims.security.LoginUserCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +26,7 @@ import java.util.List;
 public class SysRoleController {
 
     private final SysRoleMapper roleMapper;
+    private final LoginUserCache loginUserCache;
 
     @Operation(summary = "分页查询角色列表")
     @GetMapping("/page")
@@ -100,6 +102,7 @@ public class SysRoleController {
             return Result.error("角色编码已被使用");
         }
         roleMapper.updateById(role);
+        loginUserCache.evictAll();
         return Result.successMsg("更新成功");
     }
 
@@ -109,6 +112,7 @@ public class SysRoleController {
     public Result<Void> delete(@PathVariable Long id) {
         // TODO: 检查角色是否被用户使用
         roleMapper.deleteById(id);
+        loginUserCache.evictAll();
         return Result.successMsg("删除成功");
     }
 
@@ -120,6 +124,7 @@ public class SysRoleController {
         role.setId(id);
         role.setStatus(status);
         roleMapper.updateById(role);
+        loginUserCache.evictAll();
         return Result.successMsg("状态更新成功");
     }
 
@@ -135,6 +140,7 @@ public class SysRoleController {
         role.setDataScope(dataScope);
         role.setDeptIds(deptIds);
         roleMapper.updateById(role);
+        loginUserCache.evictAll();
         return Result.successMsg("数据权限设置成功");
     }
 }
@@ -2,9 +2,11 @@ package com.lims.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.lims.annotation.DataScope;
 import com.lims.common.PageResult;
 import com.lims.common.Result;
 import com.lims.entity.SysUser;
+import com.lims.security.LoginUserCache;
 import com.lims.service.SysUserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,10 +25,12 @@ import org.springframework.web.bind.annotation.*;
 public class SysUserController {
 
     private final SysUserService userService;
+    private final LoginUserCache loginUserCache;
 
     @Operation(summary = "分页查询用户列表")
     @GetMapping("/page")
     @PreAuthorize("@ss.hasPermission('system:user:list')")
+    @DataScope(userIdColumn = "id")
     public Result<PageResult<SysUser>> page(
             @RequestParam(defaultValue = "1") Integer current,
             @RequestParam(defaultValue = "10") Integer size,
@@ -78,6 +82,7 @@ public class SysUserController {
     @PreAuthorize("@ss.hasPermission('system:user:update')")
     public Result<Void> update(@RequestBody SysUser user) {
         userService.updateUser(user);
+        loginUserCache.evict(user.getId());
         return Result.successMsg("更新成功");
     }
 
@@ -86,6 +91,7 @@ public class SysUserController {
     @PreAuthorize("@ss.hasPermission('system:user:delete')")
     public Result<Void> delete(@PathVariable Long id) {
         userService.removeById(id);
+        loginUserCache.evict(id);
         return Result.successMsg("删除成功");
     }
 
@@ -97,6 +103,7 @@ public class SysUserController {
         user.setId(id);
         user.setStatus(status);
         userService.updateById(user);
+        loginUserCache.evict(id);
         return Result.successMsg("状态更新成功");
     }
 
@@ -8,6 +8,7 @@ import com.lims.entity.TestData;
 import com.lims.entity.TestTask;
 import com.lims.mapper.TestDataMapper;
 import com.lims.service.TestTaskService;
+import com.lims.util.ListProjection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -40,7 +41,8 @@ public class TestDataController {
         
         Page<TestData> page = new Page<>(current, size);
         LambdaQueryWrapper<TestData> wrapper = new LambdaQueryWrapper<>();
-        wrapper.like(StringUtils.hasText(taskNo), TestData::getTaskNo, taskNo)
+        wrapper.select(TestData.class, ListProjection::include)
+               .like(StringUtils.hasText(taskNo), TestData::getTaskNo, taskNo)
                .like(StringUtils.hasText(sampleNo), TestData::getSampleNo, sampleNo)
                .eq(StringUtils.hasText(status), TestData::getStatus, status)
                .orderByDesc(TestData::getCreateTime);
@@ -88,7 +90,7 @@ public class TestDataController {
             task.setId(testData.getTaskId());
             task.setProgress(50);
             task.setStatus("in_progress");
-            taskService.updateById(task);
+            taskService.updateTask(task);
         }
         
         return Result.success("保存成功", testData);
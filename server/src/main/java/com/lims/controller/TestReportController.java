@@ -3,14 +3,25 @@ package com.lims.controller;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.lims.common.PageResult;
 import com.lims.common.Result;
+import com.lims.dto.BatchOperationResult;
 import com.lims.entity.TestReport;
+import com.lims.service.QrCodeService;
+import com.lims.service.ReportExportService;
 import com.lims.service.TestReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
 /**
  * 报告管理Controller
  */
@@ -21,6 +32,8 @@ import org.springframework.web.bind.annotation.*;
 public class TestReportController {
 
     private final TestReportService reportService;
+    private final ReportExportService reportExportService;
+    private final QrCodeService qrCodeService;
 
     @Operation(summary = "分页查询报告")
     @GetMapping("/page")
@@ -61,7 +74,7 @@ public class TestReportController {
     @PutMapping
     @PreAuthorize("@ss.hasPermission('report:update')")
     public Result<Void> update(@RequestBody TestReport report) {
-        reportService.updateById(report);
+        reportService.updateReport(report);
         return Result.successMsg("更新成功");
     }
 
@@ -69,7 +82,7 @@ public class TestReportController {
     @DeleteMapping("/{id}")
     @PreAuthorize("@ss.hasPermission('report:delete')")
     public Result<Void> delete(@PathVariable Long id) {
-        reportService.removeById(id);
+        reportService.deleteReport(id);
         return Result.successMsg("删除成功");
     }
 
@@ -113,6 +126,16 @@ public class TestReportController {
         return Result.successMsg("发布成功");
     }
 
+    @Operation(summary = "批量生成报告二维码", description = "并行生成防伪验证码和二维码图片，返回成功/失败/跳过的报告ID；已有验证码的报告跳过，regenerate=true 时重新生成")
+    @PostMapping("/batch-qrcode")
+    @PreAuthorize("@ss.hasPermission('report:issue')")
+    public Result<BatchOperationResult> batchGenerateQrCode(
+            @RequestBody Long[] ids,
+            @RequestParam(defaultValue = "false") boolean regenerate) {
+        BatchOperationResult result = qrCodeService.generateReportQrCodes(ids, regenerate);
+        return Result.success("二维码已生成", result);
+    }
+
     @Operation(summary = "添加签名盖章")
     @PostMapping("/{id}/signature-stamp")
     @PreAuthorize("@ss.hasPermission('report:update')")
@@ -143,5 +166,38 @@ public class TestReportController {
                 .list();
         return Result.success(reports);
     }
-}
 
+    @Operation(summary = "导出报告Word")
+    @GetMapping("/{id}/export/word")
+    @PreAuthorize("@ss.hasPermission('report:export')")
+    public ResponseEntity<byte[]> exportWord(@PathVariable Long id) {
+        return attachment(reportExportService.exportToWord(id), "report_" + id + ".docx",
+                MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.wordprocessingml.document"));
+    }
+
+    @Operation(summary = "导出报告PDF", description = "与报告异步生成共用转换线程池，队列已满时返回 429，请稍后重试")
+    @GetMapping("/{id}/export/pdf")
+    @PreAuthorize("@ss.hasPermission('report:export')")
+    public ResponseEntity<byte[]> exportPdf(@PathVariable Long id) {
+        return attachment(reportExportService.exportToPdf(id), "report_" + id + ".pdf", MediaType.APPLICATION_PDF);
+    }
+
+    @Operation(summary = "批量导出报告Word(ZIP)")
+    @PostMapping("/batch-export/word")
+    @PreAuthorize("@ss.hasPermission('report:export')")
+    public void batchExportWord(@RequestBody Long[] ids, HttpServletResponse response) throws IOException {
+        String filename = "reports_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + ".zip";
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        // ZIP 边生成边写出，不在内存中组装
+        reportExportService.batchExportToWord(ids, response.getOutputStream());
+        response.flushBuffer();
+    }
+
+    private ResponseEntity<byte[]> attachment(byte[] content, String filename, MediaType mediaType) {
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(content);
+    }
+}
@@ -1,8 +1,10 @@
 package com.lims.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.lims.common.CursorPageResult;
 import com.lims.common.PageResult;
 import com.lims.common.Result;
+import com.lims.dto.BatchOperationResult;
 import com.lims.entity.TestTask;
 import com.lims.service.TestTaskService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -45,6 +47,21 @@ public class TestTaskController {
         ));
     }
 
+    @Operation(summary = "游标分页查询任务", description = "按创建时间倒序，翻页传回上一页的 nextCursor；count=none/exact/estimate 控制首页是否返回总数")
+    @GetMapping("/cursor")
+    @PreAuthorize("@ss.hasPermission('task:list')")
+    public Result<CursorPageResult<TestTask>> cursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "none") String count,
+            @RequestParam(required = false) String taskNo,
+            @RequestParam(required = false) String sampleName,
+            @RequestParam(required = false) String assignee,
+            @RequestParam(required = false) String status) {
+
+        return Result.success(taskService.cursorList(cursor, size, count, taskNo, sampleName, assignee, status));
+    }
+
     @Operation(summary = "查询我的任务")
     @GetMapping("/my")
     @PreAuthorize("@ss.hasPermission('task:list')")
@@ -83,7 +100,7 @@ public class TestTaskController {
     @PutMapping
     @PreAuthorize("@ss.hasPermission('task:update')")
     public Result<Void> update(@RequestBody TestTask task) {
-        taskService.updateById(task);
+        taskService.updateTask(task);
         return Result.successMsg("更新成功");
     }
 
@@ -91,7 +108,7 @@ public class TestTaskController {
     @DeleteMapping("/{id}")
     @PreAuthorize("@ss.hasPermission('task:delete')")
     public Result<Void> delete(@PathVariable Long id) {
-        taskService.removeById(id);
+        taskService.deleteTask(id);
         return Result.successMsg("删除成功");
     }
 
@@ -106,15 +123,43 @@ public class TestTaskController {
         return Result.successMsg("分配成功");
     }
 
-    @Operation(summary = "批量分配任务")
+    @Operation(summary = "批量分配任务", description = "只分配待检测、检测中的任务，其他状态的任务返回 INVALID_STATUS")
     @PostMapping("/batch-assign")
     @PreAuthorize("@ss.hasPermission('task:assign')")
-    public Result<Void> batchAssign(
+    public Result<BatchOperationResult> batchAssign(
             @RequestBody List<Long> taskIds,
             @RequestParam Long assigneeId,
             @RequestParam String assigneeName) {
-        taskService.batchAssign(taskIds, assigneeId, assigneeName);
-        return Result.successMsg("批量分配成功");
+        return Result.success("批量分配已处理", taskService.batchAssign(taskIds, assigneeId, assigneeName));
+    }
+
+    @Operation(summary = "批量开始任务")
+    @PostMapping("/batch-start")
+    @PreAuthorize("@ss.hasPermission('task:execute')")
+    public Result<BatchOperationResult> batchStart(@RequestBody List<Long> taskIds) {
+        return Result.success("批量开始已处理",
+                taskService.batchOperate(TestTaskService.BatchAction.START, taskIds, null, null, null));
+    }
+
+    @Operation(summary = "批量完成任务")
+    @PostMapping("/batch-complete")
+    @PreAuthorize("@ss.hasPermission('task:execute')")
+    public Result<BatchOperationResult> batchComplete(@RequestBody List<Long> taskIds) {
+        return Result.success("批量完成已处理",
+                taskService.batchOperate(TestTaskService.BatchAction.COMPLETE, taskIds, null, null, null));
+    }
+
+    @Operation(summary = "批量转交任务")
+    @PostMapping("/batch-transfer")
+    @PreAuthorize("@ss.hasPermission('task:assign')")
+    public Result<BatchOperationResult> batchTransfer(
+            @RequestBody List<Long> taskIds,
+            @RequestParam Long newAssigneeId,
+            @RequestParam String newAssigneeName,
+            @RequestParam String reason) {
+        return Result.success("批量转交已处理",
+                taskService.batchOperate(TestTaskService.BatchAction.TRANSFER, taskIds,
+                        newAssigneeId, newAssigneeName, reason));
     }
 
     @Operation(summary = "开始任务")
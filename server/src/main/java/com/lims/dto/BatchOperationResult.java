@@ -0,0 +1,53 @@
+package com.lims.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量操作结果DTO
+ */
+@Data
+@Schema(description = "批量操作结果")
+public class BatchOperationResult {
+
+    /** 记录不存在 */
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    /** 当前状态不允许该操作 */
+    public static final String INVALID_STATUS = "INVALID_STATUS";
+
+    /** 读取后被其他请求修改（乐观锁冲突） */
+    public static final String CONFLICT = "CONFLICT";
+
+    /** 文件存储失败 */
+    public static final String STORAGE_ERROR = "STORAGE_ERROR";
+
+    @Schema(description = "请求的记录数")
+    private int total;
+
+    @Schema(description = "成功的记录ID")
+    private List<Long> succeeded = new ArrayList<>();
+
+    @Schema(description = "失败的记录ID -> 原因(NOT_FOUND/INVALID_STATUS/CONFLICT/STORAGE_ERROR)")
+    private Map<Long, String> failed = new LinkedHashMap<>();
+
+    @Schema(description = "无需处理而跳过的记录ID")
+    private List<Long> skipped = new ArrayList<>();
+
+    public void success(Long id) {
+        succeeded.add(id);
+    }
+
+    public void fail(Long id, String reason) {
+        failed.put(id, reason);
+    }
+
+    public void skip(Long id) {
+        skipped.add(id);
+    }
+}
@@ -0,0 +1,48 @@
+package com.lims.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 报告生成任务DTO
+ */
+@Data
+@Schema(description = "报告生成任务")
+public class ReportRenderJob {
+
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String SUCCEEDED = "succeeded";
+    public static final String FAILED = "failed";
+
+    @Schema(description = "任务ID")
+    private String jobId;
+
+    @Schema(description = "检测数据ID")
+    private Long testDataId;
+
+    @Schema(description = "状态: queued/running/succeeded/failed")
+    private volatile String status;
+
+    @Schema(description = "生成的PDF文件路径")
+    private volatile String pdfPath;
+
+    @Schema(description = "失败原因")
+    private volatile String error;
+
+    @Schema(description = "提交时间")
+    private LocalDateTime submitTime;
+
+    @Schema(description = "开始时间")
+    private volatile LocalDateTime startTime;
+
+    @Schema(description = "结束时间")
+    private volatile LocalDateTime finishTime;
+
+    @Schema(description = "各阶段耗时(毫秒): queue/cache/parse/xlsx/pdf")
+    private Map<String, Long> stageMillis = new ConcurrentHashMap<>();
+}
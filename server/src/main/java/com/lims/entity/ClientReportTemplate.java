@@ -1,6 +1,7 @@
 package com.lims.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.lims.annotation.ListExclude;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -66,6 +67,7 @@ public class ClientReportTemplate implements Serializable {
      * 包含多个页面，每个页面有：id, type, name, layout[]
      */
     @TableField(typeHandler = com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler.class)
+    @ListExclude
     private String pages;
 
     /**
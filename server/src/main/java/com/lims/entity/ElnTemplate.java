@@ -1,6 +1,7 @@
 package com.lims.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.lims.annotation.ListExclude;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -47,6 +48,7 @@ public class ElnTemplate implements Serializable {
      * 模板内容（JSON格式）
      * 包含字段定义、计算公式、验证规则等
      */
+    @ListExclude
     private String templateContent;
 
     /**
@@ -5,6 +5,7 @@ import lombok.Data;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 部门实体
@@ -76,5 +77,10 @@ public class SysDept implements Serializable {
     @TableLogic
     @TableField(fill = FieldFill.INSERT)
     private Integer deleted;
-}
 
+    /**
+     * 子部门（仅树形接口返回）
+     */
+    @TableField(exist = false)
+    private List<SysDept> children;
+}
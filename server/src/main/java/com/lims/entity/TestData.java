@@ -1,6 +1,7 @@
 package com.lims.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.lims.annotation.ListExclude;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -51,11 +52,13 @@ public class TestData implements Serializable {
     /**
      * 录入数据（JSON格式）
      */
+    @ListExclude
     private String dataContent;
 
     /**
      * 计算结果（JSON格式）
      */
+    @ListExclude
     private String resultContent;
 
     /**
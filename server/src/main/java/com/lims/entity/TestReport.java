@@ -1,6 +1,7 @@
 package com.lims.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.lims.annotation.ListExclude;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -72,6 +73,7 @@ public class TestReport implements Serializable {
     /**
      * 检测结果（JSON格式）
      */
+    @ListExclude
     private String testResults;
 
     /**
@@ -0,0 +1,78 @@
+package com.lims.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 业务状态变更事件
+ * 委托单/样品/任务/报告新增、状态流转或删除后发布，供缓存、计数器等监听
+ */
+@Getter
+public class StatusChangeEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 业务实体类型
+     */
+    public enum EntityType {
+        ENTRUSTMENT, SAMPLE, TASK, REPORT
+    }
+
+    private final EntityType entityType;
+
+    /**
+     * 实体ID，批量事件为 null
+     */
+    private final Long entityId;
+
+    /**
+     * 变更前的状态，新增时为 null
+     */
+    private final String previousStatus;
+
+    /**
+     * 变更后的状态，仅分配/转交等非状态字段变化时为 null
+     */
+    private final String status;
+
+    /**
+     * 本次变更涉及的记录数，批量操作合并为一个事件
+     */
+    private final int count;
+
+    /**
+     * 记录已删除，previousStatus 为删除前的状态
+     */
+    private final boolean removed;
+
+    public StatusChangeEvent(Object source, EntityType entityType, Long entityId,
+                             String previousStatus, String status) {
+        this(source, entityType, entityId, previousStatus, status, 1, false);
+    }
+
+    /**
+     * 批量变更事件：count 条记录从 previousStatus 变为 status
+     */
+    public StatusChangeEvent(Object source, EntityType entityType, String previousStatus, String status, int count) {
+        this(source, entityType, null, previousStatus, status, count, false);
+    }
+
+    /**
+     * 删除事件
+     */
+    public static StatusChangeEvent removed(Object source, EntityType entityType, Long entityId, String previousStatus) {
+        return new StatusChangeEvent(source, entityType, entityId, previousStatus, null, 1, true);
+    }
+
+    private StatusChangeEvent(Object source, EntityType entityType, Long entityId,
+                              String previousStatus, String status, int count, boolean removed) {
+        super(source);
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.count = count;
+        this.removed = removed;
+    }
+}
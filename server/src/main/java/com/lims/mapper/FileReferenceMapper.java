@@ -0,0 +1,21 @@
+package com.lims.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 文件引用Mapper
+ * 查询业务表中保存文件路径的列，供孤立文件清理判断文件是否仍被引用
+ */
+@Mapper
+public interface FileReferenceMapper {
+
+    /**
+     * 查询指定列的非空值（含逻辑删除的记录），表名/列名仅由 FileOrphanSweepService 内部提供
+     */
+    @Select("SELECT ${column} FROM ${table} WHERE ${column} IS NOT NULL AND ${column} != ''")
+    List<String> selectReferences(@Param("table") String table, @Param("column") String column);
+}
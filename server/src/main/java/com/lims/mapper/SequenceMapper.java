@@ -0,0 +1,22 @@
+package com.lims.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 业务编号序列Mapper
+ */
+@Mapper
+public interface SequenceMapper {
+
+    /**
+     * 查询指定前缀下已使用的最大序号（包含已逻辑删除的记录，唯一索引同样覆盖它们）
+     * 表名/列名仅由 SequenceService.BizNoType 提供
+     */
+    @Select("SELECT IFNULL(MAX(CAST(SUBSTRING(${column}, CHAR_LENGTH(#{prefix}) + 1) AS UNSIGNED)), 0) " +
+            "FROM ${table} WHERE ${column} LIKE CONCAT(#{prefix}, '%')")
+    long selectMaxSeq(@Param("table") String table,
+                      @Param("column") String column,
+                      @Param("prefix") String prefix);
+}
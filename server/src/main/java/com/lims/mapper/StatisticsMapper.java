@@ -0,0 +1,125 @@
+package com.lims.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 统计聚合Mapper
+ * 分组计数/求和直接在数据库完成，避免整表加载到内存
+ */
+@Mapper
+public interface StatisticsMapper {
+
+    /**
+     * 委托单总数及预计费用合计
+     */
+    @Select("<script>" +
+            "SELECT COUNT(*) AS total, IFNULL(SUM(estimated_amount), 0) AS totalAmount " +
+            "FROM biz_entrustment WHERE deleted = 0 " +
+            "<if test='startTime != null'> AND create_time &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'> AND create_time &lt;= #{endTime} </if>" +
+            "</script>")
+    Map<String, Object> entrustmentSummary(@Param("startTime") LocalDateTime startTime,
+                                           @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 委托单按状态分组计数
+     */
+    @Select("<script>" +
+            "SELECT IFNULL(status, 'unknown') AS name, COUNT(*) AS count " +
+            "FROM biz_entrustment WHERE deleted = 0 " +
+            "<if test='startTime != null'> AND create_time &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'> AND create_time &lt;= #{endTime} </if>" +
+            "GROUP BY IFNULL(status, 'unknown')" +
+            "</script>")
+    List<Map<String, Object>> countEntrustmentByStatus(@Param("startTime") LocalDateTime startTime,
+                                                       @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 委托单按客户分组计数（倒序取前N）
+     */
+    @Select("<script>" +
+            "SELECT client_name AS name, COUNT(*) AS count " +
+            "FROM biz_entrustment WHERE deleted = 0 AND client_name IS NOT NULL " +
+            "<if test='startTime != null'> AND create_time &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'> AND create_time &lt;= #{endTime} </if>" +
+            "GROUP BY client_name ORDER BY count DESC LIMIT #{limit}" +
+            "</script>")
+    List<Map<String, Object>> countEntrustmentByClient(@Param("startTime") LocalDateTime startTime,
+                                                       @Param("endTime") LocalDateTime endTime,
+                                                       @Param("limit") Integer limit);
+
+    /**
+     * 样品按状态分组计数（按收样日期过滤）
+     */
+    @Select("<script>" +
+            "SELECT IFNULL(status, 'unknown') AS name, COUNT(*) AS count " +
+            "FROM biz_sample WHERE deleted = 0 " +
+            "<if test='startDate != null'> AND receipt_date &gt;= #{startDate} </if>" +
+            "<if test='endDate != null'> AND receipt_date &lt;= #{endDate} </if>" +
+            "GROUP BY IFNULL(status, 'unknown')" +
+            "</script>")
+    List<Map<String, Object>> countSampleByStatus(@Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    /**
+     * 任务总数、完成数、按期完成数、逾期完成数
+     */
+    @Select("<script>" +
+            "SELECT COUNT(*) AS total, " +
+            "IFNULL(SUM(CASE WHEN status = 'completed' THEN 1 ELSE 0 END), 0) AS completed, " +
+            "IFNULL(SUM(CASE WHEN status = 'completed' AND completed_date &lt;= due_date THEN 1 ELSE 0 END), 0) AS onTime, " +
+            "IFNULL(SUM(CASE WHEN status = 'completed' AND completed_date &gt; due_date THEN 1 ELSE 0 END), 0) AS overdue " +
+            "FROM biz_test_task WHERE deleted = 0 " +
+            "<if test='startTime != null'> AND create_time &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'> AND create_time &lt;= #{endTime} </if>" +
+            "</script>")
+    Map<String, Object> taskCompletionSummary(@Param("startTime") LocalDateTime startTime,
+                                              @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 已完成任务按检测员分组计数
+     */
+    @Select("<script>" +
+            "SELECT assignee AS name, COUNT(*) AS count " +
+            "FROM biz_test_task WHERE deleted = 0 AND status = 'completed' AND assignee IS NOT NULL " +
+            "<if test='startTime != null'> AND create_time &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'> AND create_time &lt;= #{endTime} </if>" +
+            "GROUP BY assignee ORDER BY count DESC" +
+            "</script>")
+    List<Map<String, Object>> countCompletedTaskByTester(@Param("startTime") LocalDateTime startTime,
+                                                         @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 报告按状态分组计数
+     */
+    @Select("<script>" +
+            "SELECT IFNULL(status, 'unknown') AS name, COUNT(*) AS count " +
+            "FROM biz_test_report WHERE deleted = 0 " +
+            "<if test='startTime != null'> AND create_time &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'> AND create_time &lt;= #{endTime} </if>" +
+            "GROUP BY IFNULL(status, 'unknown')" +
+            "</script>")
+    List<Map<String, Object>> countReportByStatus(@Param("startTime") LocalDateTime startTime,
+                                                  @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 全表按状态分组计数，表名仅由 StatusCounterService 内部提供
+     */
+    @Select("SELECT IFNULL(status, 'unknown') AS name, COUNT(*) AS count " +
+            "FROM ${table} WHERE deleted = 0 GROUP BY IFNULL(status, 'unknown')")
+    List<Map<String, Object>> countAllByStatus(@Param("table") String table);
+
+    /**
+     * 表行数近似值（InnoDB 统计信息），表名仅由 CursorPaginator 根据实体元数据提供
+     */
+    @Select("SELECT TABLE_ROWS FROM information_schema.TABLES " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = #{table}")
+    Long estimateRowCount(@Param("table") String table);
+}
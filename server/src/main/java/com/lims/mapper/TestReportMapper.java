@@ -3,10 +3,35 @@ package com.lims.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.lims.entity.TestReport;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * 检测报告Mapper
  */
 @Mapper
 public interface TestReportMapper extends BaseMapper<TestReport> {
+
+    /**
+     * 单条语句批量更新报告验证码和二维码路径
+     * @param reports 需包含 id、verificationCode、qrCodeUrl
+     * @param overwrite false 时只更新尚未生成验证码的报告
+     * @return 更新的行数
+     */
+    @Update("<script>" +
+            "UPDATE biz_test_report SET " +
+            "verification_code = CASE id " +
+            "<foreach collection='reports' item='r'> WHEN #{r.id} THEN #{r.verificationCode} </foreach>" +
+            "END, " +
+            "qr_code_url = CASE id " +
+            "<foreach collection='reports' item='r'> WHEN #{r.id} THEN #{r.qrCodeUrl} </foreach>" +
+            "END, " +
+            "update_time = NOW() " +
+            "WHERE deleted = 0 AND id IN " +
+            "<foreach collection='reports' item='r' open='(' separator=',' close=')'>#{r.id}</foreach>" +
+            "<if test='!overwrite'> AND (verification_code IS NULL OR verification_code = '')</if>" +
+            "</script>")
+    int updateQrCodes(@Param("reports") List<TestReport> reports, @Param("overwrite") boolean overwrite);
 }
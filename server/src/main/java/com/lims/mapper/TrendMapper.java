@@ -0,0 +1,33 @@
+package com.lims.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 趋势统计Mapper
+ * 表名/字段名仅由 TrendService.Metric 枚举提供，不接受外部输入
+ */
+@Mapper
+public interface TrendMapper {
+
+    /**
+     * 按天分组计数，日期列使用范围条件以便走索引
+     */
+    @Select("<script>" +
+            "SELECT DATE(${column}) AS day, COUNT(*) AS count " +
+            "FROM ${table} WHERE deleted = 0 " +
+            "AND ${column} &gt;= #{startDate} AND ${column} &lt; #{endDate} " +
+            "<if test='status != null'> AND status = #{status} </if>" +
+            "GROUP BY DATE(${column})" +
+            "</script>")
+    List<Map<String, Object>> countByDay(@Param("table") String table,
+                                         @Param("column") String column,
+                                         @Param("status") String status,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
+}
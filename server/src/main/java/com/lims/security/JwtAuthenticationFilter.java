@@ -29,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final LoginUserCache loginUserCache;
 
     private static final String TOKEN_PREFIX = "Bearer ";
     private static final String HEADER_NAME = "Authorization";
@@ -40,14 +41,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = getTokenFromRequest(request);
             
-            if (StringUtils.hasText(token) && jwtUtil.validateToken(token)) {
-                // 从 Token 中获取用户信息
+            if (StringUtils.hasText(token)) {
+                // 验签并从 Token 中获取用户信息，失败时抛出 JwtException
                 Claims claims = jwtUtil.parseToken(token);
                 Long userId = getUserIdFromClaims(claims);
                 
                 if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // 加载用户详情
-                    LoginUserDetails userDetails = userDetailsService.loadUserById(userId);
+                    // 加载用户详情（优先读缓存）
+                    LoginUserDetails userDetails = loginUserCache.get(userId, userDetailsService::loadUserById);
                     
                     if (userDetails != null && userDetails.isEnabled()) {
                         // 创建认证对象
@@ -0,0 +1,225 @@
+package com.lims.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 登录用户缓存
+ * 两级缓存：本地 Caffeine (短 TTL) + Redis，按 userId 存放，并记录加载时的角色版本号。
+ * 角色/权限变更时递增全局角色版本号，所有旧版本缓存自动失效；用户变更时按 userId 精确失效。
+ * 按 userId 失效时同时递增该用户的代数（本地 + Redis），加载前记下代数，写回缓存时代数已变化则放弃写入，
+ * 避免与失效并发的加载把变更前的用户写回缓存。
+ * 其他节点最多在版本号刷新间隔或本地 TTL 内感知变更。
+ */
+@Slf4j
+@Component
+public class LoginUserCache {
+
+    private static final String USER_KEY_PREFIX = "lims:auth:principal:";
+    private static final String ROLE_VERSION_KEY = "lims:auth:role-version";
+    private static final String USER_GENERATION_KEY_PREFIX = "lims:auth:user-gen:";
+
+    /**
+     * 用户代数与加载前一致时才写入缓存
+     */
+    private static final RedisScript<Long> SET_IF_GENERATION = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+                    "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3]) " +
+                    "return 1", Long.class);
+
+    /**
+     * 角色版本号本地刷新间隔（毫秒）
+     */
+    private static final long VERSION_REFRESH_INTERVAL = 5000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, CachedUser> localCache;
+    private final long redisTtlSeconds;
+
+    private final AtomicLong roleVersion = new AtomicLong();
+    private volatile long versionFetchedAt;
+
+    /**
+     * 本节点各用户的代数，evict 时递增
+     */
+    private final Map<Long, Long> localGenerations = new ConcurrentHashMap<>();
+
+    public LoginUserCache(StringRedisTemplate redisTemplate,
+                          ObjectMapper objectMapper,
+                          @Value("${auth.principal-cache.local-size:1000}") int localSize,
+                          @Value("${auth.principal-cache.local-ttl:30}") long localTtlSeconds,
+                          @Value("${auth.principal-cache.redis-ttl:1800}") long redisTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .build();
+        this.redisTtlSeconds = redisTtlSeconds;
+    }
+
+    /**
+     * 获取登录用户，两级缓存均未命中时调用 loader 加载
+     * @param userId 用户ID
+     * @param loader 从数据库加载用户详情
+     * @return 用户详情（不含密码），用户不存在返回 null
+     */
+    public LoginUserDetails get(Long userId, Function<Long, LoginUserDetails> loader) {
+        long version = currentRoleVersion();
+
+        CachedUser local = localCache.getIfPresent(userId);
+        if (local != null && local.getRoleVersion() == version) {
+            return local.getUser();
+        }
+
+        CachedUser remote = readRemote(userId);
+        if (remote != null && remote.getRoleVersion() == version) {
+            localCache.put(userId, remote);
+            return remote.getUser();
+        }
+
+        long localGeneration = localGenerations.getOrDefault(userId, 0L);
+        String remoteGeneration = readRemoteGeneration(userId);
+
+        LoginUserDetails user = loader.apply(userId);
+        if (user == null) {
+            return null;
+        }
+        // 认证过滤器不需要密码，避免写入缓存
+        user.setPassword(null);
+
+        CachedUser cached = new CachedUser();
+        cached.setRoleVersion(version);
+        cached.setUser(user);
+        // 与 evict 的递增互斥：加载期间被失效过则不写入
+        localGenerations.compute(userId, (id, generation) -> {
+            if ((generation != null ? generation : 0L) == localGeneration) {
+                localCache.put(userId, cached);
+            }
+            return generation;
+        });
+        if (remoteGeneration != null) {
+            writeRemote(userId, cached, remoteGeneration);
+        }
+        return user;
+    }
+
+    /**
+     * 失效指定用户（用户信息、状态、角色分配变更）
+     */
+    public void evict(Long userId) {
+        localGenerations.compute(userId, (id, generation) -> {
+            localCache.invalidate(userId);
+            return (generation != null ? generation : 0L) + 1;
+        });
+        try {
+            String generationKey = USER_GENERATION_KEY_PREFIX + userId;
+            redisTemplate.opsForValue().increment(generationKey);
+            // 代数只需比缓存条目活得久
+            redisTemplate.expire(generationKey, redisTtlSeconds * 2, TimeUnit.SECONDS);
+            redisTemplate.delete(USER_KEY_PREFIX + userId);
+        } catch (Exception e) {
+            log.warn("删除登录用户缓存失败 [{}]: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 失效全部用户（角色、角色权限变更）
+     */
+    public void evictAll() {
+        localCache.invalidateAll();
+        try {
+            Long version = redisTemplate.opsForValue().increment(ROLE_VERSION_KEY);
+            if (version != null) {
+                roleVersion.set(version);
+                versionFetchedAt = System.currentTimeMillis();
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("递增角色版本号失败: {}", e.getMessage());
+        }
+        // Redis 不可用时至少让本节点失效
+        roleVersion.incrementAndGet();
+    }
+
+    /**
+     * 当前角色版本号，按固定间隔从 Redis 刷新
+     */
+    private long currentRoleVersion() {
+        long now = System.currentTimeMillis();
+        if (now - versionFetchedAt > VERSION_REFRESH_INTERVAL) {
+            versionFetchedAt = now;
+            try {
+                String value = redisTemplate.opsForValue().get(ROLE_VERSION_KEY);
+                if (value != null) {
+                    roleVersion.set(Long.parseLong(value));
+                }
+            } catch (Exception e) {
+                log.warn("读取角色版本号失败: {}", e.getMessage());
+            }
+        }
+        return roleVersion.get();
+    }
+
+    private CachedUser readRemote(Long userId) {
+        try {
+            String json = redisTemplate.opsForValue().get(USER_KEY_PREFIX + userId);
+            return json != null ? objectMapper.readValue(json, CachedUser.class) : null;
+        } catch (Exception e) {
+            log.warn("读取登录用户缓存失败 [{}]: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 用户在 Redis 中的代数，从未失效过为 "0"，读取失败返回 null（此时不写 Redis）
+     */
+    private String readRemoteGeneration(Long userId) {
+        try {
+            String generation = redisTemplate.opsForValue().get(USER_GENERATION_KEY_PREFIX + userId);
+            return generation != null ? generation : "0";
+        } catch (Exception e) {
+            log.warn("读取登录用户代数失败 [{}]: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(Long userId, CachedUser cached, String generation) {
+        try {
+            Long written = redisTemplate.execute(SET_IF_GENERATION,
+                    List.of(USER_KEY_PREFIX + userId, USER_GENERATION_KEY_PREFIX + userId),
+                    generation, objectMapper.writeValueAsString(cached), String.valueOf(redisTtlSeconds));
+            if (written != null && written == 0L) {
+                log.debug("登录用户加载期间已失效，不写入缓存 [{}]", userId);
+            }
+        } catch (Exception e) {
+            log.warn("写入登录用户缓存失败 [{}]: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 缓存条目：用户详情 + 加载时的角色版本号
+     */
+    @Data
+    public static class CachedUser {
+        private long roleVersion;
+        private LoginUserDetails user;
+    }
+}
@@ -1,5 +1,7 @@
 package com.lims.security;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -15,6 +17,7 @@ import java.util.stream.Collectors;
  * 实现 Spring Security 的 UserDetails 接口
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class LoginUserDetails implements UserDetails {
 
     private static final long serialVersionUID = 1L;
@@ -79,6 +82,7 @@ public class LoginUserDetails implements UserDetails {
      * 获取权限列表
      */
     @Override
+    @JsonIgnore
     public Collection<? extends GrantedAuthority> getAuthorities() {
         // 将角色和权限都转换为 GrantedAuthority
         Set<GrantedAuthority> authorities = roleCodes.stream()
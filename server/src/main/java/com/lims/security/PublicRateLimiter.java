@@ -0,0 +1,144 @@
+package com.lims.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 公开接口限流
+ * 按客户端 IP 的令牌桶：桶容量允许短时突发（批量扫码），之后按固定速率补充。
+ * 默认在本节点内存中计数；开启 redis 后多节点共享同一个桶，Redis 不可用时退回本地计数。
+ * 仅当连接来自 trusted-proxies 中的反向代理时才使用 X-Real-IP，直连后端的请求按连接地址计数。
+ */
+@Slf4j
+@Component
+public class PublicRateLimiter {
+
+    private static final String KEY_PREFIX = "lims:public:rate:";
+
+    /**
+     * 令牌桶：按距上次请求的时间差补充令牌，足够则扣减 1 并返回 1，否则返回 0
+     * KEYS[1] 桶，ARGV: 容量、每秒补充数、当前毫秒时间、过期毫秒
+     */
+    private static final RedisScript<Long> TAKE_TOKEN = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1]) " +
+                    "local rate = tonumber(ARGV[2]) " +
+                    "local now = tonumber(ARGV[3]) " +
+                    "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts') " +
+                    "local tokens = tonumber(bucket[1]) or capacity " +
+                    "local ts = tonumber(bucket[2]) or now " +
+                    "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000) " +
+                    "local allowed = 0 " +
+                    "if tokens >= 1 then tokens = tokens - 1 allowed = 1 end " +
+                    "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now)) " +
+                    "redis.call('PEXPIRE', KEYS[1], ARGV[4]) " +
+                    "return allowed", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, TokenBucket> localBuckets;
+    private final int capacity;
+    private final double refillPerSecond;
+    private final boolean useRedis;
+    private final long idleMillis;
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public PublicRateLimiter(StringRedisTemplate redisTemplate,
+                             @Value("${public-api.rate-limit.capacity:20}") int capacity,
+                             @Value("${public-api.rate-limit.refill-per-second:2}") double refillPerSecond,
+                             @Value("${public-api.rate-limit.local-size:10000}") int localSize,
+                             @Value("${public-api.rate-limit.redis:false}") boolean useRedis,
+                             @Value("${public-api.rate-limit.trusted-proxies:127.0.0.1,::1}") String[] trustedProxies) {
+        this.redisTemplate = redisTemplate;
+        this.trustedProxies = Arrays.stream(trustedProxies)
+                .filter(StringUtils::hasText)
+                .map(proxy -> new IpAddressMatcher(proxy.trim()))
+                .toList();
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.useRedis = useRedis;
+        // 空闲到桶被补满后即可丢弃
+        this.idleMillis = (long) Math.ceil(capacity / refillPerSecond * 1000) + 1000;
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(localSize)
+                .expireAfterAccess(Duration.ofMillis(idleMillis))
+                .build();
+    }
+
+    /**
+     * 尝试为请求的客户端获取一个令牌
+     * @return false 表示超出限流
+     */
+    public boolean tryAcquire(HttpServletRequest request) {
+        String clientIp = resolveClientIp(request);
+        if (useRedis) {
+            try {
+                Long allowed = redisTemplate.execute(TAKE_TOKEN, List.of(KEY_PREFIX + clientIp),
+                        String.valueOf(capacity), String.valueOf(refillPerSecond),
+                        String.valueOf(System.currentTimeMillis()), String.valueOf(idleMillis));
+                return allowed == null || allowed == 1L;
+            } catch (Exception e) {
+                log.warn("Redis 限流失败，使用本地计数: {}", e.getMessage());
+            }
+        }
+        TokenBucket bucket = localBuckets.get(clientIp, ip -> new TokenBucket(capacity));
+        return bucket.tryTake(capacity, refillPerSecond);
+    }
+
+    /**
+     * 客户端 IP：连接来自受信任的反向代理时取其设置的 X-Real-IP，否则取连接地址
+     * 直连后端的客户端可以任意设置 X-Real-IP，不能据此计数
+     */
+    String resolveClientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String realIp = request.getHeader("X-Real-IP");
+        if (StringUtils.hasText(realIp) && isTrustedProxy(remoteAddr)) {
+            return realIp.trim();
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrustedProxy(String remoteAddr) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            if (proxy.matches(remoteAddr)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 本地令牌桶
+     */
+    private static class TokenBucket {
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(int capacity) {
+            this.tokens = capacity;
+            this.refilledAt = System.currentTimeMillis();
+        }
+
+        synchronized boolean tryTake(int capacity, double refillPerSecond) {
+            long now = System.currentTimeMillis();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerSecond / 1000);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+}
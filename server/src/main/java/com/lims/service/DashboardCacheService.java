@@ -0,0 +1,33 @@
+package com.lims.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 仪表盘快照缓存服务接口
+ */
+public interface DashboardCacheService {
+
+    /**
+     * 读取快照，未命中时调用 loader 计算并写入缓存
+     * @param key 快照名称，如 overview、todos
+     * @param type 快照类型
+     * @param loader 缓存未命中时的计算逻辑
+     * @return 快照数据
+     */
+    <T> T getOrLoad(String key, TypeReference<T> type, Supplier<T> loader);
+
+    /**
+     * 失效指定快照
+     * @param keys 快照名称
+     */
+    void evict(String... keys);
+
+    /**
+     * 缓存命中统计
+     * @return 快照名称 -> {hits, misses, hitRate}
+     */
+    Map<String, Map<String, Object>> getStats();
+}
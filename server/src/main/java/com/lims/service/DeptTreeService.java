@@ -0,0 +1,31 @@
+package com.lims.service;
+
+import com.lims.entity.SysDept;
+
+import java.util.List;
+
+/**
+ * 部门树服务接口
+ * 部门结构常驻内存快照，数据权限和树形接口均基于同一份快照
+ */
+public interface DeptTreeService {
+
+    /**
+     * 获取部门自身及全部下级部门ID
+     * @param deptId 部门ID
+     * @return 部门ID列表（包含自身）
+     */
+    List<Long> getSelfAndDescendantIds(Long deptId);
+
+    /**
+     * 构建部门树
+     * @param enabledOnly 是否只包含启用的部门（禁用部门的下级一并排除）
+     * @return 顶级部门列表，子部门在 children 中
+     */
+    List<SysDept> getTree(boolean enabledOnly);
+
+    /**
+     * 部门新增/修改/删除后重建快照，并通知其他节点
+     */
+    void refresh();
+}
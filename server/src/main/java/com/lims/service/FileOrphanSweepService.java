@@ -0,0 +1,14 @@
+package com.lims.service;
+
+/**
+ * 孤立文件清理Service接口
+ * 定期删除系统生成的文件夹（qrcodes/）下已不被任何业务记录引用的文件
+ */
+public interface FileOrphanSweepService {
+
+    /**
+     * 执行一次清理
+     * @return 删除的文件数
+     */
+    int sweep();
+}
@@ -1,15 +1,30 @@
 package com.lims.service;
 
+import lombok.Data;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 文件存储Service接口
  */
 public interface FileStorageService {
 
+    /**
+     * 文件元数据
+     */
+    @Data
+    class FileStat {
+        private long size;
+        private String etag;
+        private String contentType;
+        private ZonedDateTime lastModified;
+    }
+
     /**
      * 上传文件
      * @param file 文件
@@ -23,25 +38,80 @@ public interface FileStorageService {
      */
     String upload(MultipartFile file, String folder, String filename);
 
+    /**
+     * 批量上传文件，并行上传，结果与入参顺序一致
+     * @return 文件路径列表
+     */
+    List<String> uploadBatch(MultipartFile[] files, String folder);
+
+    /**
+     * 生成直传用的预签名 PUT 地址，客户端直接上传到存储，不经过应用服务器
+     * @param folder 文件夹路径
+     * @param originalFilename 原始文件名（用于保留扩展名）
+     * @param expiry 有效期（秒）
+     * @return [文件路径, 上传地址]
+     */
+    String[] getPresignedUploadUrl(String folder, String originalFilename, int expiry);
+
+    /**
+     * 上传已知长度的文件流，按长度选择分片大小，不需要按最大分片缓冲
+     */
+    String upload(InputStream inputStream, long size, String folder, String filename, String contentType);
+
     /**
      * 上传文件流
      */
     String upload(InputStream inputStream, String folder, String filename, String contentType);
 
+    /**
+     * 按指定对象名上传（不追加日期目录），用于内容寻址的缓存文件
+     */
+    void putObject(String objectName, InputStream inputStream, long size, String contentType);
+
     /**
      * 下载文件
      */
     InputStream download(String filePath);
 
+    /**
+     * 下载文件的指定字节范围
+     * @param offset 起始偏移
+     * @param length 长度
+     */
+    InputStream download(String filePath, long offset, long length);
+
+    /**
+     * 下载文件的指定字节范围，仅当对象 ETag 仍与 etag 一致时读取
+     * 用于先 stat 再读取的场景，避免对象在两次调用之间被替换后返回与已发送元数据不符的内容
+     * @param etag 期望的 ETag（stat 返回值）
+     * @return 文件流；对象已被替换或删除返回 null
+     */
+    InputStream download(String filePath, long offset, long length, String etag);
+
+    /**
+     * 获取文件元数据
+     * @return 元数据，文件不存在返回 null
+     */
+    FileStat stat(String filePath);
+
     /**
      * 删除文件
      */
     void delete(String filePath);
 
     /**
-     * 批量删除
+     * 批量删除，单次请求最多删除 1000 个对象
+     * @return 删除失败的文件路径 -> 错误信息，全部成功返回空 Map
+     */
+    Map<String, String> deleteBatch(List<String> filePaths);
+
+    /**
+     * 遍历指定前缀下最后修改时间早于 modifiedBefore 的文件
+     * @param prefix 路径前缀，如 "samples/"
+     * @param modifiedBefore 修改时间上限
+     * @param consumer 接收文件路径
      */
-    void deleteBatch(List<String> filePaths);
+    void listObjects(String prefix, ZonedDateTime modifiedBefore, Consumer<String> consumer);
 
     /**
      * 获取文件访问URL
@@ -0,0 +1,27 @@
+package com.lims.service;
+
+import com.lims.dto.PublicReportVO;
+
+/**
+ * 公开报告查询Service接口
+ * 按报告编号缓存公开信息，不存在的编号同样缓存（短 TTL），防止枚举编号穿透到数据库
+ */
+public interface PublicReportService {
+
+    /**
+     * 查询报告公开信息
+     * @return 报告不存在返回 null
+     */
+    PublicReportVO getReport(String reportNo);
+
+    /**
+     * 校验防伪验证码
+     * @return 报告存在且验证码一致返回 true
+     */
+    boolean checkVerificationCode(String reportNo, String code);
+
+    /**
+     * 失效指定报告的缓存（验证码重新生成、报告信息变更）
+     */
+    void evict(String reportNo);
+}
@@ -1,5 +1,7 @@
 package com.lims.service;
 
+import com.lims.dto.BatchOperationResult;
+
 /**
  * 二维码服务接口
  */
@@ -34,4 +36,13 @@ public interface QrCodeService {
      * @return 生成的验证码
      */
     String generateReportQrCode(Long reportId, String reportNo);
+
+    /**
+     * 批量为报告生成二维码：并行编码上传，每批一条语句回写验证码和二维码路径
+     * 已有验证码的报告默认跳过，避免已发出的二维码失效
+     * @param reportIds 报告ID
+     * @param regenerate 为 true 时为已有验证码的报告重新生成
+     * @return 成功/失败/跳过的报告ID
+     */
+    BatchOperationResult generateReportQrCodes(Long[] reportIds, boolean regenerate);
 }
@@ -0,0 +1,39 @@
+package com.lims.service;
+
+import com.lims.entity.TestData;
+
+import java.util.Map;
+
+/**
+ * 报告产物缓存服务接口
+ * 以 检测数据内容 + 模板版本 + 生成器版本 的哈希为键缓存生成的 PDF，本地目录 + MinIO 两级
+ */
+public interface ReportArtifactService {
+
+    /**
+     * 计算检测数据对应的产物键
+     * @param testData 检测数据
+     * @return 内容哈希
+     */
+    String artifactKey(TestData testData);
+
+    /**
+     * 查找已生成的 PDF，本地未命中时尝试从 MinIO 取回
+     * @param key 产物键
+     * @return 供本次使用的 PDF 路径（缓存文件的独立链接，不受缓存淘汰影响），未命中返回 null
+     */
+    String get(String key);
+
+    /**
+     * 将新生成的 PDF 移入缓存并上传 MinIO，文件不完整时删除并抛出异常
+     * @param key 产物键
+     * @param pdfPath 新生成的 PDF 路径
+     * @return 供本次使用的 PDF 路径（缓存文件的独立链接，不受缓存淘汰影响）
+     */
+    String put(String key, String pdfPath);
+
+    /**
+     * 命中率、本地缓存占用等指标
+     */
+    Map<String, Object> getStats();
+}
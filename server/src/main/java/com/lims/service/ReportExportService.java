@@ -1,5 +1,8 @@
 package com.lims.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * 报告导出服务接口
  */
@@ -15,6 +18,7 @@ public interface ReportExportService {
 
     /**
      * 导出报告为PDF文档（后端生成）
+     * 转换在报告生成线程池中排队执行，队列已满时抛出 BusinessException(TOO_MANY_REQUESTS)
      *
      * @param reportId 报告ID
      * @return PDF文档字节数组
@@ -28,4 +32,13 @@ public interface ReportExportService {
      * @return ZIP文件字节数组
      */
     byte[] batchExportToWord(Long[] reportIds);
+
+    /**
+     * 批量导出报告为Word文档，ZIP 直接写入输出流
+     * 各条目并行生成、按请求顺序写入，内存占用与批量大小无关
+     *
+     * @param reportIds 报告ID列表
+     * @param out 输出流（调用方负责关闭）
+     */
+    void batchExportToWord(Long[] reportIds, OutputStream out) throws IOException;
 }
@@ -1,5 +1,7 @@
 package com.lims.service;
 
+import java.util.function.BiConsumer;
+
 /**
  * 报告生成服务接口
  */
@@ -18,4 +20,19 @@ public interface ReportGeneratorService {
      * @return 生成的PDF文件路径
      */
     String generateReportByTestData(Long testDataId) throws Exception;
+
+    /**
+     * 根据检测数据ID生成PDF报告，并回调各阶段耗时
+     * @param testDataId 检测数据ID
+     * @param stageTimer 阶段耗时回调：阶段名(cache/parse/xlsx/pdf) -> 毫秒
+     * @return 生成的PDF文件路径
+     */
+    String generateReportByTestData(Long testDataId, BiConsumer<String, Long> stageTimer) throws Exception;
+
+    /**
+     * 查询任务最新一条检测数据ID
+     * @param taskId 任务ID
+     * @return 检测数据ID
+     */
+    Long getLatestTestDataId(Long taskId);
 }
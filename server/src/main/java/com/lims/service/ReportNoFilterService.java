@@ -0,0 +1,24 @@
+package com.lims.service;
+
+/**
+ * 报告编号布隆过滤器Service接口
+ * 公开查询在访问数据库前判断报告编号是否可能存在，一定不存在的编号（伪造/无效）直接拒绝。
+ * 可能误判为存在（按配置的误判率），不会误判为不存在。
+ */
+public interface ReportNoFilterService {
+
+    /**
+     * 报告编号是否可能存在，过滤器尚未构建完成时返回 true
+     */
+    boolean mightExist(String reportNo);
+
+    /**
+     * 新增报告编号
+     */
+    void add(String reportNo);
+
+    /**
+     * 从数据库重建本地过滤器
+     */
+    void rebuild();
+}
@@ -0,0 +1,48 @@
+package com.lims.service;
+
+import com.lims.dto.ReportRenderJob;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * 报告异步生成服务接口
+ * 提交后立即返回任务ID，由有界线程池渲染，客户端轮询任务状态获取结果
+ */
+public interface ReportRenderJobService {
+
+    /**
+     * 按检测数据提交生成任务，队列已满时抛出 BusinessException(TOO_MANY_REQUESTS)
+     * @param testDataId 检测数据ID
+     * @return 任务
+     */
+    ReportRenderJob submit(Long testDataId);
+
+    /**
+     * 在生成线程池中执行同步转换并等待结果，与异步任务共用并发上限和队列；
+     * 队列已满时抛出 BusinessException(TOO_MANY_REQUESTS)
+     * @param conversion 转换操作（如 LibreOffice 转 PDF）
+     * @return 转换结果
+     */
+    <T> T execute(Callable<T> conversion) throws IOException, InterruptedException;
+
+    /**
+     * 按任务最新检测数据提交生成任务
+     * @param taskId 检测任务ID
+     * @return 任务
+     */
+    ReportRenderJob submitByTask(Long taskId);
+
+    /**
+     * 查询生成任务
+     * @param jobId 任务ID
+     * @return 任务，不存在或已过期返回 null
+     */
+    ReportRenderJob getJob(String jobId);
+
+    /**
+     * 运行指标：队列深度、活动线程、成功/失败/拒绝数、各阶段平均耗时
+     */
+    Map<String, Object> getStats();
+}
@@ -2,6 +2,7 @@ package com.lims.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.lims.common.CursorPageResult;
 import com.lims.entity.Sample;
 
 import java.util.List;
@@ -16,11 +17,36 @@ public interface SampleService extends IService<Sample> {
      */
     Page<Sample> pageList(Integer current, Integer size, String sampleNo, String name, String status);
 
+    /**
+     * 游标分页查询样品，按创建时间倒序
+     * @param cursor 上一页返回的游标，首页为空
+     * @param countMode 总数计算方式: none/exact/estimate
+     */
+    CursorPageResult<Sample> cursorList(String cursor, Integer size, String countMode,
+                                        String sampleNo, String name, String status);
+
     /**
      * 批量创建样品
+     * 一次预留编号、批量插入，整体在一个事务内
+     * @return 已回填ID和编号的样品
      */
     List<Sample> batchCreate(Long entrustmentId, List<Sample> samples);
 
+    /**
+     * 创建样品，生成编号并置为待处理
+     */
+    Sample createSample(Sample sample);
+
+    /**
+     * 更新样品，状态变化时发布状态变更事件
+     */
+    void updateSample(Sample sample);
+
+    /**
+     * 删除样品
+     */
+    void deleteSample(Long id);
+
     /**
      * 生成样品编号
      */
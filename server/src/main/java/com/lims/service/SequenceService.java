@@ -0,0 +1,66 @@
+package com.lims.service;
+
+import java.util.List;
+
+/**
+ * 业务编号服务接口
+ * 编号格式: 前缀 + yyyyMMdd + 4位序号（超过9999自动扩位），按前缀按天独立计数
+ */
+public interface SequenceService {
+
+    /**
+     * 业务编号类型：前缀 + 编号所在表/列（用于计数器丢失时从数据库恢复）
+     */
+    enum BizNoType {
+        ENTRUSTMENT("WT", "biz_entrustment", "entrustment_no"),
+        SAMPLE("YP", "biz_sample", "sample_no"),
+        TASK("RW", "biz_test_task", "task_no"),
+        REPORT("BG", "biz_test_report", "report_no"),
+        PAYMENT("SK", "fin_payment", "payment_no"),
+        INVOICE("FP", "fin_invoice", "invoice_no"),
+        CONTRACT("HT", "biz_contract", "contract_no"),
+        QUOTATION("BJ", "biz_quotation", "quotation_no"),
+        CONSULTATION("ZX", "biz_consultation", "consultation_no"),
+        OUTSOURCE_ORDER("WW", "biz_outsource_order", "order_no"),
+        CLIENT("KH", "biz_client", "code"),
+        DEVICE("SB", "biz_device", "code"),
+        SUPPLIER("GYS", "biz_supplier", "code");
+
+        private final String prefix;
+        private final String table;
+        private final String column;
+
+        BizNoType(String prefix, String table, String column) {
+            this.prefix = prefix;
+            this.table = table;
+            this.column = column;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+    }
+
+    /**
+     * 生成一个编号
+     * @param type 编号类型
+     * @return 编号，如 WT202412050001
+     */
+    String nextNo(BizNoType type);
+
+    /**
+     * 一次预留连续的多个编号
+     * @param type 编号类型
+     * @param count 数量
+     * @return 按序号递增排列的编号
+     */
+    List<String> nextNos(BizNoType type, int count);
+}
@@ -0,0 +1,32 @@
+package com.lims.service;
+
+import com.lims.event.StatusChangeEvent;
+
+import java.util.Map;
+
+/**
+ * 业务状态计数服务接口
+ * 样品/任务/报告各状态数量常驻内存，读取不访问数据库
+ */
+public interface StatusCounterService {
+
+    /**
+     * 获取指定状态的数量
+     * @param entityType 实体类型
+     * @param status 状态
+     * @return 数量
+     */
+    long count(StatusChangeEvent.EntityType entityType, String status);
+
+    /**
+     * 获取实体类型下全部状态的数量
+     * @param entityType 实体类型
+     * @return 状态 -> 数量
+     */
+    Map<String, Long> counts(StatusChangeEvent.EntityType entityType);
+
+    /**
+     * 与数据库对账，用 GROUP BY 结果覆盖内存计数
+     */
+    void reconcile();
+}
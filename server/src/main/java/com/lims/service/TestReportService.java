@@ -19,6 +19,16 @@ public interface TestReportService extends IService<TestReport> {
      */
     TestReport createReport(TestReport report);
 
+    /**
+     * 更新报告，状态变化时发布状态变更事件
+     */
+    void updateReport(TestReport report);
+
+    /**
+     * 删除报告
+     */
+    void deleteReport(Long reportId);
+
     /**
      * 提交审核
      */
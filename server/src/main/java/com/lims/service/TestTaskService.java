@@ -2,6 +2,8 @@ package com.lims.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.lims.common.CursorPageResult;
+import com.lims.dto.BatchOperationResult;
 import com.lims.entity.TestTask;
 
 import java.util.List;
@@ -11,16 +13,64 @@ import java.util.List;
  */
 public interface TestTaskService extends IService<TestTask> {
 
+    /**
+     * 批量操作类型及允许的起始状态
+     */
+    enum BatchAction {
+        /** 分配，状态不变 */
+        ASSIGN(null, "pending", "in_progress"),
+        /** 开始 */
+        START("in_progress", "pending"),
+        /** 完成 */
+        COMPLETE("completed", "pending", "in_progress"),
+        /** 转交，状态不变 */
+        TRANSFER(null, "pending", "in_progress");
+
+        private final String targetStatus;
+        private final List<String> fromStatuses;
+
+        BatchAction(String targetStatus, String... fromStatuses) {
+            this.targetStatus = targetStatus;
+            this.fromStatuses = List.of(fromStatuses);
+        }
+
+        public String getTargetStatus() {
+            return targetStatus;
+        }
+
+        public List<String> getFromStatuses() {
+            return fromStatuses;
+        }
+    }
+
     /**
      * 分页查询任务
      */
     Page<TestTask> pageList(Integer current, Integer size, String taskNo, String sampleName, String assignee, String status);
 
+    /**
+     * 游标分页查询任务，按创建时间倒序
+     * @param cursor 上一页返回的游标，首页为空
+     * @param countMode 总数计算方式: none/exact/estimate
+     */
+    CursorPageResult<TestTask> cursorList(String cursor, Integer size, String countMode,
+                                          String taskNo, String sampleName, String assignee, String status);
+
     /**
      * 创建任务
      */
     TestTask createTask(TestTask task);
 
+    /**
+     * 更新任务，状态变化时发布状态变更事件
+     */
+    void updateTask(TestTask task);
+
+    /**
+     * 删除任务
+     */
+    void deleteTask(Long taskId);
+
     /**
      * 分配任务
      */
@@ -28,8 +78,21 @@ public interface TestTaskService extends IService<TestTask> {
 
     /**
      * 批量分配任务
+     * 只分配待检测、检测中的任务，已完成等其他状态的任务返回 INVALID_STATUS；单个分配 assignTask 不校验状态
+     */
+    BatchOperationResult batchAssign(List<Long> taskIds, Long assigneeId, String assigneeName);
+
+    /**
+     * 批量操作任务
+     * 按状态分组执行 UPDATE ... WHERE id IN (...) AND status = 读取时状态，返回每个ID的结果
+     * @param action 操作类型
+     * @param taskIds 任务ID
+     * @param assigneeId 分配/转交的检测员ID（开始、完成时忽略）
+     * @param assigneeName 分配/转交的检测员姓名（开始、完成时忽略）
+     * @param reason 转交原因（仅转交）
      */
-    void batchAssign(List<Long> taskIds, Long assigneeId, String assigneeName);
+    BatchOperationResult batchOperate(BatchAction action, List<Long> taskIds,
+                                      Long assigneeId, String assigneeName, String reason);
 
     /**
      * 开始任务
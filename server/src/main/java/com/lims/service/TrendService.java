@@ -0,0 +1,79 @@
+package com.lims.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 趋势统计服务接口
+ * 每个序列只发一次范围查询，按天/周/月分桶，缺失的桶补0
+ */
+public interface TrendService {
+
+    /**
+     * 分桶粒度
+     */
+    enum Granularity {
+        /** 按天，标签 yyyy-MM-dd */
+        DAY,
+        /** 按周，标签为周一日期 yyyy-MM-dd */
+        WEEK,
+        /** 按月，标签 yyyy-MM */
+        MONTH
+    }
+
+    /**
+     * 趋势指标：实体表 + 日期列 (+ 状态过滤)
+     */
+    enum Metric {
+        ENTRUSTMENT_CREATED("biz_entrustment", "create_time", null),
+        SAMPLE_RECEIVED("biz_sample", "receipt_date", null),
+        TASK_CREATED("biz_test_task", "create_time", null),
+        TASK_COMPLETED("biz_test_task", "completed_date", "completed"),
+        REPORT_CREATED("biz_test_report", "create_time", null),
+        REPORT_ISSUED("biz_test_report", "issued_date", "issued");
+
+        private final String table;
+        private final String column;
+        private final String status;
+
+        Metric(String table, String column, String status) {
+            this.table = table;
+            this.column = column;
+            this.status = status;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * 单序列趋势
+     * @param metric 指标
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（含）
+     * @param granularity 分桶粒度
+     * @return 桶标签 -> 数量，按时间升序
+     */
+    Map<String, Long> trend(Metric metric, LocalDate startDate, LocalDate endDate, Granularity granularity);
+
+    /**
+     * 多序列趋势，按桶合并为行
+     * @param series 输出字段名 -> 指标
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（含）
+     * @param granularity 分桶粒度
+     * @return 每行包含 date 及各序列字段
+     */
+    List<Map<String, Object>> trend(Map<String, Metric> series, LocalDate startDate, LocalDate endDate,
+                                    Granularity granularity);
+}
@@ -7,6 +7,7 @@ import com.lims.common.BusinessException;
 import com.lims.entity.ClientReportTemplate;
 import com.lims.mapper.ClientReportTemplateMapper;
 import com.lims.service.ClientReportTemplateService;
+import com.lims.util.ListProjection;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,7 +30,8 @@ public class ClientReportTemplateServiceImpl implements ClientReportTemplateServ
     public Page<ClientReportTemplate> page(Integer current, Integer size, String name, Long clientId) {
         Page<ClientReportTemplate> page = new Page<>(current, size);
         LambdaQueryWrapper<ClientReportTemplate> wrapper = new LambdaQueryWrapper<>();
-        wrapper.like(StringUtils.hasText(name), ClientReportTemplate::getName, name)
+        wrapper.select(ClientReportTemplate.class, ListProjection::include)
+               .like(StringUtils.hasText(name), ClientReportTemplate::getName, name)
                .eq(clientId != null, ClientReportTemplate::getClientId, clientId)
                .eq(ClientReportTemplate::getDeleted, 0)
                .orderByDesc(ClientReportTemplate::getIsDefault)
@@ -0,0 +1,118 @@
+package com.lims.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lims.event.StatusChangeEvent;
+import com.lims.service.DashboardCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 仪表盘快照缓存服务实现
+ * 快照以 JSON 形式存放在 Redis，短 TTL 兜底，业务状态变更时按实体类型精确失效
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardCacheServiceImpl implements DashboardCacheService {
+
+    private static final String KEY_PREFIX = "lims:dashboard:";
+
+    /**
+     * 各实体类型影响的快照
+     */
+    private static final Map<StatusChangeEvent.EntityType, String[]> AFFECTED_KEYS = Map.of(
+            StatusChangeEvent.EntityType.ENTRUSTMENT, new String[]{"overview"},
+            StatusChangeEvent.EntityType.SAMPLE, new String[]{"overview"},
+            StatusChangeEvent.EntityType.TASK, new String[]{"overview", "todos"},
+            StatusChangeEvent.EntityType.REPORT, new String[]{"overview", "todos"}
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> misses = new ConcurrentHashMap<>();
+
+    @Value("${dashboard.cache-ttl:30}")
+    private long ttlSeconds;
+
+    @Override
+    public <T> T getOrLoad(String key, TypeReference<T> type, Supplier<T> loader) {
+        String redisKey = KEY_PREFIX + key;
+        try {
+            String cached = redisTemplate.opsForValue().get(redisKey);
+            if (cached != null) {
+                hits.computeIfAbsent(key, k -> new LongAdder()).increment();
+                return objectMapper.readValue(cached, type);
+            }
+        } catch (Exception e) {
+            log.warn("读取仪表盘缓存失败 [{}]: {}", key, e.getMessage());
+        }
+
+        misses.computeIfAbsent(key, k -> new LongAdder()).increment();
+        T value = loader.get();
+        try {
+            redisTemplate.opsForValue().set(redisKey, objectMapper.writeValueAsString(value),
+                    Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("写入仪表盘缓存失败 [{}]: {}", key, e.getMessage());
+        }
+        return value;
+    }
+
+    @Override
+    public void evict(String... keys) {
+        List<String> redisKeys = Arrays.stream(keys).map(key -> KEY_PREFIX + key).toList();
+        try {
+            redisTemplate.delete(redisKeys);
+        } catch (Exception e) {
+            log.warn("失效仪表盘缓存失败 {}: {}", redisKeys, e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getStats() {
+        Set<String> keys = new TreeSet<>(hits.keySet());
+        keys.addAll(misses.keySet());
+
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (String key : keys) {
+            long hit = sum(hits.get(key));
+            long miss = sum(misses.get(key));
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("hits", hit);
+            item.put("misses", miss);
+            item.put("hitRate", hit + miss > 0 ? (double) hit / (hit + miss) * 100 : 0);
+            stats.put(key, item);
+        }
+        return stats;
+    }
+
+    /**
+     * 业务状态变更时失效受影响的快照
+     * 在事务提交后执行：提交前失效会让并发读取用未提交前的数据重新填充快照
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChange(StatusChangeEvent event) {
+        String[] keys = AFFECTED_KEYS.get(event.getEntityType());
+        if (keys != null) {
+            evict(keys);
+        }
+    }
+
+    private long sum(LongAdder adder) {
+        return adder != null ? adder.sum() : 0L;
+    }
+}
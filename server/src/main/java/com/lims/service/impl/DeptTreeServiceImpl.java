@@ -0,0 +1,188 @@
+package com.lims.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lims.entity.SysDept;
+import com.lims.mapper.SysDeptMapper;
+import com.lims.service.DeptTreeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 部门树服务实现
+ * 首次使用时整表加载一次构建父子索引，下级部门ID集合按需计算并缓存在快照内。
+ * 本节点变更后立即重建；其他节点通过 Redis 版本号在同步间隔内感知并重建。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeptTreeServiceImpl implements DeptTreeService {
+
+    private static final String VERSION_KEY = "lims:dept:version";
+
+    private final SysDeptMapper deptMapper;
+    private final StringRedisTemplate redisTemplate;
+
+    private volatile Snapshot snapshot;
+
+    @Override
+    public List<Long> getSelfAndDescendantIds(Long deptId) {
+        Snapshot current = current();
+        return current.descendants.computeIfAbsent(deptId, current::collectDescendants);
+    }
+
+    @Override
+    public List<SysDept> getTree(boolean enabledOnly) {
+        Snapshot current = current();
+        List<SysDept> roots = new ArrayList<>();
+        for (SysDept dept : current.depts.values()) {
+            if (!current.depts.containsKey(dept.getParentId()) && include(dept, enabledOnly)) {
+                roots.add(copyTree(current, dept, enabledOnly));
+            }
+        }
+        return roots;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        long version = 0;
+        try {
+            Long value = redisTemplate.opsForValue().increment(VERSION_KEY);
+            version = value != null ? value : 0;
+        } catch (Exception e) {
+            log.warn("递增部门版本号失败: {}", e.getMessage());
+        }
+        snapshot = load(version);
+    }
+
+    /**
+     * 检查其他节点是否变更过部门
+     */
+    @Scheduled(fixedDelayString = "${dept-tree.sync-interval:5000}")
+    public void sync() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        long version = readVersion();
+        if (version != current.version) {
+            synchronized (this) {
+                if (snapshot == current) {
+                    snapshot = load(version);
+                }
+            }
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load(readVersion());
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private long readVersion() {
+        try {
+            String value = redisTemplate.opsForValue().get(VERSION_KEY);
+            return value != null ? Long.parseLong(value) : 0;
+        } catch (Exception e) {
+            log.warn("读取部门版本号失败: {}", e.getMessage());
+            return snapshot != null ? snapshot.version : 0;
+        }
+    }
+
+    private Snapshot load(long version) {
+        List<SysDept> list = deptMapper.selectList(
+                new LambdaQueryWrapper<SysDept>()
+                        .orderByAsc(SysDept::getSort)
+                        .orderByAsc(SysDept::getId)
+        );
+        log.debug("加载部门树快照: {} 个部门, version={}", list.size(), version);
+        return new Snapshot(version, list);
+    }
+
+    private boolean include(SysDept dept, boolean enabledOnly) {
+        return !enabledOnly || Objects.equals(dept.getStatus(), 1);
+    }
+
+    /**
+     * 复制节点构建子树，快照中的实体不直接暴露给调用方
+     */
+    private SysDept copyTree(Snapshot current, SysDept dept, boolean enabledOnly) {
+        SysDept node = new SysDept();
+        BeanUtils.copyProperties(dept, node, "children");
+        List<SysDept> children = new ArrayList<>();
+        for (Long childId : current.children.getOrDefault(dept.getId(), Collections.emptyList())) {
+            SysDept child = current.depts.get(childId);
+            if (include(child, enabledOnly)) {
+                children.add(copyTree(current, child, enabledOnly));
+            }
+        }
+        node.setChildren(children);
+        return node;
+    }
+
+    /**
+     * 部门结构快照（构建后只读，下级ID缓存除外）
+     */
+    private static class Snapshot {
+
+        private final long version;
+        private final Map<Long, SysDept> depts = new LinkedHashMap<>();
+        private final Map<Long, List<Long>> children = new HashMap<>();
+        private final Map<Long, List<Long>> descendants = new ConcurrentHashMap<>();
+
+        Snapshot(long version, List<SysDept> list) {
+            this.version = version;
+            for (SysDept dept : list) {
+                depts.put(dept.getId(), dept);
+            }
+            for (SysDept dept : list) {
+                if (dept.getParentId() != null && depts.containsKey(dept.getParentId())) {
+                    children.computeIfAbsent(dept.getParentId(), k -> new ArrayList<>()).add(dept.getId());
+                }
+            }
+        }
+
+        List<Long> collectDescendants(Long deptId) {
+            List<Long> result = new ArrayList<>();
+            Set<Long> visited = new HashSet<>();
+            result.add(deptId);
+            visited.add(deptId);
+            Deque<Long> queue = new ArrayDeque<>(children.getOrDefault(deptId, Collections.emptyList()));
+            while (!queue.isEmpty()) {
+                Long id = queue.poll();
+                // 防止脏数据形成环
+                if (!visited.add(id)) {
+                    continue;
+                }
+                result.add(id);
+                queue.addAll(children.getOrDefault(id, Collections.emptyList()));
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+}
@@ -4,15 +4,16 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.lims.entity.Entrustment;
+import com.lims.event.StatusChangeEvent;
 import com.lims.mapper.EntrustmentMapper;
 import com.lims.service.EntrustmentService;
+import com.lims.service.SequenceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 /**
  * 委托单Service实现
@@ -22,6 +23,9 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class EntrustmentServiceImpl extends ServiceImpl<EntrustmentMapper, Entrustment> implements EntrustmentService {
 
+    private final ApplicationEventPublisher eventPublisher;
+    private final SequenceService sequenceService;
+
     @Override
     public Page<Entrustment> pageList(Integer current, Integer size, String entrustmentNo, String clientName, String status) {
         Page<Entrustment> page = new Page<>(current, size);
@@ -39,6 +43,7 @@ public class EntrustmentServiceImpl extends ServiceImpl<EntrustmentMapper, Entru
         entrustment.setEntrustmentNo(generateEntrustmentNo());
         entrustment.setStatus("pending");
         save(entrustment);
+        publishStatusChange(entrustment.getId(), null, entrustment.getStatus());
         return entrustment;
     }
 
@@ -46,29 +51,21 @@ public class EntrustmentServiceImpl extends ServiceImpl<EntrustmentMapper, Entru
     public void approve(Long id, boolean approved, String comment) {
         Entrustment entrustment = getById(id);
         if (entrustment != null) {
+            String previousStatus = entrustment.getStatus();
             entrustment.setStatus(approved ? "approved" : "rejected");
             updateById(entrustment);
+            publishStatusChange(id, previousStatus, entrustment.getStatus());
         }
     }
 
     @Override
     public String generateEntrustmentNo() {
         // 格式: WT + 年月日 + 4位序号，如 WT202412050001
-        String prefix = "WT" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        
-        // 查询当天最大序号
-        LambdaQueryWrapper<Entrustment> wrapper = new LambdaQueryWrapper<>();
-        wrapper.likeRight(Entrustment::getEntrustmentNo, prefix)
-               .orderByDesc(Entrustment::getEntrustmentNo)
-               .last("LIMIT 1");
-        Entrustment last = getOne(wrapper);
-        
-        int seq = 1;
-        if (last != null && last.getEntrustmentNo() != null) {
-            String lastNo = last.getEntrustmentNo();
-            seq = Integer.parseInt(lastNo.substring(lastNo.length() - 4)) + 1;
-        }
-        
-        return prefix + String.format("%04d", seq);
+        return sequenceService.nextNo(SequenceService.BizNoType.ENTRUSTMENT);
+    }
+
+    private void publishStatusChange(Long id, String previousStatus, String status) {
+        eventPublisher.publishEvent(new StatusChangeEvent(this, StatusChangeEvent.EntityType.ENTRUSTMENT,
+                id, previousStatus, status));
     }
 }
@@ -0,0 +1,149 @@
+package com.lims.service.impl;
+
+import com.lims.mapper.FileReferenceMapper;
+import com.lims.service.FileOrphanSweepService;
+import com.lims.service.FileStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 孤立文件清理Service实现
+ * 先加载业务表中的引用路径，再列举存储中超过保留期的文件，未被引用的分批删除。
+ * 只处理超过 min-age 的文件，避免删除刚上传、业务记录尚未保存的文件。
+ * 只清理由系统生成、引用列可完整列举的文件夹；reports/、samples/ 等可经通用上传接口写入，
+ * 引用可能保存在任意业务列中，不在清理范围内。逻辑删除的记录仍视为引用，保证删除可恢复。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileOrphanSweepServiceImpl implements FileOrphanSweepService {
+
+    /**
+     * 累计到该数量时执行一次批量删除
+     */
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    /**
+     * 需要清理的文件夹及引用它们的表/列（须列出该文件夹下路径可能保存的所有列）
+     */
+    private enum SweepFolder {
+        /**
+         * 报告二维码，仅由 QrCodeService 生成并写入 qr_code_url
+         */
+        QRCODES("qrcodes/", "biz_test_report", "qr_code_url");
+
+        private final String prefix;
+        private final String table;
+        private final String column;
+
+        SweepFolder(String prefix, String table, String column) {
+            this.prefix = prefix;
+            this.table = table;
+            this.column = column;
+        }
+    }
+
+    private final FileStorageService fileStorageService;
+    private final FileReferenceMapper fileReferenceMapper;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${file.orphan-sweep.enabled:false}")
+    private boolean enabled;
+
+    @Value("${file.orphan-sweep.min-age:24}")
+    private long minAgeHours;
+
+    @Scheduled(cron = "${file.orphan-sweep.cron:0 30 3 * * ?}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    @Override
+    public int sweep() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("孤立文件清理正在执行，跳过本次");
+            return 0;
+        }
+        try {
+            int removed = 0;
+            for (SweepFolder folder : SweepFolder.values()) {
+                removed += sweepFolder(folder);
+            }
+            return removed;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int sweepFolder(SweepFolder folder) {
+        long start = System.currentTimeMillis();
+        // 引用查询失败时直接抛出，不能在引用集合不完整的情况下删除
+        Set<String> referenced = new HashSet<>();
+        for (String value : fileReferenceMapper.selectReferences(folder.table, folder.column)) {
+            extractPaths(value, folder.prefix, referenced);
+        }
+
+        ZonedDateTime cutoff = ZonedDateTime.now().minusHours(minAgeHours);
+        List<String> orphans = new ArrayList<>();
+        int[] counters = new int[2];
+        fileStorageService.listObjects(folder.prefix, cutoff, path -> {
+            counters[0]++;
+            if (!referenced.contains(path)) {
+                orphans.add(path);
+                if (orphans.size() >= DELETE_BATCH_SIZE) {
+                    counters[1] += delete(orphans);
+                }
+            }
+        });
+        counters[1] += delete(orphans);
+
+        log.info("孤立文件清理 [{}]: 引用 {} 个, 扫描 {} 个, 删除 {} 个, 耗时 {}ms",
+                folder.prefix, referenced.size(), counters[0], counters[1], System.currentTimeMillis() - start);
+        return counters[1];
+    }
+
+    private int delete(List<String> orphans) {
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+        Map<String, String> failed = fileStorageService.deleteBatch(orphans);
+        failed.forEach((path, error) -> log.warn("删除孤立文件失败 [{}]: {}", path, error));
+        int removed = orphans.size() - failed.size();
+        orphans.clear();
+        return removed;
+    }
+
+    /**
+     * 从列值中提取以 prefix 开头的路径。
+     * 列值可能是单个路径、多个路径拼接（逗号/JSON 数组）或带查询参数的访问 URL。
+     */
+    static void extractPaths(String value, String prefix, Set<String> paths) {
+        int index = value.indexOf(prefix);
+        while (index >= 0) {
+            int end = index;
+            while (end < value.length() && !isDelimiter(value.charAt(end))) {
+                end++;
+            }
+            paths.add(value.substring(index, end));
+            index = value.indexOf(prefix, end);
+        }
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ',' || c == ';' || c == '"' || c == '\'' || c == '?' || c == ']' || Character.isWhitespace(c);
+    }
+}
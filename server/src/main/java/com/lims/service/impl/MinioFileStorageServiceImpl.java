@@ -4,39 +4,151 @@ import com.lims.config.MinioConfig;
 import com.lims.exception.BusinessException;
 import com.lims.service.FileStorageService;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
-import lombok.RequiredArgsConstructor;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * MinIO文件存储Service实现
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MinioFileStorageServiceImpl implements FileStorageService {
 
+    /**
+     * 分片大小下限（MinIO 要求除最后一片外不小于 5MB）
+     */
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * 分片大小上限
+     */
+    private static final long MAX_PART_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * 目标分片数，文件越大分片越大，减少分片请求次数
+     */
+    private static final long TARGET_PART_COUNT = 16;
+
+    /**
+     * 长度未知的流使用的分片大小
+     */
+    private static final long UNKNOWN_SIZE_PART_SIZE = 16L * 1024 * 1024;
+
+    /**
+     * 批量删除单次请求对象数（S3 DeleteObjects 上限）
+     */
+    private static final int DELETE_BATCH_SIZE = 1000;
+
     private final MinioClient minioClient;
     private final MinioConfig minioConfig;
+    private final ExecutorService uploadExecutor;
+
+    /**
+     * 存储桶已确认存在，启动时检查一次，失败时在首次上传时重试
+     */
+    private volatile boolean bucketReady;
+
+    public MinioFileStorageServiceImpl(MinioClient minioClient, MinioConfig minioConfig) {
+        this.minioClient = minioClient;
+        this.minioConfig = minioConfig;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.uploadExecutor = Executors.newFixedThreadPool(Math.max(1, minioConfig.getUploadConcurrency()), r -> {
+            Thread thread = new Thread(r, "minio-upload-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            ensureBucketExists();
+        } catch (Exception e) {
+            log.warn("检查存储桶失败，将在首次上传时重试: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdownNow();
+    }
 
     @Override
     public String upload(MultipartFile file, String folder) {
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        return upload(file, folder, generateFilename(file.getOriginalFilename()));
+    }
+
+    @Override
+    public List<String> uploadBatch(MultipartFile[] files, String folder) {
+        if (files.length == 1) {
+            return List.of(upload(files[0], folder));
+        }
+        List<Future<String>> futures = new ArrayList<>(files.length);
+        for (MultipartFile file : files) {
+            futures.add(uploadExecutor.submit(() -> upload(file, folder)));
+        }
+        List<String> paths = new ArrayList<>(files.length);
+        try {
+            for (Future<String> future : futures) {
+                paths.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new BusinessException("文件上传被中断");
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof BusinessException be) {
+                throw be;
+            }
+            throw new BusinessException("文件上传失败: " + e.getCause().getMessage());
+        }
+        return paths;
+    }
+
+    @Override
+    public String[] getPresignedUploadUrl(String folder, String originalFilename, int expiry) {
+        try {
+            ensureBucketExists();
+
+            String objectName = buildObjectName(folder, generateFilename(originalFilename));
+            String url = minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(objectName)
+                    .method(Method.PUT)
+                    .expiry(expiry, TimeUnit.SECONDS)
+                    .build());
+            return new String[]{objectName, url};
+        } catch (Exception e) {
+            log.error("获取预签名上传URL失败", e);
+            throw new BusinessException("获取文件上传地址失败");
         }
-        String filename = UUID.randomUUID().toString().replace("-", "") + extension;
-        return upload(file, folder, filename);
     }
 
     @Override
@@ -44,14 +156,12 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
         try {
             ensureBucketExists();
             
-            // 构建文件路径: folder/yyyy/MM/dd/filename
-            String datePath = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-            String objectName = folder + "/" + datePath + "/" + filename;
+            String objectName = buildObjectName(folder, filename);
             
             minioClient.putObject(PutObjectArgs.builder()
                     .bucket(minioConfig.getBucketName())
                     .object(objectName)
-                    .stream(file.getInputStream(), file.getSize(), -1)
+                    .stream(file.getInputStream(), file.getSize(), partSize(file.getSize()))
                     .contentType(file.getContentType())
                     .build());
             
@@ -66,16 +176,20 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
 
     @Override
     public String upload(InputStream inputStream, String folder, String filename, String contentType) {
+        return upload(inputStream, -1, folder, filename, contentType);
+    }
+
+    @Override
+    public String upload(InputStream inputStream, long size, String folder, String filename, String contentType) {
         try {
             ensureBucketExists();
             
-            String datePath = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-            String objectName = folder + "/" + datePath + "/" + filename;
+            String objectName = buildObjectName(folder, filename);
             
             minioClient.putObject(PutObjectArgs.builder()
                     .bucket(minioConfig.getBucketName())
                     .object(objectName)
-                    .stream(inputStream, -1, 10485760)
+                    .stream(inputStream, size, size >= 0 ? partSize(size) : UNKNOWN_SIZE_PART_SIZE)
                     .contentType(contentType)
                     .build());
             
@@ -87,6 +201,24 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
         }
     }
 
+    @Override
+    public void putObject(String objectName, InputStream inputStream, long size, String contentType) {
+        try {
+            ensureBucketExists();
+
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(objectName)
+                    .stream(inputStream, size, partSize(size))
+                    .contentType(contentType)
+                    .build());
+
+        } catch (Exception e) {
+            log.error("文件上传失败", e);
+            throw new BusinessException("文件上传失败: " + e.getMessage());
+        }
+    }
+
     @Override
     public InputStream download(String filePath) {
         try {
@@ -100,6 +232,69 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
         }
     }
 
+    @Override
+    public InputStream download(String filePath, long offset, long length) {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(filePath)
+                    .offset(offset)
+                    .length(length)
+                    .build());
+        } catch (Exception e) {
+            log.error("文件下载失败", e);
+            throw new BusinessException("文件下载失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public InputStream download(String filePath, long offset, long length, String etag) {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(filePath)
+                    .offset(offset)
+                    .length(length)
+                    .matchETag(etag)
+                    .build());
+        } catch (ErrorResponseException e) {
+            String code = e.errorResponse().code();
+            if ("PreconditionFailed".equals(code) || "NoSuchKey".equals(code)) {
+                return null;
+            }
+            log.error("文件下载失败", e);
+            throw new BusinessException("文件下载失败: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("文件下载失败", e);
+            throw new BusinessException("文件下载失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public FileStat stat(String filePath) {
+        try {
+            StatObjectResponse response = minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(filePath)
+                    .build());
+            FileStat stat = new FileStat();
+            stat.setSize(response.size());
+            stat.setEtag(response.etag());
+            stat.setContentType(response.contentType());
+            stat.setLastModified(response.lastModified());
+            return stat;
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return null;
+            }
+            log.error("获取文件信息失败", e);
+            throw new BusinessException("获取文件信息失败: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("获取文件信息失败", e);
+            throw new BusinessException("获取文件信息失败: " + e.getMessage());
+        }
+    }
+
     @Override
     public void delete(String filePath) {
         try {
@@ -115,9 +310,48 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
     }
 
     @Override
-    public void deleteBatch(List<String> filePaths) {
-        for (String filePath : filePaths) {
-            delete(filePath);
+    public Map<String, String> deleteBatch(List<String> filePaths) {
+        Map<String, String> failed = new LinkedHashMap<>();
+        for (int from = 0; from < filePaths.size(); from += DELETE_BATCH_SIZE) {
+            List<String> chunk = filePaths.subList(from, Math.min(from + DELETE_BATCH_SIZE, filePaths.size()));
+            List<DeleteObject> objects = new ArrayList<>(chunk.size());
+            for (String filePath : chunk) {
+                objects.add(new DeleteObject(filePath));
+            }
+            try {
+                // removeObjects 惰性执行，必须遍历结果才会真正发出删除请求
+                for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                        .bucket(minioConfig.getBucketName())
+                        .objects(objects)
+                        .build())) {
+                    DeleteError error = result.get();
+                    failed.put(error.objectName(), error.code() + ": " + error.message());
+                }
+            } catch (Exception e) {
+                log.error("批量删除文件失败", e);
+                chunk.forEach(filePath -> failed.putIfAbsent(filePath, e.getMessage()));
+            }
+        }
+        log.info("批量删除文件: 共 {} 个, 失败 {} 个", filePaths.size(), failed.size());
+        return failed;
+    }
+
+    @Override
+    public void listObjects(String prefix, ZonedDateTime modifiedBefore, Consumer<String> consumer) {
+        try {
+            for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .prefix(prefix)
+                    .recursive(true)
+                    .build())) {
+                Item item = result.get();
+                if (!item.isDir() && item.lastModified() != null && item.lastModified().isBefore(modifiedBefore)) {
+                    consumer.accept(item.objectName());
+                }
+            }
+        } catch (Exception e) {
+            log.error("列举文件失败", e);
+            throw new BusinessException("列举文件失败: " + e.getMessage());
         }
     }
 
@@ -155,9 +389,40 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
     }
 
     /**
-     * 确保存储桶存在
+     * 构建文件路径: folder/yyyy/MM/dd/filename
+     */
+    private String buildObjectName(String folder, String filename) {
+        String datePath = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
+        return folder + "/" + datePath + "/" + filename;
+    }
+
+    /**
+     * 随机文件名，保留原始扩展名
+     */
+    private String generateFilename(String originalFilename) {
+        String extension = "";
+        if (originalFilename != null && originalFilename.contains(".")) {
+            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        }
+        return UUID.randomUUID().toString().replace("-", "") + extension;
+    }
+
+    /**
+     * 按文件大小计算分片大小：约 TARGET_PART_COUNT 片，按 MB 对齐，限制在 [5MB, 64MB]
+     */
+    private static long partSize(long size) {
+        long unit = 1024 * 1024;
+        long part = (size / TARGET_PART_COUNT + unit - 1) / unit * unit;
+        return Math.min(MAX_PART_SIZE, Math.max(MIN_PART_SIZE, part));
+    }
+
+    /**
+     * 确保存储桶存在，确认后不再重复检查
      */
     private void ensureBucketExists() throws Exception {
+        if (bucketReady) {
+            return;
+        }
         boolean exists = minioClient.bucketExists(BucketExistsArgs.builder()
                 .bucket(minioConfig.getBucketName())
                 .build());
@@ -168,5 +433,6 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
                     .build());
             log.info("创建存储桶: {}", minioConfig.getBucketName());
         }
+        bucketReady = true;
     }
 }
@@ -0,0 +1,208 @@
+package com.lims.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.lims.dto.PublicReportVO;
+import com.lims.entity.TestReport;
+import com.lims.event.StatusChangeEvent;
+import com.lims.mapper.TestReportMapper;
+import com.lims.service.PublicReportService;
+import com.lims.service.ReportNoFilterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 公开报告查询Service实现
+ * 本地读穿缓存（Caffeine，淘汰与过期均为 O(1)）：命中时不访问数据库；未命中时先经布隆过滤器
+ * 排除一定不存在的编号，再只查询公开信息所需的列（不含检测结果等大字段）。
+ * 报告状态变更提交后、二维码重新生成时本节点立即失效，其他节点在 TTL 内感知。
+ */
+@Slf4j
+@Service
+public class PublicReportServiceImpl implements PublicReportService {
+
+    /**
+     * 报告状态映射
+     */
+    private static final Map<String, String> STATUS_TEXT_MAP = new HashMap<>();
+    static {
+        STATUS_TEXT_MAP.put("draft", "草稿");
+        STATUS_TEXT_MAP.put("pending_review", "待审核");
+        STATUS_TEXT_MAP.put("reviewed", "已审核");
+        STATUS_TEXT_MAP.put("approved", "已批准");
+        STATUS_TEXT_MAP.put("issued", "已发布");
+    }
+
+    /**
+     * 不存在的报告编号使用的缓存占位
+     */
+    private static final CachedReport MISSING = new CachedReport(null, null, null);
+
+    private final TestReportMapper reportMapper;
+    private final ReportNoFilterService reportNoFilterService;
+    private final Cache<String, CachedReport> cache;
+
+    /**
+     * 报告ID -> 缓存中的报告编号，状态变更事件只带ID，据此定位缓存条目
+     */
+    private final Map<Long, String> reportNoIndex = new ConcurrentHashMap<>();
+
+    public PublicReportServiceImpl(TestReportMapper reportMapper,
+                                   ReportNoFilterService reportNoFilterService,
+                                   @Value("${public-api.report-cache.size:10000}") int size,
+                                   @Value("${public-api.report-cache.ttl:120}") long ttlSeconds,
+                                   @Value("${public-api.report-cache.miss-ttl:30}") long missTtlSeconds) {
+        this.reportMapper = reportMapper;
+        this.reportNoFilterService = reportNoFilterService;
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long missTtlNanos = Duration.ofSeconds(missTtlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfter(new Expiry<String, CachedReport>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedReport value, long currentTime) {
+                        return value == MISSING ? missTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedReport value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedReport value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // 容量淘汰、过期时同步清理索引；主动失效由调用方清理
+                .evictionListener((String key, CachedReport value, RemovalCause cause) -> {
+                    if (key != null && value != null && value.id != null) {
+                        reportNoIndex.remove(value.id, key);
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public PublicReportVO getReport(String reportNo) {
+        return load(reportNo).vo;
+    }
+
+    @Override
+    public boolean checkVerificationCode(String reportNo, String code) {
+        CachedReport cached = load(reportNo);
+        if (cached.verificationCode == null || code == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(cached.verificationCode.getBytes(StandardCharsets.UTF_8),
+                code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void evict(String reportNo) {
+        CachedReport cached = cache.asMap().remove(reportNo);
+        if (cached != null && cached.id != null) {
+            reportNoIndex.remove(cached.id, reportNo);
+        }
+    }
+
+    /**
+     * 报告状态变更提交后失效对应缓存（提交前失效会被并发查询以旧状态重新写入），
+     * 批量变更无法定位具体报告时清空
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChange(StatusChangeEvent event) {
+        if (event.getEntityType() != StatusChangeEvent.EntityType.REPORT) {
+            return;
+        }
+        if (event.getEntityId() == null) {
+            cache.invalidateAll();
+            reportNoIndex.clear();
+            return;
+        }
+        String reportNo = reportNoIndex.remove(event.getEntityId());
+        if (reportNo != null) {
+            cache.invalidate(reportNo);
+        }
+    }
+
+    private CachedReport load(String reportNo) {
+        CachedReport cached = cache.getIfPresent(reportNo);
+        if (cached != null) {
+            return cached;
+        }
+        // 布隆过滤器判定一定不存在的编号不查库，也不占用缓存
+        if (!reportNoFilterService.mightExist(reportNo)) {
+            return MISSING;
+        }
+
+        TestReport report = reportMapper.selectOne(new LambdaQueryWrapper<TestReport>()
+                .select(TestReport::getId, TestReport::getReportNo, TestReport::getSampleName,
+                        TestReport::getClientName, TestReport::getTestItems, TestReport::getConclusion,
+                        TestReport::getTester, TestReport::getReviewer, TestReport::getApprover,
+                        TestReport::getIssuedDate, TestReport::getStatus, TestReport::getVerificationCode)
+                .eq(TestReport::getReportNo, reportNo)
+                .last("LIMIT 1"));
+        if (report == null) {
+            log.debug("报告不存在: {}", reportNo);
+            cache.put(reportNo, MISSING);
+            return MISSING;
+        }
+
+        cached = new CachedReport(report.getId(), convertToPublicVO(report), report.getVerificationCode());
+        // 先写缓存再写索引：覆盖已过期的旧条目时，旧条目的淘汰回调不会删掉新索引
+        cache.put(reportNo, cached);
+        reportNoIndex.put(report.getId(), reportNo);
+        return cached;
+    }
+
+    /**
+     * 将实体转换为公开VO
+     */
+    private PublicReportVO convertToPublicVO(TestReport report) {
+        PublicReportVO vo = new PublicReportVO();
+        vo.setReportNo(report.getReportNo());
+        vo.setSampleName(report.getSampleName());
+        vo.setClientName(report.getClientName());
+        vo.setTestItems(report.getTestItems());
+        vo.setConclusion(report.getConclusion());
+        vo.setTester(report.getTester());
+        vo.setReviewer(report.getReviewer());
+        vo.setApprover(report.getApprover());
+        vo.setIssuedDate(report.getIssuedDate());
+        vo.setStatus(report.getStatus());
+        vo.setStatusText(STATUS_TEXT_MAP.getOrDefault(report.getStatus(), report.getStatus()));
+        vo.setValid("issued".equals(report.getStatus()));
+        return vo;
+    }
+
+    /**
+     * 缓存条目：公开信息 + 验证码（验证码不返回给调用方），vo 为 null 表示报告不存在
+     */
+    private static class CachedReport {
+        private final Long id;
+        private final PublicReportVO vo;
+        private final String verificationCode;
+
+        CachedReport(Long id, PublicReportVO vo, String verificationCode) {
+            this.id = id;
+            this.vo = vo;
+            this.verificationCode = verificationCode;
+        }
+    }
+}
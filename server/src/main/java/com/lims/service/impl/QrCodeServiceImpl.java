@@ -1,45 +1,95 @@
 package com.lims.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.lims.dto.BatchOperationResult;
 import com.lims.entity.TestReport;
 import com.lims.mapper.TestReportMapper;
 import com.lims.service.FileStorageService;
+import com.lims.service.PublicReportService;
 import com.lims.service.QrCodeService;
-import lombok.RequiredArgsConstructor;
+import com.lims.util.QrPngEncoder;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 二维码服务实现
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class QrCodeServiceImpl implements QrCodeService {
 
+    private static final int QR_CODE_SIZE = 200;
+
+    /**
+     * 批量生成时每批处理的报告数（同时也是批量 UPDATE 的行数）
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * 编码参数，所有请求共用
+     */
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.CHARACTER_SET, "UTF-8",
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H,
+            EncodeHintType.MARGIN, 1);
+
+    /**
+     * QRCodeWriter 无状态，可在线程间共用
+     */
+    private final QRCodeWriter qrCodeWriter = new QRCodeWriter();
+
     private final FileStorageService fileStorageService;
     private final TestReportMapper reportMapper;
+    private final PublicReportService publicReportService;
+    private final ExecutorService executor;
 
     @Value("${app.base-url:http://localhost:5173}")
     private String baseUrl;
 
-    private static final int QR_CODE_SIZE = 200;
+    public QrCodeServiceImpl(FileStorageService fileStorageService,
+                             TestReportMapper reportMapper,
+                             PublicReportService publicReportService,
+                             @Value("${qrcode.workers:4}") int workers) {
+        this.fileStorageService = fileStorageService;
+        this.reportMapper = reportMapper;
+        this.publicReportService = publicReportService;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "qrcode-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
 
     @Override
     public String generateVerificationCode() {
@@ -50,33 +100,18 @@ public class QrCodeServiceImpl implements QrCodeService {
     @Override
     public String generateQrCode(String content, String fileName) {
         try {
-            // 配置二维码参数
-            Map<EncodeHintType, Object> hints = new HashMap<>();
-            hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-            hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
-            hints.put(EncodeHintType.MARGIN, 1);
-
-            // 生成二维码
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, QR_CODE_SIZE, QR_CODE_SIZE, hints);
-
-            // 转换为图片
-            BufferedImage image = MatrixToImageWriter.toBufferedImage(bitMatrix);
-
-            // 转换为字节数组
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(image, "PNG", baos);
-            byte[] imageBytes = baos.toByteArray();
+            BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, QR_CODE_SIZE, QR_CODE_SIZE, HINTS);
+            byte[] imageBytes = QrPngEncoder.encode(bitMatrix);
 
             // 上传到MinIO
             String qrCodeFileName = fileName + ".png";
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(imageBytes);
-            String filePath = fileStorageService.upload(inputStream, "qrcodes", qrCodeFileName, "image/png");
+            String filePath = fileStorageService.upload(new ByteArrayInputStream(imageBytes), imageBytes.length,
+                    "qrcodes", qrCodeFileName, "image/png");
 
-            log.info("二维码生成成功: {}", filePath);
+            log.debug("二维码生成成功: {}", filePath);
             return filePath;
 
-        } catch (WriterException | IOException e) {
+        } catch (WriterException e) {
             log.error("生成二维码失败", e);
             throw new RuntimeException("生成二维码失败: " + e.getMessage());
         }
@@ -90,6 +125,129 @@ public class QrCodeServiceImpl implements QrCodeService {
 
     @Override
     public String generateReportQrCode(Long reportId, String reportNo) {
+        TestReport report = buildReportQrCode(reportId, reportNo);
+
+        // 更新报告记录
+        reportMapper.updateById(report);
+        publicReportService.evict(reportNo);
+
+        log.info("报告二维码生成完成 - reportNo: {}, verificationCode: {}", reportNo, report.getVerificationCode());
+
+        return report.getVerificationCode();
+    }
+
+    @Override
+    public BatchOperationResult generateReportQrCodes(Long[] reportIds, boolean regenerate) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(reportIds)));
+        BatchOperationResult result = new BatchOperationResult();
+        result.setTotal(ids.size());
+
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            Map<Long, TestReport> reports = reportMapper.selectList(new LambdaQueryWrapper<TestReport>()
+                            .select(TestReport::getId, TestReport::getReportNo, TestReport::getVerificationCode)
+                            .in(TestReport::getId, chunk))
+                    .stream()
+                    .collect(Collectors.toMap(TestReport::getId, Function.identity()));
+
+            // 编码和上传并行执行
+            List<Long> submitted = new ArrayList<>();
+            List<Future<TestReport>> futures = new ArrayList<>();
+            for (Long id : chunk) {
+                TestReport report = reports.get(id);
+                if (report == null) {
+                    result.fail(id, BatchOperationResult.NOT_FOUND);
+                    continue;
+                }
+                // 已发出的二维码仍在使用，除非明确要求否则不重新生成
+                if (!regenerate && StringUtils.hasText(report.getVerificationCode())) {
+                    result.skip(id);
+                    continue;
+                }
+                submitted.add(id);
+                futures.add(executor.submit(() -> buildReportQrCode(id, report.getReportNo())));
+            }
+
+            List<TestReport> generated = new ArrayList<>(futures.size());
+            for (int i = 0; i < futures.size(); i++) {
+                Long id = submitted.get(i);
+                try {
+                    generated.add(futures.get(i).get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    futures.forEach(future -> future.cancel(true));
+                    throw new RuntimeException("生成二维码被中断");
+                } catch (ExecutionException e) {
+                    log.warn("生成报告二维码失败 [{}]: {}", id, e.getCause().getMessage());
+                    result.fail(id, BatchOperationResult.STORAGE_ERROR);
+                }
+            }
+
+            // 一条语句回写本批全部验证码和二维码路径
+            if (!generated.isEmpty()) {
+                int updated = reportMapper.updateQrCodes(generated, regenerate);
+                List<TestReport> written = updated == generated.size()
+                        ? generated
+                        : resolveUnwritten(generated, regenerate, result);
+                for (TestReport report : written) {
+                    result.success(report.getId());
+                    publicReportService.evict(reports.get(report.getId()).getReportNo());
+                }
+            }
+        }
+
+        log.info("批量生成报告二维码完成: 共 {} 个, 成功 {} 个, 跳过 {} 个",
+                result.getTotal(), result.getSucceeded().size(), result.getSkipped().size());
+        return result;
+    }
+
+    /**
+     * 更新行数少于生成数时，逐个核对哪些报告写入了本次的验证码
+     * 查询后被删除的记为 NOT_FOUND；期间已被其他请求生成验证码的记为跳过（regenerate 时为 CONFLICT）。
+     * 未写入的二维码图片随即删除。
+     * @return 已写入的报告
+     */
+    private List<TestReport> resolveUnwritten(List<TestReport> generated, boolean regenerate,
+                                              BatchOperationResult result) {
+        Map<Long, String> currentCodes = new HashMap<>();
+        reportMapper.selectList(new LambdaQueryWrapper<TestReport>()
+                        .select(TestReport::getId, TestReport::getVerificationCode)
+                        .in(TestReport::getId, generated.stream().map(TestReport::getId).toList()))
+                .forEach(report -> currentCodes.put(report.getId(), report.getVerificationCode()));
+
+        List<TestReport> written = new ArrayList<>(generated.size());
+        List<String> orphanImages = new ArrayList<>();
+        for (TestReport report : generated) {
+            Long id = report.getId();
+            if (report.getVerificationCode().equals(currentCodes.get(id))) {
+                written.add(report);
+                continue;
+            }
+            if (!currentCodes.containsKey(id)) {
+                result.fail(id, BatchOperationResult.NOT_FOUND);
+            } else if (regenerate) {
+                result.fail(id, BatchOperationResult.CONFLICT);
+            } else {
+                result.skip(id);
+            }
+            orphanImages.add(report.getQrCodeUrl());
+        }
+
+        if (!orphanImages.isEmpty()) {
+            try {
+                fileStorageService.deleteBatch(orphanImages);
+            } catch (Exception e) {
+                // 删除失败的图片由孤儿文件清理任务处理
+                log.warn("删除未写入的二维码图片失败: {}", e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 生成验证码和二维码图片，返回待更新的报告记录
+     */
+    private TestReport buildReportQrCode(Long reportId, String reportNo) {
         // 生成验证码
         String verificationCode = generateVerificationCode();
 
@@ -100,15 +258,10 @@ public class QrCodeServiceImpl implements QrCodeService {
         String qrCodeFileName = "report_" + reportNo + "_" + System.currentTimeMillis();
         String qrCodeUrl = generateQrCode(verifyUrl, qrCodeFileName);
 
-        // 更新报告记录
         TestReport report = new TestReport();
         report.setId(reportId);
         report.setVerificationCode(verificationCode);
         report.setQrCodeUrl(qrCodeUrl);
-        reportMapper.updateById(report);
-
-        log.info("报告二维码生成完成 - reportNo: {}, verificationCode: {}", reportNo, verificationCode);
-
-        return verificationCode;
+        return report;
     }
 }
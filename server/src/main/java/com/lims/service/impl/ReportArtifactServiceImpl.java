@@ -0,0 +1,237 @@
+package com.lims.service.impl;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lims.entity.ElnTemplate;
+import com.lims.entity.TestData;
+import com.lims.exception.BusinessException;
+import com.lims.mapper.ElnTemplateMapper;
+import com.lims.service.FileStorageService;
+import com.lims.service.ReportArtifactService;
+import com.lims.util.PdfFiles;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 报告产物缓存服务实现
+ * 本地缓存目录为 {report.output-dir}/cache/{hash}.pdf，命中时刷新修改时间，超出容量按修改时间淘汰最久未用的文件；
+ * MinIO 中 report-artifacts/{hash}.pdf 为持久副本，本地淘汰或换节点后可取回。
+ * 返回给调用方的是输出目录下每次独立的硬链接（不支持时复制），缓存淘汰不影响已交付的文件；
+ * 交付文件与中间文件一样由定时任务在超过保留时间（应大于 report.render.job-retention）后清理。
+ * 只缓存完整的 PDF（%PDF- 开头、%%EOF 结尾），MinIO 取回的文件同样校验。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportArtifactServiceImpl implements ReportArtifactService {
+
+    /**
+     * 生成器版本，渲染逻辑变化时递增使旧产物失效
+     */
+    private static final String GENERATOR_VERSION = "3";
+
+    private static final String OBJECT_PREFIX = "report-artifacts/";
+
+    private final ElnTemplateMapper elnTemplateMapper;
+    private final FileStorageService fileStorageService;
+
+    @Value("${report.output-dir:/tmp/lims/reports}")
+    private String outputDir;
+
+    @Value("${report.artifact-cache.max-local-size:1024}")
+    private long maxLocalSizeMb;
+
+    @Value("${report.artifact-cache.orphan-ttl:24}")
+    private long orphanTtlHours;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Override
+    public String artifactKey(TestData testData) {
+        String templateVersion = "";
+        if (testData.getTemplateId() != null) {
+            ElnTemplate template = elnTemplateMapper.selectOne(new LambdaQueryWrapper<ElnTemplate>()
+                    .select(ElnTemplate::getVersion, ElnTemplate::getUpdateTime)
+                    .eq(ElnTemplate::getId, testData.getTemplateId()));
+            if (template != null) {
+                templateVersion = template.getVersion() + "@" + template.getUpdateTime();
+            }
+        }
+        String dataContent = testData.getDataContent() != null ? testData.getDataContent() : "";
+        return DigestUtil.sha256Hex(dataContent + "\n" + testData.getTemplateId() + ":" + templateVersion
+                + "\n" + GENERATOR_VERSION);
+    }
+
+    @Override
+    public String get(String key) {
+        File local = localFile(key);
+        if (local.exists()) {
+            local.setLastModified(System.currentTimeMillis());
+            String path = handOut(key, local);
+            if (path != null) {
+                localHits.increment();
+                return path;
+            }
+        }
+
+        String objectName = OBJECT_PREFIX + key + ".pdf";
+        if (fileStorageService.exists(objectName)) {
+            try (InputStream in = fileStorageService.download(objectName)) {
+                local.getParentFile().mkdirs();
+                Path tmp = Files.createTempFile(local.getParentFile().toPath(), key, ".tmp");
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+                if (!PdfFiles.isComplete(tmp.toFile())) {
+                    Files.delete(tmp);
+                    log.warn("MinIO 中的报告产物不完整，忽略 [{}]", key);
+                } else {
+                    Files.move(tmp, local.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    String path = handOut(key, local);
+                    if (path != null) {
+                        remoteHits.increment();
+                        return path;
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("取回报告产物失败 [{}]: {}", key, e.getMessage());
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public String put(String key, String pdfPath) {
+        if (!PdfFiles.isComplete(new File(pdfPath))) {
+            new File(pdfPath).delete();
+            throw new BusinessException("生成的 PDF 文件不完整: " + key);
+        }
+        File local = localFile(key);
+        try {
+            local.getParentFile().mkdirs();
+            Files.move(Path.of(pdfPath), local.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("报告产物写入缓存失败 [{}]: {}", key, e.getMessage());
+            return pdfPath;
+        }
+
+        try (InputStream in = Files.newInputStream(local.toPath())) {
+            fileStorageService.putObject(OBJECT_PREFIX + key + ".pdf", in, local.length(), "application/pdf");
+        } catch (Exception e) {
+            // 本地缓存仍可用，仅影响跨节点复用
+            log.warn("报告产物上传失败 [{}]: {}", key, e.getMessage());
+        }
+        String path = handOut(key, local);
+        return path != null ? path : local.getPath();
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        File[] files = cacheDir().listFiles((dir, name) -> name.endsWith(".pdf"));
+        long size = files == null ? 0 : Arrays.stream(files).mapToLong(File::length).sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("localHits", localHits.sum());
+        stats.put("remoteHits", remoteHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("localFiles", files == null ? 0 : files.length);
+        stats.put("localBytes", size);
+        return stats;
+    }
+
+    /**
+     * 本地缓存 LRU 淘汰 + 输出目录遗留文件清理
+     */
+    @Scheduled(fixedDelayString = "${report.artifact-cache.cleanup-interval:600000}")
+    public void cleanup() {
+        evictLocal();
+        purgeOrphans();
+    }
+
+    private void evictLocal() {
+        File[] files = cacheDir().listFiles((dir, name) -> name.endsWith(".pdf"));
+        if (files == null) {
+            return;
+        }
+        long maxBytes = maxLocalSizeMb * 1024 * 1024;
+        long total = Arrays.stream(files).mapToLong(File::length).sum();
+        if (total <= maxBytes) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        int evicted = 0;
+        for (File file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+                evicted++;
+            }
+        }
+        log.info("报告产物本地缓存淘汰 {} 个文件", evicted);
+    }
+
+    private void purgeOrphans() {
+        long expireBefore = System.currentTimeMillis() - orphanTtlHours * 3600 * 1000;
+        File[] files = new File(outputDir).listFiles(file -> file.isFile() && file.lastModified() < expireBefore);
+        if (files == null) {
+            return;
+        }
+        int purged = 0;
+        for (File file : files) {
+            if (file.delete()) {
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            log.info("清理报告输出目录遗留文件 {} 个", purged);
+        }
+    }
+
+    /**
+     * 在输出目录下为本次调用创建缓存文件的硬链接，文件系统不支持时复制；失败返回 null
+     */
+    private String handOut(String key, File cached) {
+        Path target = Path.of(outputDir, "report_" + key.substring(0, Math.min(16, key.length()))
+                + "_" + IdUtil.fastSimpleUUID() + ".pdf");
+        try {
+            try {
+                Files.createLink(target, cached.toPath());
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(cached.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return target.toString();
+        } catch (IOException e) {
+            // 缓存文件恰好被淘汰等情况，按未命中处理
+            log.warn("交付报告产物失败 [{}]: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private File cacheDir() {
+        return new File(outputDir, "cache");
+    }
+
+    private File localFile(String key) {
+        return new File(cacheDir(), key + ".pdf");
+    }
+}
@@ -0,0 +1,297 @@
+package com.lims.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lims.common.ResultCode;
+import com.lims.entity.TestReport;
+import com.lims.exception.BusinessException;
+import com.lims.mapper.TestReportMapper;
+import com.lims.service.ReportExportService;
+import com.lims.service.ReportRenderJobService;
+import com.lims.util.LibreOfficeConverter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 报告导出服务实现
+ * Word 由 POI 生成，PDF 由 Word 经 LibreOffice 转换；转换在报告生成线程池中执行，队列已满时返回 429。
+ * 批量导出使用固定大小线程池并行生成，最多同时持有 2 倍线程数的已生成条目，按请求顺序写入 ZIP。
+ */
+@Slf4j
+@Service
+public class ReportExportServiceImpl implements ReportExportService {
+
+    /**
+     * 每次查询的报告数
+     */
+    private static final int FETCH_BATCH_SIZE = 100;
+
+    private final TestReportMapper reportMapper;
+    private final LibreOfficeConverter libreOfficeConverter;
+    private final ReportRenderJobService reportRenderJobService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int window;
+
+    @Value("${report.output-dir:/tmp/lims/reports}")
+    private String outputDir;
+
+    public ReportExportServiceImpl(TestReportMapper reportMapper,
+                                   LibreOfficeConverter libreOfficeConverter,
+                                   ReportRenderJobService reportRenderJobService,
+                                   ObjectMapper objectMapper,
+                                   @Value("${report.export.workers:4}") int workers) {
+        this.reportMapper = reportMapper;
+        this.libreOfficeConverter = libreOfficeConverter;
+        this.reportRenderJobService = reportRenderJobService;
+        this.objectMapper = objectMapper;
+        this.window = workers * 2;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "report-export-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public byte[] exportToWord(Long reportId) {
+        return renderWord(getReport(reportId));
+    }
+
+    @Override
+    public byte[] exportToPdf(Long reportId) {
+        TestReport report = getReport(reportId);
+        File dir = new File(outputDir, "export");
+        dir.mkdirs();
+        File docx = new File(dir, UUID.randomUUID().toString().replace("-", "") + ".docx");
+        String pdfPath = null;
+        try {
+            Files.write(docx.toPath(), renderWord(report));
+            pdfPath = reportRenderJobService.execute(() -> libreOfficeConverter.convertToPdf(docx.getPath(), dir.getPath()));
+            return Files.readAllBytes(new File(pdfPath).toPath());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("报告导出被中断");
+        } catch (IOException e) {
+            log.error("报告导出PDF失败 [{}]", reportId, e);
+            throw new BusinessException("报告导出PDF失败: " + e.getMessage());
+        } finally {
+            docx.delete();
+            if (pdfPath != null) {
+                new File(pdfPath).delete();
+            }
+        }
+    }
+
+    @Override
+    public byte[] batchExportToWord(Long[] reportIds) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            batchExportToWord(reportIds, out);
+        } catch (IOException e) {
+            throw new BusinessException("报告批量导出失败: " + e.getMessage());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public void batchExportToWord(Long[] reportIds, OutputStream out) throws IOException {
+        List<Long> ids = reportIds == null ? new ArrayList<>() : Arrays.stream(reportIds)
+                .filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        Set<String> entryNames = new HashSet<>();
+        Deque<Future<Entry>> pending = new ArrayDeque<>();
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try {
+            for (int from = 0; from < ids.size(); from += FETCH_BATCH_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + FETCH_BATCH_SIZE, ids.size()));
+                Map<Long, TestReport> reports = reportMapper.selectBatchIds(chunk).stream()
+                        .collect(Collectors.toMap(TestReport::getId, Function.identity()));
+                for (Long id : chunk) {
+                    TestReport report = reports.get(id);
+                    if (report == null) {
+                        log.warn("批量导出跳过不存在的报告 [{}]", id);
+                        continue;
+                    }
+                    // 窗口已满时先写出最早的条目，限制内存中的已生成文档数
+                    while (pending.size() >= window) {
+                        writeEntry(zip, pending.poll(), entryNames);
+                    }
+                    pending.add(executor.submit(() -> new Entry(report, renderWord(report))));
+                }
+            }
+            while (!pending.isEmpty()) {
+                writeEntry(zip, pending.poll(), entryNames);
+            }
+            zip.finish();
+        } finally {
+            // 客户端断开等异常时取消尚未完成的生成
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void writeEntry(ZipOutputStream zip, Future<Entry> future, Set<String> entryNames) throws IOException {
+        Entry entry;
+        try {
+            entry = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("报告批量导出被中断", e);
+        } catch (ExecutionException e) {
+            throw new IOException("报告生成失败: " + e.getCause().getMessage(), e.getCause());
+        }
+        String baseName = entry.report.getReportNo() != null ? entry.report.getReportNo() : "report_" + entry.report.getId();
+        String name = entryNames.add(baseName) ? baseName : baseName + "_" + entry.report.getId();
+        entryNames.add(name);
+        zip.putNextEntry(new ZipEntry(name + ".docx"));
+        zip.write(entry.content);
+        zip.closeEntry();
+    }
+
+    private TestReport getReport(Long reportId) {
+        TestReport report = reportMapper.selectById(reportId);
+        if (report == null) {
+            throw new BusinessException(ResultCode.REPORT_NOT_FOUND);
+        }
+        return report;
+    }
+
+    /**
+     * 生成 Word 文档：标题 + 基本信息表 + 检测结果
+     */
+    private byte[] renderWord(TestReport report) {
+        try (XWPFDocument doc = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            XWPFParagraph title = doc.createParagraph();
+            title.setAlignment(ParagraphAlignment.CENTER);
+            XWPFRun titleRun = title.createRun();
+            titleRun.setText("检测报告");
+            titleRun.setBold(true);
+            titleRun.setFontSize(18);
+
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("报告编号", report.getReportNo());
+            fields.put("委托单号", report.getEntrustmentNo());
+            fields.put("客户名称", report.getClientName());
+            fields.put("样品编号", report.getSampleNo());
+            fields.put("样品名称", report.getSampleName());
+            fields.put("检测项目", report.getTestItems());
+            fields.put("检测员", report.getTester());
+            fields.put("审核员", report.getReviewer());
+            fields.put("批准人", report.getApprover());
+            fields.put("签发日期", report.getIssuedDate());
+            fields.put("结论", report.getConclusion());
+
+            XWPFTable table = doc.createTable(fields.size(), 2);
+            table.setWidth("100%");
+            int row = 0;
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                XWPFTableRow tableRow = table.getRow(row++);
+                tableRow.getCell(0).setText(field.getKey());
+                tableRow.getCell(1).setText(field.getValue() != null ? field.getValue().toString() : "");
+            }
+
+            writeTestResults(doc, report.getTestResults());
+
+            doc.write(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new BusinessException("报告生成失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 检测结果为对象数组时输出为表格，否则按原文输出
+     */
+    private void writeTestResults(XWPFDocument doc, String testResults) {
+        if (testResults == null || testResults.isEmpty()) {
+            return;
+        }
+        XWPFParagraph heading = doc.createParagraph();
+        XWPFRun headingRun = heading.createRun();
+        headingRun.setText("检测结果");
+        headingRun.setBold(true);
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(testResults);
+        } catch (IOException e) {
+            node = null;
+        }
+        if (node == null || !node.isArray() || node.isEmpty() || !node.get(0).isObject()) {
+            doc.createParagraph().createRun().setText(testResults);
+            return;
+        }
+
+        List<String> columns = new ArrayList<>();
+        node.get(0).fieldNames().forEachRemaining(columns::add);
+        XWPFTable table = doc.createTable(node.size() + 1, columns.size());
+        table.setWidth("100%");
+        for (int c = 0; c < columns.size(); c++) {
+            table.getRow(0).getCell(c).setText(columns.get(c));
+        }
+        Iterator<JsonNode> rows = node.elements();
+        int r = 1;
+        while (rows.hasNext()) {
+            JsonNode item = rows.next();
+            for (int c = 0; c < columns.size(); c++) {
+                JsonNode value = item.get(columns.get(c));
+                table.getRow(r).getCell(c).setText(value == null || value.isNull() ? "" : value.asText());
+            }
+            r++;
+        }
+    }
+
+    /**
+     * 已生成的条目
+     */
+    private static class Entry {
+        private final TestReport report;
+        private final byte[] content;
+
+        Entry(TestReport report, byte[] content) {
+            this.report = report;
+            this.content = content;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.lims.service.impl;
 
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
 import com.alibaba.excel.write.style.column.LongestMatchColumnWidthStyleStrategy;
 import com.lims.entity.TestData;
 import com.lims.entity.TestTask;
 import com.lims.mapper.TestDataMapper;
 import com.lims.mapper.TestTaskMapper;
+import com.lims.service.ReportArtifactService;
 import com.lims.service.ReportGeneratorService;
+import com.lims.util.FortuneSheetReader;
 import com.lims.util.LibreOfficeConverter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,9 +18,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
  * 报告生成服务实现
@@ -26,9 +33,16 @@ import java.util.*;
 @RequiredArgsConstructor
 public class ReportGeneratorServiceImpl implements ReportGeneratorService {
 
+    /**
+     * 每次写入 Excel 的行数
+     */
+    private static final int WRITE_BATCH_ROWS = 1000;
+
     private final TestTaskMapper testTaskMapper;
     private final TestDataMapper testDataMapper;
     private final LibreOfficeConverter libreOfficeConverter;
+    private final FortuneSheetReader fortuneSheetReader;
+    private final ReportArtifactService reportArtifactService;
 
     @Value("${report.output-dir:/tmp/lims/reports}")
     private String outputDir;
@@ -38,6 +52,11 @@ public class ReportGeneratorServiceImpl implements ReportGeneratorService {
 
     @Override
     public String generateReport(Long taskId) throws Exception {
+        return generateReportByTestData(getLatestTestDataId(taskId));
+    }
+
+    @Override
+    public Long getLatestTestDataId(Long taskId) {
         TestTask task = testTaskMapper.selectById(taskId);
         if (task == null) {
             throw new RuntimeException("任务不存在: " + taskId);
@@ -46,6 +65,7 @@ public class ReportGeneratorServiceImpl implements ReportGeneratorService {
         // 查询该任务的检测数据
         TestData testData = testDataMapper.selectOne(
             new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<TestData>()
+                .select(TestData::getId)
                 .eq(TestData::getTaskId, taskId)
                 .orderByDesc(TestData::getCreateTime)
                 .last("LIMIT 1")
@@ -55,16 +75,31 @@ public class ReportGeneratorServiceImpl implements ReportGeneratorService {
             throw new RuntimeException("未找到检测数据");
         }
 
-        return generateReportByTestData(testData.getId());
+        return testData.getId();
     }
 
     @Override
     public String generateReportByTestData(Long testDataId) throws Exception {
+        return generateReportByTestData(testDataId, (stage, millis) -> { });
+    }
+
+    @Override
+    public String generateReportByTestData(Long testDataId, BiConsumer<String, Long> stageTimer) throws Exception {
         TestData testData = testDataMapper.selectById(testDataId);
         if (testData == null) {
             throw new RuntimeException("检测数据不存在: " + testDataId);
         }
 
+        // 数据、模板、生成器均未变化时直接复用已生成的 PDF
+        long start = System.currentTimeMillis();
+        String artifactKey = reportArtifactService.artifactKey(testData);
+        String cachedPdf = reportArtifactService.get(artifactKey);
+        stageTimer.accept("cache", System.currentTimeMillis() - start);
+        if (cachedPdf != null) {
+            log.info("复用已生成报告: {}", cachedPdf);
+            return cachedPdf;
+        }
+
         // 确保输出目录存在
         File outDir = new File(outputDir);
         if (!outDir.exists()) {
@@ -76,79 +111,88 @@ public class ReportGeneratorServiceImpl implements ReportGeneratorService {
         String excelFileName = String.format("report_%s_%s.xlsx", testDataId, timestamp);
         String excelPath = outputDir + File.separator + excelFileName;
 
-        // 解析检测数据 JSON
-        List<List<Object>> dataList = parseTestData(testData.getDataContent());
-
-        // 使用 EasyExcel 生成 Excel
-        EasyExcel.write(excelPath)
-            .registerWriteHandler(new LongestMatchColumnWidthStyleStrategy())
-            .sheet("检测报告")
-            .doWrite(dataList);
+        // 边解析检测数据 JSON 边分批写入 Excel，内存中只保留当前一批行；
+        // 解析耗时为总耗时减去写入耗时
+        start = System.nanoTime();
+        long[] writeNanos = new long[1];
+        try {
+            writeExcel(excelPath, (excelWriter, writeSheet) -> fortuneSheetReader.readRowBatches(
+                    testData.getDataContent(), WRITE_BATCH_ROWS, timed(excelWriter, writeSheet, writeNanos)));
+        } catch (FortuneSheetReader.UnorderedCellsException e) {
+            // celldata 未按行排列（非 Fortune-sheet 保存的数据），整体读入排序后重新写入
+            log.warn("检测数据单元格未按行排列，改为整体排序后写入 [{}]: {}", testDataId, e.getMessage());
+            writeNanos[0] = 0;
+            writeExcel(excelPath, (excelWriter, writeSheet) -> {
+                SortedMap<Integer, SortedMap<Integer, Object>> rows = fortuneSheetReader.readRows(testData.getDataContent());
+                int rowCount = rows.isEmpty() ? 0 : rows.lastKey() + 1;
+                FortuneSheetReader.RowBatchConsumer write = timed(excelWriter, writeSheet, writeNanos);
+                for (int from = 0; from < rowCount; from += WRITE_BATCH_ROWS) {
+                    write.accept(FortuneSheetReader.toRowList(rows, from, Math.min(from + WRITE_BATCH_ROWS, rowCount)));
+                }
+                return rowCount;
+            });
+        }
+        long elapsed = System.nanoTime() - start;
+        stageTimer.accept("parse", TimeUnit.NANOSECONDS.toMillis(elapsed - writeNanos[0]));
+        stageTimer.accept("xlsx", TimeUnit.NANOSECONDS.toMillis(writeNanos[0]));
 
         log.info("Excel 报告生成成功: {}", excelPath);
 
         // 使用 LibreOffice 转换为 PDF
-        String pdfPath = libreOfficeConverter.convertToPdf(excelPath, outputDir);
-
-        // 删除临时 Excel 文件
-        new File(excelPath).delete();
+        start = System.currentTimeMillis();
+        String pdfPath;
+        try {
+            pdfPath = libreOfficeConverter.convertToPdf(excelPath, outputDir);
+        } finally {
+            // 删除临时 Excel 文件
+            new File(excelPath).delete();
+        }
+        stageTimer.accept("pdf", System.currentTimeMillis() - start);
 
-        return pdfPath;
+        return reportArtifactService.put(artifactKey, pdfPath);
     }
 
     /**
-     * 解析检测数据 JSON 为二维列表
+     * 向 Excel 写入行，返回写入的行数
      */
-    private List<List<Object>> parseTestData(String dataContent) {
-        List<List<Object>> result = new ArrayList<>();
-
-        if (dataContent == null || dataContent.isEmpty()) {
-            return result;
-        }
+    @FunctionalInterface
+    private interface RowWriter {
+        int write(ExcelWriter excelWriter, WriteSheet writeSheet) throws IOException;
+    }
 
+    /**
+     * 创建 Excel 并由 rowWriter 写入行；解析失败时记录日志并保留已写入的行，没有任何行时生成空工作表
+     */
+    private void writeExcel(String excelPath, RowWriter rowWriter) {
+        ExcelWriter excelWriter = EasyExcel.write(excelPath)
+            .registerWriteHandler(new LongestMatchColumnWidthStyleStrategy())
+            .build();
         try {
-            // 简单解析 Fortune-sheet JSON 格式
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            Map<String, Object> data = mapper.readValue(dataContent, Map.class);
-
-            List<Map<String, Object>> sheets = (List<Map<String, Object>>) data.get("sheets");
-            if (sheets != null && !sheets.isEmpty()) {
-                Map<String, Object> sheet = sheets.get(0);
-                List<Map<String, Object>> celldata = (List<Map<String, Object>>) sheet.get("celldata");
-
-                if (celldata != null) {
-                    // 找出最大行列
-                    int maxRow = 0, maxCol = 0;
-                    for (Map<String, Object> cell : celldata) {
-                        int r = ((Number) cell.get("r")).intValue();
-                        int c = ((Number) cell.get("c")).intValue();
-                        maxRow = Math.max(maxRow, r);
-                        maxCol = Math.max(maxCol, c);
-                    }
-
-                    // 初始化二维数组
-                    Object[][] matrix = new Object[maxRow + 1][maxCol + 1];
-                    for (Map<String, Object> cell : celldata) {
-                        int r = ((Number) cell.get("r")).intValue();
-                        int c = ((Number) cell.get("c")).intValue();
-                        Object v = cell.get("v");
-                        if (v instanceof Map) {
-                            matrix[r][c] = ((Map<?, ?>) v).get("v");
-                        } else {
-                            matrix[r][c] = v;
-                        }
-                    }
-
-                    // 转换为 List
-                    for (Object[] row : matrix) {
-                        result.add(Arrays.asList(row));
-                    }
-                }
+            WriteSheet writeSheet = EasyExcel.writerSheet("检测报告").build();
+            int rowCount;
+            try {
+                rowCount = rowWriter.write(excelWriter, writeSheet);
+            } catch (IOException e) {
+                log.error("解析检测数据失败", e);
+                rowCount = 0;
+            }
+            if (rowCount == 0) {
+                excelWriter.write(new ArrayList<List<Object>>(), writeSheet);
             }
-        } catch (Exception e) {
-            log.error("解析检测数据失败", e);
+        } finally {
+            excelWriter.finish();
         }
+    }
 
-        return result;
+    /**
+     * 写入一批行并累计写入耗时
+     */
+    private static FortuneSheetReader.RowBatchConsumer timed(ExcelWriter excelWriter, WriteSheet writeSheet,
+                                                            long[] writeNanos) {
+        return batch -> {
+            long start = System.nanoTime();
+            excelWriter.write(batch, writeSheet);
+            writeNanos[0] += System.nanoTime() - start;
+        };
     }
 }
@@ -0,0 +1,279 @@
+package com.lims.service.impl;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lims.entity.TestReport;
+import com.lims.mapper.TestReportMapper;
+import com.lims.service.ReportNoFilterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 报告编号布隆过滤器Service实现
+ * 启动时从 biz_test_report 构建本地过滤器，新增报告时实时加入，并定期重建以同步其他节点新增的编号。
+ * 开启 redis 后同时维护一份 Redis 位图（参数相同），本地判断不存在时再查 Redis，
+ * 多节点部署下其他节点刚新增的编号不会被误拒。
+ */
+@Slf4j
+@Service
+public class ReportNoFilterServiceImpl implements ReportNoFilterService {
+
+    private static final String REDIS_KEY_PREFIX = "lims:report:bloom:";
+
+    /**
+     * 写入 Redis 时每批的编号数
+     */
+    private static final int REDIS_BATCH_SIZE = 1000;
+
+    /**
+     * 将 ARGV 中的全部位置置 1
+     */
+    private static final RedisScript<Long> SET_BITS = new DefaultRedisScript<>(
+            "for i = 1, #ARGV do redis.call('SETBIT', KEYS[1], ARGV[i], 1) end " +
+                    "return #ARGV", Long.class);
+
+    /**
+     * ARGV 中的位置全部为 1 返回 1，否则返回 0
+     */
+    private static final RedisScript<Long> GET_BITS = new DefaultRedisScript<>(
+            "for i = 1, #ARGV do " +
+                    "if redis.call('GETBIT', KEYS[1], ARGV[i]) == 0 then return 0 end " +
+                    "end " +
+                    "return 1", Long.class);
+
+    private final TestReportMapper reportMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final long expectedInsertions;
+    private final long numBits;
+    private final int numHashes;
+    private final boolean useRedis;
+
+    /**
+     * Redis 位图及初始化标记，键名包含位数和哈希数，调整参数后自动使用新位图
+     */
+    private final String redisKey;
+    private final String redisSeededKey;
+
+    /**
+     * 当前使用的过滤器，构建完成前为 null
+     */
+    private volatile BloomFilter current;
+
+    /**
+     * 重建中的过滤器，重建期间新增的编号同时写入，避免切换时丢失
+     */
+    private volatile BloomFilter building;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ReportNoFilterServiceImpl(TestReportMapper reportMapper,
+                                     StringRedisTemplate redisTemplate,
+                                     @Value("${report-bloom.expected-insertions:1000000}") long expectedInsertions,
+                                     @Value("${report-bloom.fpp:0.01}") double fpp,
+                                     @Value("${report-bloom.redis:false}") boolean useRedis) {
+        this.reportMapper = reportMapper;
+        this.redisTemplate = redisTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.useRedis = useRedis;
+        // m = -n·ln(p) / (ln2)², k = m/n·ln2
+        this.numBits = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.redisKey = REDIS_KEY_PREFIX + numBits + ":" + numHashes;
+        this.redisSeededKey = redisKey + ":seeded";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rebuild();
+        if (useRedis) {
+            seedRedis();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${report-bloom.rebuild-interval:1800000}", initialDelayString = "${report-bloom.rebuild-interval:1800000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @Override
+    public boolean mightExist(String reportNo) {
+        BloomFilter filter = current;
+        if (filter == null) {
+            return true;
+        }
+        long[] positions = positions(reportNo);
+        if (filter.contains(positions)) {
+            return true;
+        }
+        if (useRedis) {
+            try {
+                Long result = redisTemplate.execute(GET_BITS, List.of(redisKey), toArgs(positions));
+                if (result == null || result == 1L) {
+                    return true;
+                }
+            } catch (Exception e) {
+                // Redis 不可用时无法确认其他节点的新增，按可能存在处理
+                log.warn("查询 Redis 布隆过滤器失败: {}", e.getMessage());
+                return true;
+            }
+        }
+        long count = rejected.incrementAndGet();
+        if (count % 10000 == 0) {
+            log.info("报告编号布隆过滤器已拦截 {} 次不存在的编号查询", count);
+        }
+        return false;
+    }
+
+    @Override
+    public void add(String reportNo) {
+        if (reportNo == null) {
+            return;
+        }
+        long[] positions = positions(reportNo);
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(positions);
+        }
+        BloomFilter pending = building;
+        if (pending != null) {
+            pending.put(positions);
+        }
+        if (useRedis) {
+            try {
+                redisTemplate.execute(SET_BITS, List.of(redisKey), toArgs(positions));
+            } catch (Exception e) {
+                log.warn("写入 Redis 布隆过滤器失败 [{}]: {}", reportNo, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        BloomFilter filter = new BloomFilter(numBits);
+        building = filter;
+        try {
+            List<String> reportNos = loadReportNos();
+            for (String reportNo : reportNos) {
+                filter.put(positions(reportNo));
+            }
+            current = filter;
+            if (reportNos.size() > expectedInsertions) {
+                log.warn("报告编号数量 {} 超过布隆过滤器预期容量 {}，误判率将升高，请调大 report-bloom.expected-insertions",
+                        reportNos.size(), expectedInsertions);
+            }
+            log.info("报告编号布隆过滤器构建完成: {} 个编号, {} 位, {} 个哈希, 耗时 {}ms",
+                    reportNos.size(), numBits, numHashes, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("构建报告编号布隆过滤器失败", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Redis 位图只增不减（已删除的编号仅造成误判为存在），由首个完成写入的节点标记，之后不再重复初始化
+     */
+    private void seedRedis() {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(redisSeededKey))) {
+                return;
+            }
+            List<String> reportNos = loadReportNos();
+            List<String> args = new ArrayList<>();
+            for (int i = 0; i < reportNos.size(); i++) {
+                for (long position : positions(reportNos.get(i))) {
+                    args.add(String.valueOf(position));
+                }
+                if ((i + 1) % REDIS_BATCH_SIZE == 0 || i == reportNos.size() - 1) {
+                    redisTemplate.execute(SET_BITS, List.of(redisKey), args.toArray());
+                    args.clear();
+                }
+            }
+            redisTemplate.opsForValue().set(redisSeededKey, String.valueOf(reportNos.size()));
+            log.info("Redis 布隆过滤器初始化完成: {} 个编号", reportNos.size());
+        } catch (Exception e) {
+            log.warn("初始化 Redis 布隆过滤器失败: {}", e.getMessage());
+        }
+    }
+
+    private List<String> loadReportNos() {
+        List<Object> values = reportMapper.selectObjs(new LambdaQueryWrapper<TestReport>()
+                .select(TestReport::getReportNo)
+                .isNotNull(TestReport::getReportNo));
+        List<String> reportNos = new ArrayList<>(values.size());
+        for (Object value : values) {
+            reportNos.add(value.toString());
+        }
+        return reportNos;
+    }
+
+    /**
+     * 双重哈希：基于 128 位 Murmur 的两半生成 k 个位置
+     */
+    private long[] positions(String reportNo) {
+        long[] hash = MurmurHash.hash128(reportNo.getBytes(StandardCharsets.UTF_8));
+        long[] positions = new long[numHashes];
+        long combined = hash[0];
+        for (int i = 0; i < numHashes; i++) {
+            positions[i] = (combined & Long.MAX_VALUE) % numBits;
+            combined += hash[1];
+        }
+        return positions;
+    }
+
+    private Object[] toArgs(long[] positions) {
+        Object[] args = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            args[i] = String.valueOf(positions[i]);
+        }
+        return args;
+    }
+
+    /**
+     * 本地位数组，写入使用 CAS 保证并发安全
+     */
+    private static class BloomFilter {
+        private final AtomicLongArray bits;
+
+        BloomFilter(long numBits) {
+            this.bits = new AtomicLongArray((int) ((numBits + 63) >>> 6));
+        }
+
+        void put(long[] positions) {
+            for (long position : positions) {
+                int index = (int) (position >>> 6);
+                long mask = 1L << position;
+                long value;
+                do {
+                    value = bits.get(index);
+                    if ((value & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(index, value, value | mask));
+            }
+        }
+
+        boolean contains(long[] positions) {
+            for (long position : positions) {
+                if ((bits.get((int) (position >>> 6)) & (1L << position)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.lims.service.impl;
+
+import cn.hutool.core.util.IdUtil;
+import com.lims.common.ResultCode;
+import com.lims.dto.ReportRenderJob;
+import com.lims.exception.BusinessException;
+import com.lims.service.ReportGeneratorService;
+import com.lims.service.ReportRenderJobService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 报告异步生成服务实现
+ * 固定大小线程池 + 有界队列，同时运行的 LibreOffice 转换数不超过线程数；队列满时直接拒绝（背压），
+ * 由客户端稍后重试。任务状态保存在本节点内存，结束后保留一段时间供轮询。
+ * 同步导出（如报告导出 PDF）也经 execute 在同一线程池中转换，不在请求线程上直接启动转换。
+ */
+@Slf4j
+@Service
+public class ReportRenderJobServiceImpl implements ReportRenderJobService {
+
+    private static final String[] STAGES = {"queue", "cache", "parse", "xlsx", "pdf"};
+
+    private final ReportGeneratorService reportGeneratorService;
+    private final ThreadPoolExecutor executor;
+    private final Duration jobRetention;
+
+    private final Map<String, ReportRenderJob> jobs = new ConcurrentHashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Map<String, LongAdder> stageTotalMillis = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> stageCounts = new ConcurrentHashMap<>();
+
+    public ReportRenderJobServiceImpl(ReportGeneratorService reportGeneratorService,
+                                      @Value("${report.render.workers:2}") int workers,
+                                      @Value("${report.render.queue-capacity:50}") int queueCapacity,
+                                      @Value("${report.render.job-retention:3600}") long jobRetentionSeconds) {
+        this.reportGeneratorService = reportGeneratorService;
+        this.jobRetention = Duration.ofSeconds(jobRetentionSeconds);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "report-render-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public ReportRenderJob submit(Long testDataId) {
+        ReportRenderJob job = new ReportRenderJob();
+        job.setJobId(IdUtil.fastSimpleUUID());
+        job.setTestDataId(testDataId);
+        job.setStatus(ReportRenderJob.QUEUED);
+        job.setSubmitTime(LocalDateTime.now());
+
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> render(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            rejected.increment();
+            log.warn("报告生成队列已满，拒绝任务 [testDataId={}]", testDataId);
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS.getCode(), "报告生成队列已满，请稍后重试");
+        }
+        submitted.increment();
+        return job;
+    }
+
+    @Override
+    public <T> T execute(Callable<T> conversion) throws IOException, InterruptedException {
+        Future<T> future;
+        try {
+            future = executor.submit(conversion);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("报告生成队列已满，拒绝同步转换");
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS.getCode(), "报告生成队列已满，请稍后重试");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // 请求线程被中断（如客户端断开）时取消排队或进行中的转换
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public ReportRenderJob submitByTask(Long taskId) {
+        return submit(reportGeneratorService.getLatestTestDataId(taskId));
+    }
+
+    @Override
+    public ReportRenderJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        stats.put("activeWorkers", executor.getActiveCount());
+        stats.put("workers", executor.getMaximumPoolSize());
+        stats.put("submitted", submitted.sum());
+        stats.put("succeeded", succeeded.sum());
+        stats.put("failed", failed.sum());
+        stats.put("rejected", rejected.sum());
+
+        Map<String, Long> avgMillis = new LinkedHashMap<>();
+        for (String stage : STAGES) {
+            long count = sum(stageCounts.get(stage));
+            avgMillis.put(stage, count > 0 ? sum(stageTotalMillis.get(stage)) / count : 0L);
+        }
+        stats.put("avgStageMillis", avgMillis);
+        return stats;
+    }
+
+    /**
+     * 清理已结束且超过保留时间的任务
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinishedJobs() {
+        LocalDateTime expireBefore = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.getFinishTime() != null && job.getFinishTime().isBefore(expireBefore));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void render(ReportRenderJob job) {
+        job.setStartTime(LocalDateTime.now());
+        job.setStatus(ReportRenderJob.RUNNING);
+        recordStage(job, "queue", Duration.between(job.getSubmitTime(), job.getStartTime()).toMillis());
+        try {
+            String pdfPath = reportGeneratorService.generateReportByTestData(job.getTestDataId(),
+                    (stage, millis) -> recordStage(job, stage, millis));
+            job.setPdfPath(pdfPath);
+            job.setStatus(ReportRenderJob.SUCCEEDED);
+            succeeded.increment();
+        } catch (Exception e) {
+            log.error("报告生成失败 [jobId={}, testDataId={}]", job.getJobId(), job.getTestDataId(), e);
+            job.setError(e.getMessage());
+            job.setStatus(ReportRenderJob.FAILED);
+            failed.increment();
+        } finally {
+            job.setFinishTime(LocalDateTime.now());
+        }
+    }
+
+    private void recordStage(ReportRenderJob job, String stage, long millis) {
+        job.getStageMillis().put(stage, millis);
+        stageTotalMillis.computeIfAbsent(stage, k -> new LongAdder()).add(millis);
+        stageCounts.computeIfAbsent(stage, k -> new LongAdder()).increment();
+    }
+
+    private long sum(LongAdder adder) {
+        return adder != null ? adder.sum() : 0L;
+    }
+}
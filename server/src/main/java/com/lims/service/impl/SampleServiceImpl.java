@@ -3,18 +3,22 @@ package com.lims.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.lims.common.CursorPageResult;
 import com.lims.entity.Entrustment;
 import com.lims.entity.Sample;
+import com.lims.event.StatusChangeEvent;
 import com.lims.mapper.EntrustmentMapper;
 import com.lims.mapper.SampleMapper;
 import com.lims.service.SampleService;
+import com.lims.service.SequenceService;
+import com.lims.util.CursorPaginator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,63 +30,120 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SampleServiceImpl extends ServiceImpl<SampleMapper, Sample> implements SampleService {
 
+    /**
+     * 批量插入每批条数
+     */
+    private static final int BATCH_SIZE = 500;
+
     private final EntrustmentMapper entrustmentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SequenceService sequenceService;
+    private final CursorPaginator cursorPaginator;
 
     @Override
     public Page<Sample> pageList(Integer current, Integer size, String sampleNo, String name, String status) {
         Page<Sample> page = new Page<>(current, size);
+        LambdaQueryWrapper<Sample> wrapper = buildPageQuery(sampleNo, name, status)
+                .orderByDesc(Sample::getCreateTime);
+        return page(page, wrapper);
+    }
+
+    @Override
+    public CursorPageResult<Sample> cursorList(String cursor, Integer size, String countMode,
+                                               String sampleNo, String name, String status) {
+        return cursorPaginator.page(baseMapper, buildPageQuery(sampleNo, name, status),
+                Sample::getCreateTime, Sample::getId, cursor, size, CursorPaginator.CountMode.of(countMode));
+    }
+
+    private LambdaQueryWrapper<Sample> buildPageQuery(String sampleNo, String name, String status) {
         LambdaQueryWrapper<Sample> wrapper = new LambdaQueryWrapper<>();
         wrapper.like(StringUtils.hasText(sampleNo), Sample::getSampleNo, sampleNo)
                .like(StringUtils.hasText(name), Sample::getName, name)
-               .eq(StringUtils.hasText(status), Sample::getStatus, status)
-               .orderByDesc(Sample::getCreateTime);
-        return page(page, wrapper);
+               .eq(StringUtils.hasText(status), Sample::getStatus, status);
+        return wrapper;
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public List<Sample> batchCreate(Long entrustmentId, List<Sample> samples) {
+        if (samples == null || samples.isEmpty()) {
+            return new ArrayList<>();
+        }
         Entrustment entrustment = entrustmentMapper.selectById(entrustmentId);
-        List<Sample> result = new ArrayList<>();
-        
-        for (Sample sample : samples) {
+        // 一次预留全部编号
+        List<String> sampleNos = sequenceService.nextNos(SequenceService.BizNoType.SAMPLE, samples.size());
+
+        for (int i = 0; i < samples.size(); i++) {
+            Sample sample = samples.get(i);
             sample.setEntrustmentId(entrustmentId);
             if (entrustment != null) {
                 sample.setEntrustmentNo(entrustment.getEntrustmentNo());
             }
-            sample.setSampleNo(generateSampleNo());
+            sample.setSampleNo(sampleNos.get(i));
             sample.setStatus("pending");
-            save(sample);
-            result.add(sample);
         }
-        
-        return result;
+        // JDBC 批量插入（配合 rewriteBatchedStatements 合并为多值 INSERT），回填自增ID
+        saveBatch(samples, BATCH_SIZE);
+        eventPublisher.publishEvent(new StatusChangeEvent(this, StatusChangeEvent.EntityType.SAMPLE,
+                null, "pending", samples.size()));
+        return samples;
+    }
+
+    @Override
+    public Sample createSample(Sample sample) {
+        sample.setSampleNo(generateSampleNo());
+        sample.setStatus("pending");
+        save(sample);
+        publishStatusChange(sample.getId(), null, sample.getStatus());
+        return sample;
+    }
+
+    @Override
+    public void updateSample(Sample sample) {
+        String previousStatus = sample.getStatus() != null ? getStatus(sample.getId()) : null;
+        if (updateById(sample) && sample.getStatus() != null) {
+            publishStatusChange(sample.getId(), previousStatus, sample.getStatus());
+        }
+    }
+
+    @Override
+    public void deleteSample(Long id) {
+        String previousStatus = getStatus(id);
+        if (removeById(id)) {
+            eventPublisher.publishEvent(StatusChangeEvent.removed(this, StatusChangeEvent.EntityType.SAMPLE,
+                    id, previousStatus));
+        }
     }
 
     @Override
     public String generateSampleNo() {
         // 格式: YP + 年月日 + 4位序号，如 YP202412050001
-        String prefix = "YP" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        
-        LambdaQueryWrapper<Sample> wrapper = new LambdaQueryWrapper<>();
-        wrapper.likeRight(Sample::getSampleNo, prefix)
-               .orderByDesc(Sample::getSampleNo)
-               .last("LIMIT 1");
-        Sample last = getOne(wrapper);
-        
-        int seq = 1;
-        if (last != null && last.getSampleNo() != null) {
-            String lastNo = last.getSampleNo();
-            seq = Integer.parseInt(lastNo.substring(lastNo.length() - 4)) + 1;
-        }
-        
-        return prefix + String.format("%04d", seq);
+        return sequenceService.nextNo(SequenceService.BizNoType.SAMPLE);
     }
 
     @Override
     public void updateStatus(Long id, String status) {
+        String previousStatus = getStatus(id);
         Sample sample = new Sample();
         sample.setId(id);
         sample.setStatus(status);
-        updateById(sample);
+        if (updateById(sample)) {
+            publishStatusChange(id, previousStatus, status);
+        }
+    }
+
+    /**
+     * 只查询状态字段，用于状态变更事件
+     */
+    private String getStatus(Long id) {
+        Sample sample = getOne(new LambdaQueryWrapper<Sample>()
+                .select(Sample::getStatus)
+                .eq(Sample::getId, id));
+        return sample != null ? sample.getStatus() : null;
+    }
+
+    private void publishStatusChange(Long id, String previousStatus, String status) {
+        eventPublisher.publishEvent(new StatusChangeEvent(this, StatusChangeEvent.EntityType.SAMPLE,
+                id, previousStatus, status));
     }
 }
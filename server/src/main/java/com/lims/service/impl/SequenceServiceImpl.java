@@ -0,0 +1,93 @@
+package com.lims.service.impl;
+
+import com.lims.exception.BusinessException;
+import com.lims.mapper.SequenceMapper;
+import com.lims.service.SequenceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 业务编号服务实现
+ * 每个前缀每天一个 Redis 计数器，INCRBY 原子分配，多节点并发不重复。
+ * 计数器不存在时（当天首次、Redis 数据丢失）先用数据库中已用的最大序号初始化（SETNX），重启或 Redis 数据丢失后不会重复。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SequenceServiceImpl implements SequenceService {
+
+    private static final String KEY_PREFIX = "lims:seq:";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /**
+     * 计数器保留时间，覆盖跨天边界即可
+     */
+    private static final Duration KEY_TTL = Duration.ofDays(2);
+
+    /**
+     * 计数器存在时原子递增并返回结束序号，不存在时返回 -1 由调用方初始化
+     */
+    private static final RedisScript<Long> INCR_IF_EXISTS = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+                    "return redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+                    "end " +
+                    "return -1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SequenceMapper sequenceMapper;
+
+    @Override
+    public String nextNo(BizNoType type) {
+        return nextNos(type, 1).get(0);
+    }
+
+    @Override
+    public List<String> nextNos(BizNoType type, int count) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+        String datePrefix = type.getPrefix() + LocalDate.now().format(DATE_FORMAT);
+        String key = KEY_PREFIX + datePrefix;
+
+        Long end;
+        try {
+            end = redisTemplate.execute(INCR_IF_EXISTS, List.of(key), String.valueOf(count));
+            if (end != null && end < 0) {
+                initialize(type, datePrefix, key);
+                end = redisTemplate.opsForValue().increment(key, count);
+            }
+        } catch (Exception e) {
+            log.error("分配业务编号失败 [{}]: {}", datePrefix, e.getMessage());
+            throw new BusinessException("编号生成失败，请稍后重试");
+        }
+        if (end == null) {
+            throw new BusinessException("编号生成失败，请稍后重试");
+        }
+
+        List<String> nos = new ArrayList<>(count);
+        for (long seq = end - count + 1; seq <= end; seq++) {
+            nos.add(datePrefix + String.format("%04d", seq));
+        }
+        return nos;
+    }
+
+    /**
+     * 以数据库中已用的最大序号初始化计数器，多个节点同时初始化时只有第一个生效
+     */
+    private void initialize(BizNoType type, String datePrefix, String key) {
+        long maxSeq = sequenceMapper.selectMaxSeq(type.getTable(), type.getColumn(), datePrefix);
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(maxSeq), KEY_TTL))) {
+            log.info("初始化业务编号计数器 [{}] = {}", datePrefix, maxSeq);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.lims.service.impl;
+
+import com.lims.event.StatusChangeEvent;
+import com.lims.mapper.StatisticsMapper;
+import com.lims.service.StatusCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 业务状态计数服务实现
+ * 启动时每张表一次 GROUP BY 初始化，之后由状态变更事件增减，定时与数据库对账。
+ * 事件增减只累加 LongAdder，不加锁；对账只替换各状态的修正值（数据库计数 - 当时的累加值）。
+ * 事务提交前登记、提交后累加、结束后注销，对账只采用期间没有事务在提交、也没有事件计入的 COUNT：
+ * 此时 COUNT 快照与累加值对应同一组已提交变更，既不漏计也不重复；否则稍后重试，仍不满足时保留当前值。
+ * 未在事务中发布的事件，数据库变更在发布前已自动提交，只有 COUNT 恰好落在更新语句与发布事件之间时会重复计入，
+ * 由下一次对账修正。其他节点的变更同样在下一次对账时修正。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatusCounterServiceImpl implements StatusCounterService {
+
+    /**
+     * 参与计数的实体及对应表名
+     */
+    private static final Map<StatusChangeEvent.EntityType, String> TABLES = Map.of(
+            StatusChangeEvent.EntityType.SAMPLE, "biz_sample",
+            StatusChangeEvent.EntityType.TASK, "biz_test_task",
+            StatusChangeEvent.EntityType.REPORT, "biz_test_report"
+    );
+
+    /**
+     * COUNT 期间有变更提交时的重试次数与间隔
+     */
+    private static final int RECONCILE_ATTEMPTS = 3;
+    private static final long RECONCILE_RETRY_MILLIS = 50;
+
+    private final StatisticsMapper statisticsMapper;
+
+    private final Map<StatusChangeEvent.EntityType, StatusCounts> counters =
+            new EnumMap<>(StatusChangeEvent.EntityType.class);
+
+    {
+        for (StatusChangeEvent.EntityType type : TABLES.keySet()) {
+            counters.put(type, new StatusCounts());
+        }
+    }
+
+    @Override
+    public long count(StatusChangeEvent.EntityType entityType, String status) {
+        StatusCounts counts = counters.get(entityType);
+        return counts != null ? Math.max(counts.get(status), 0L) : 0L;
+    }
+
+    @Override
+    public Map<String, Long> counts(StatusChangeEvent.EntityType entityType) {
+        Map<String, Long> result = new HashMap<>();
+        StatusCounts counts = counters.get(entityType);
+        if (counts != null) {
+            counts.snapshot().forEach((status, count) -> result.put(status, Math.max(count, 0L)));
+        }
+        return result;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${status-counter.reconcile-interval:300000}",
+            fixedDelayString = "${status-counter.reconcile-interval:300000}")
+    public synchronized void reconcile() {
+        TABLES.forEach((type, table) -> {
+            try {
+                if (!reconcile(counters.get(type), table)) {
+                    log.debug("状态计数对账跳过 [{}]: COUNT 期间持续有变更提交", table);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("状态计数对账失败 [{}]: {}", table, e.getMessage());
+            }
+        });
+    }
+
+    private boolean reconcile(StatusCounts counts, String table) throws InterruptedException {
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(RECONCILE_RETRY_MILLIS);
+            }
+            if (!counts.committing.isEmpty()) {
+                continue;
+            }
+            long applied = counts.applied.get();
+            Map<String, Long> accumulated = counts.accumulated();
+            List<Map<String, Object>> rows = statisticsMapper.countAllByStatus(table);
+            if (!counts.committing.isEmpty() || counts.applied.get() != applied) {
+                continue;
+            }
+            Map<String, Long> actual = new HashMap<>();
+            for (Map<String, Object> row : rows) {
+                actual.put(String.valueOf(row.get("name")), ((Number) row.get("count")).longValue());
+            }
+            counts.rebase(actual, accumulated);
+            log.debug("状态计数对账完成 [{}]: {}", table, actual);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 事务提交前登记，对账据此判断 COUNT 期间是否有变更正在提交
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCommitting(StatusChangeEvent event) {
+        StatusCounts counts = counters.get(event.getEntityType());
+        if (counts != null) {
+            counts.committing.add(event);
+        }
+    }
+
+    /**
+     * 事务结束（提交或回滚）后注销，在 onStatusChange 之后执行；未登记的（提交前已回滚）忽略
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onCompleted(StatusChangeEvent event) {
+        StatusCounts counts = counters.get(event.getEntityType());
+        if (counts != null) {
+            counts.committing.remove(event);
+        }
+    }
+
+    /**
+     * 根据状态变更事件增减计数
+     * 事务提交后才计入，回滚的新增/变更不影响计数
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChange(StatusChangeEvent event) {
+        StatusCounts counts = counters.get(event.getEntityType());
+        if (counts == null) {
+            return;
+        }
+        if (event.isRemoved()) {
+            if (event.getPreviousStatus() != null) {
+                counts.add(event.getPreviousStatus(), -event.getCount());
+            }
+        } else if (event.getStatus() != null && !event.getStatus().equals(event.getPreviousStatus())) {
+            if (event.getPreviousStatus() != null) {
+                counts.add(event.getPreviousStatus(), -event.getCount());
+            }
+            counts.add(event.getStatus(), event.getCount());
+        }
+        counts.applied.incrementAndGet();
+    }
+
+    /**
+     * 单个实体的各状态计数：修正值 + 事件累加值
+     */
+    private static class StatusCounts {
+
+        private final Map<String, LongAdder> adders = new ConcurrentHashMap<>();
+
+        /**
+         * 对账得到的修正值，整体替换
+         */
+        private volatile Map<String, Long> offsets = Map.of();
+
+        /**
+         * 已计入的事件数，对账据此判断 COUNT 期间是否有事件计入
+         */
+        private final AtomicLong applied = new AtomicLong();
+
+        /**
+         * 已登记、所在事务尚未结束的事件
+         */
+        private final Set<StatusChangeEvent> committing = ConcurrentHashMap.newKeySet();
+
+        void add(String status, long delta) {
+            adders.computeIfAbsent(status, k -> new LongAdder()).add(delta);
+        }
+
+        long get(String status) {
+            LongAdder adder = adders.get(status);
+            return offsets.getOrDefault(status, 0L) + (adder != null ? adder.sum() : 0L);
+        }
+
+        Map<String, Long> accumulated() {
+            Map<String, Long> result = new HashMap<>();
+            adders.forEach((status, adder) -> result.put(status, adder.sum()));
+            return result;
+        }
+
+        Map<String, Long> snapshot() {
+            Map<String, Long> result = new HashMap<>(offsets);
+            adders.forEach((status, adder) -> result.merge(status, adder.sum(), Long::sum));
+            return result;
+        }
+
+        /**
+         * 以数据库计数为准：修正值 = 数据库计数 - COUNT 时的累加值，数据库中没有的状态归零
+         */
+        void rebase(Map<String, Long> actual, Map<String, Long> accumulated) {
+            Map<String, Long> next = new HashMap<>(actual);
+            accumulated.forEach((status, sum) -> next.merge(status, -sum, Long::sum));
+            offsets = next;
+        }
+    }
+}
@@ -4,15 +4,19 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.lims.entity.TestReport;
+import com.lims.event.StatusChangeEvent;
 import com.lims.mapper.TestReportMapper;
+import com.lims.service.ReportNoFilterService;
 import com.lims.service.TestReportService;
+import com.lims.service.SequenceService;
+import com.lims.util.ListProjection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 /**
  * 检测报告Service实现
@@ -22,11 +26,16 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class TestReportServiceImpl extends ServiceImpl<TestReportMapper, TestReport> implements TestReportService {
 
+    private final ApplicationEventPublisher eventPublisher;
+    private final SequenceService sequenceService;
+    private final ReportNoFilterService reportNoFilterService;
+
     @Override
     public Page<TestReport> pageList(Integer current, Integer size, String reportNo, String clientName, String status) {
         Page<TestReport> page = new Page<>(current, size);
         LambdaQueryWrapper<TestReport> wrapper = new LambdaQueryWrapper<>();
-        wrapper.like(StringUtils.hasText(reportNo), TestReport::getReportNo, reportNo)
+        wrapper.select(TestReport.class, ListProjection::include)
+               .like(StringUtils.hasText(reportNo), TestReport::getReportNo, reportNo)
                .like(StringUtils.hasText(clientName), TestReport::getClientName, clientName)
                .eq(StringUtils.hasText(status), TestReport::getStatus, status)
                .orderByDesc(TestReport::getCreateTime);
@@ -38,21 +47,49 @@ public class TestReportServiceImpl extends ServiceImpl<TestReportMapper, TestRep
         report.setReportNo(generateReportNo());
         report.setStatus("draft");
         save(report);
+        reportNoFilterService.add(report.getReportNo());
+        publishStatusChange(report.getId(), null, report.getStatus());
         return report;
     }
 
+    @Override
+    public void updateReport(TestReport report) {
+        String previousStatus = report.getStatus() != null ? getStatus(report.getId()) : null;
+        if (!updateById(report)) {
+            return;
+        }
+        // 编号被修改时加入公开查询的布隆过滤器
+        reportNoFilterService.add(report.getReportNo());
+        if (report.getStatus() != null) {
+            publishStatusChange(report.getId(), previousStatus, report.getStatus());
+        }
+    }
+
+    @Override
+    public void deleteReport(Long reportId) {
+        String previousStatus = getStatus(reportId);
+        if (removeById(reportId)) {
+            eventPublisher.publishEvent(StatusChangeEvent.removed(this, StatusChangeEvent.EntityType.REPORT,
+                    reportId, previousStatus));
+        }
+    }
+
     @Override
     public void submitReview(Long reportId) {
+        String previousStatus = getStatus(reportId);
         TestReport report = new TestReport();
         report.setId(reportId);
         report.setStatus("pending_review");
-        updateById(report);
+        if (updateById(report)) {
+            publishStatusChange(reportId, previousStatus, report.getStatus());
+        }
     }
 
     @Override
     public void review(Long reportId, Long reviewerId, String reviewerName, boolean approved, String comment) {
         TestReport report = getById(reportId);
         if (report != null) {
+            String previousStatus = report.getStatus();
             report.setReviewerId(reviewerId);
             report.setReviewer(reviewerName);
             report.setReviewDate(LocalDate.now());
@@ -61,6 +98,7 @@ public class TestReportServiceImpl extends ServiceImpl<TestReportMapper, TestRep
                 report.setRemark(comment);
             }
             updateById(report);
+            publishStatusChange(reportId, previousStatus, report.getStatus());
         }
     }
 
@@ -68,21 +106,26 @@ public class TestReportServiceImpl extends ServiceImpl<TestReportMapper, TestRep
     public void approve(Long reportId, Long approverId, String approverName) {
         TestReport report = getById(reportId);
         if (report != null) {
+            String previousStatus = report.getStatus();
             report.setApproverId(approverId);
             report.setApprover(approverName);
             report.setApproveDate(LocalDate.now());
             report.setStatus("approved");
             updateById(report);
+            publishStatusChange(reportId, previousStatus, report.getStatus());
         }
     }
 
     @Override
     public void issue(Long reportId) {
+        String previousStatus = getStatus(reportId);
         TestReport report = new TestReport();
         report.setId(reportId);
         report.setStatus("issued");
         report.setIssuedDate(LocalDate.now());
-        updateById(report);
+        if (updateById(report)) {
+            publishStatusChange(reportId, previousStatus, report.getStatus());
+        }
     }
 
     @Override
@@ -97,20 +140,21 @@ public class TestReportServiceImpl extends ServiceImpl<TestReportMapper, TestRep
     @Override
     public String generateReportNo() {
         // 格式: BG + 年月日 + 4位序号
-        String prefix = "BG" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        
-        LambdaQueryWrapper<TestReport> wrapper = new LambdaQueryWrapper<>();
-        wrapper.likeRight(TestReport::getReportNo, prefix)
-               .orderByDesc(TestReport::getReportNo)
-               .last("LIMIT 1");
-        TestReport last = getOne(wrapper);
-        
-        int seq = 1;
-        if (last != null && last.getReportNo() != null) {
-            String lastNo = last.getReportNo();
-            seq = Integer.parseInt(lastNo.substring(lastNo.length() - 4)) + 1;
-        }
-        
-        return prefix + String.format("%04d", seq);
+        return sequenceService.nextNo(SequenceService.BizNoType.REPORT);
+    }
+
+    /**
+     * 只查询状态字段，用于状态变更事件
+     */
+    private String getStatus(Long reportId) {
+        TestReport report = getOne(new LambdaQueryWrapper<TestReport>()
+                .select(TestReport::getStatus)
+                .eq(TestReport::getId, reportId));
+        return report != null ? report.getStatus() : null;
+    }
+
+    private void publishStatusChange(Long id, String previousStatus, String status) {
+        eventPublisher.publishEvent(new StatusChangeEvent(this, StatusChangeEvent.EntityType.REPORT,
+                id, previousStatus, status));
     }
 }
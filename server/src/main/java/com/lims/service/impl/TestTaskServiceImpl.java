@@ -1,19 +1,34 @@
 package com.lims.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.lims.common.CursorPageResult;
+import com.lims.dto.BatchOperationResult;
 import com.lims.entity.TestTask;
+import com.lims.event.StatusChangeEvent;
 import com.lims.mapper.TestTaskMapper;
 import com.lims.service.TestTaskService;
+import com.lims.service.SequenceService;
+import com.lims.util.CursorPaginator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * 检测任务Service实现
@@ -23,17 +38,38 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TestTaskServiceImpl extends ServiceImpl<TestTaskMapper, TestTask> implements TestTaskService {
 
+    /**
+     * 批量操作每条 UPDATE 的最大ID数
+     */
+    private static final int BATCH_CHUNK_SIZE = 1000;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final SequenceService sequenceService;
+    private final CursorPaginator cursorPaginator;
+
     @Override
     public Page<TestTask> pageList(Integer current, Integer size, String taskNo, String sampleName, String assignee, String status) {
         Page<TestTask> page = new Page<>(current, size);
+        LambdaQueryWrapper<TestTask> wrapper = buildPageQuery(taskNo, sampleName, assignee, status)
+                .orderByDesc(TestTask::getCreateTime);
+        return page(page, wrapper);
+    }
+
+    @Override
+    public CursorPageResult<TestTask> cursorList(String cursor, Integer size, String countMode,
+                                                 String taskNo, String sampleName, String assignee, String status) {
+        return cursorPaginator.page(baseMapper, buildPageQuery(taskNo, sampleName, assignee, status),
+                TestTask::getCreateTime, TestTask::getId, cursor, size, CursorPaginator.CountMode.of(countMode));
+    }
+
+    private LambdaQueryWrapper<TestTask> buildPageQuery(String taskNo, String sampleName, String assignee, String status) {
         LambdaQueryWrapper<TestTask> wrapper = new LambdaQueryWrapper<>();
         wrapper.like(StringUtils.hasText(taskNo), TestTask::getTaskNo, taskNo)
                .like(StringUtils.hasText(sampleName), TestTask::getSampleName, sampleName)
                .like(StringUtils.hasText(assignee), TestTask::getAssignee, assignee)
                .eq(StringUtils.hasText(status), TestTask::getStatus, status)
-               .eq(TestTask::getIsOutsourced, false) // 只查内部任务
-               .orderByDesc(TestTask::getCreateTime);
-        return page(page, wrapper);
+               .eq(TestTask::getIsOutsourced, false); // 只查内部任务
+        return wrapper;
     }
 
     @Override
@@ -43,9 +79,27 @@ public class TestTaskServiceImpl extends ServiceImpl<TestTaskMapper, TestTask> i
         task.setProgress(0);
         task.setIsOutsourced(false);
         save(task);
+        publishStatusChange(task.getId(), null, task.getStatus());
         return task;
     }
 
+    @Override
+    public void updateTask(TestTask task) {
+        String previousStatus = task.getStatus() != null ? getStatus(task.getId()) : null;
+        if (updateById(task) && task.getStatus() != null) {
+            publishStatusChange(task.getId(), previousStatus, task.getStatus());
+        }
+    }
+
+    @Override
+    public void deleteTask(Long taskId) {
+        String previousStatus = getStatus(taskId);
+        if (removeById(taskId)) {
+            eventPublisher.publishEvent(StatusChangeEvent.removed(this, StatusChangeEvent.EntityType.TASK,
+                    taskId, previousStatus));
+        }
+    }
+
     @Override
     public void assignTask(Long taskId, Long assigneeId, String assigneeName) {
         TestTask task = new TestTask();
@@ -54,32 +108,50 @@ public class TestTaskServiceImpl extends ServiceImpl<TestTaskMapper, TestTask> i
         task.setAssignee(assigneeName);
         task.setAssignDate(LocalDate.now());
         updateById(task);
+        publishStatusChange(taskId, null, null);
+    }
+
+    @Override
+    public BatchOperationResult batchAssign(List<Long> taskIds, Long assigneeId, String assigneeName) {
+        return batchOperate(BatchAction.ASSIGN, taskIds, assigneeId, assigneeName, null);
     }
 
     @Override
-    public void batchAssign(List<Long> taskIds, Long assigneeId, String assigneeName) {
-        for (Long taskId : taskIds) {
-            assignTask(taskId, assigneeId, assigneeName);
+    public BatchOperationResult batchOperate(BatchAction action, List<Long> taskIds,
+                                             Long assigneeId, String assigneeName, String reason) {
+        BatchOperationResult result = new BatchOperationResult();
+        List<Long> ids = taskIds == null ? new ArrayList<>() : new ArrayList<>(new LinkedHashSet<>(taskIds));
+        result.setTotal(ids.size());
+        for (int from = 0; from < ids.size(); from += BATCH_CHUNK_SIZE) {
+            batchOperateChunk(action, ids.subList(from, Math.min(from + BATCH_CHUNK_SIZE, ids.size())),
+                    assigneeId, assigneeName, reason, result);
         }
+        return result;
     }
 
     @Override
     public void startTask(Long taskId) {
+        String previousStatus = getStatus(taskId);
         TestTask task = new TestTask();
         task.setId(taskId);
         task.setStatus("in_progress");
         task.setProgress(10);
-        updateById(task);
+        if (updateById(task)) {
+            publishStatusChange(taskId, previousStatus, task.getStatus());
+        }
     }
 
     @Override
     public void completeTask(Long taskId) {
+        String previousStatus = getStatus(taskId);
         TestTask task = new TestTask();
         task.setId(taskId);
         task.setStatus("completed");
         task.setProgress(100);
         task.setCompletedDate(LocalDate.now());
-        updateById(task);
+        if (updateById(task)) {
+            publishStatusChange(taskId, previousStatus, task.getStatus());
+        }
     }
 
     @Override
@@ -90,26 +162,13 @@ public class TestTaskServiceImpl extends ServiceImpl<TestTaskMapper, TestTask> i
         task.setAssignee(newAssigneeName);
         task.setRemark("转交原因: " + reason);
         updateById(task);
+        publishStatusChange(taskId, null, null);
     }
 
     @Override
     public String generateTaskNo() {
         // 格式: RW + 年月日 + 4位序号
-        String prefix = "RW" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        
-        LambdaQueryWrapper<TestTask> wrapper = new LambdaQueryWrapper<>();
-        wrapper.likeRight(TestTask::getTaskNo, prefix)
-               .orderByDesc(TestTask::getTaskNo)
-               .last("LIMIT 1");
-        TestTask last = getOne(wrapper);
-        
-        int seq = 1;
-        if (last != null && last.getTaskNo() != null) {
-            String lastNo = last.getTaskNo();
-            seq = Integer.parseInt(lastNo.substring(lastNo.length() - 4)) + 1;
-        }
-        
-        return prefix + String.format("%04d", seq);
+        return sequenceService.nextNo(SequenceService.BizNoType.TASK);
     }
 
     @Override
@@ -122,4 +181,99 @@ public class TestTaskServiceImpl extends ServiceImpl<TestTaskMapper, TestTask> i
                .orderByDesc(TestTask::getCreateTime);
         return page(page, wrapper);
     }
+
+    /**
+     * 处理一批任务：一次查询当前状态，按状态分组各执行一条条件更新
+     */
+    private void batchOperateChunk(BatchAction action, List<Long> ids, Long assigneeId, String assigneeName,
+                                   String reason, BatchOperationResult result) {
+        Map<Long, String> statuses = new HashMap<>();
+        for (TestTask task : list(new LambdaQueryWrapper<TestTask>()
+                .select(TestTask::getId, TestTask::getStatus)
+                .in(TestTask::getId, ids))) {
+            statuses.put(task.getId(), task.getStatus());
+        }
+
+        Map<String, List<Long>> byStatus = new LinkedHashMap<>();
+        for (Long id : ids) {
+            if (!statuses.containsKey(id)) {
+                result.fail(id, BatchOperationResult.NOT_FOUND);
+            } else if (!action.getFromStatuses().contains(statuses.get(id))) {
+                result.fail(id, BatchOperationResult.INVALID_STATUS);
+            } else {
+                byStatus.computeIfAbsent(statuses.get(id), k -> new ArrayList<>()).add(id);
+            }
+        }
+
+        byStatus.forEach((previousStatus, group) -> {
+            LambdaUpdateWrapper<TestTask> wrapper = new LambdaUpdateWrapper<TestTask>()
+                    .in(TestTask::getId, group)
+                    // 读取后状态被修改的记录不会被更新
+                    .eq(TestTask::getStatus, previousStatus)
+                    .set(TestTask::getUpdateTime, LocalDateTime.now());
+            switch (action) {
+                case ASSIGN -> wrapper.set(TestTask::getAssigneeId, assigneeId)
+                        .set(TestTask::getAssignee, assigneeName)
+                        .set(TestTask::getAssignDate, LocalDate.now());
+                case START -> wrapper.set(TestTask::getStatus, action.getTargetStatus())
+                        .set(TestTask::getProgress, 10);
+                case COMPLETE -> wrapper.set(TestTask::getStatus, action.getTargetStatus())
+                        .set(TestTask::getProgress, 100)
+                        .set(TestTask::getCompletedDate, LocalDate.now());
+                case TRANSFER -> wrapper.set(TestTask::getAssigneeId, assigneeId)
+                        .set(TestTask::getAssignee, assigneeName)
+                        .set(TestTask::getRemark, "转交原因: " + reason);
+            }
+            int affected = baseMapper.update(null, wrapper);
+
+            if (affected == group.size()) {
+                group.forEach(result::success);
+            } else {
+                resolveConflicts(action, group, assigneeId, result);
+            }
+            if (affected > 0) {
+                eventPublisher.publishEvent(new StatusChangeEvent(this, StatusChangeEvent.EntityType.TASK,
+                        action.getTargetStatus() != null ? previousStatus : null, action.getTargetStatus(), affected));
+            }
+        });
+    }
+
+    /**
+     * 部分记录未更新时重新读取，已处于目标状态（或已分配给目标检测员）的视为成功，其余为冲突
+     */
+    private void resolveConflicts(BatchAction action, List<Long> group, Long assigneeId, BatchOperationResult result) {
+        Set<Long> applied = new HashSet<>();
+        for (TestTask task : list(new LambdaQueryWrapper<TestTask>()
+                .select(TestTask::getId, TestTask::getStatus, TestTask::getAssigneeId)
+                .in(TestTask::getId, group))) {
+            boolean done = action.getTargetStatus() != null
+                    ? action.getTargetStatus().equals(task.getStatus())
+                    : Objects.equals(assigneeId, task.getAssigneeId());
+            if (done) {
+                applied.add(task.getId());
+            }
+        }
+        for (Long id : group) {
+            if (applied.contains(id)) {
+                result.success(id);
+            } else {
+                result.fail(id, BatchOperationResult.CONFLICT);
+            }
+        }
+    }
+
+    /**
+     * 只查询状态字段，用于状态变更事件
+     */
+    private String getStatus(Long taskId) {
+        TestTask task = getOne(new LambdaQueryWrapper<TestTask>()
+                .select(TestTask::getStatus)
+                .eq(TestTask::getId, taskId));
+        return task != null ? task.getStatus() : null;
+    }
+
+    private void publishStatusChange(Long id, String previousStatus, String status) {
+        eventPublisher.publishEvent(new StatusChangeEvent(this, StatusChangeEvent.EntityType.TASK,
+                id, previousStatus, status));
+    }
 }
@@ -0,0 +1,87 @@
+package com.lims.service.impl;
+
+import com.lims.mapper.TrendMapper;
+import com.lims.service.TrendService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * 趋势统计服务实现
+ */
+@Service
+@RequiredArgsConstructor
+public class TrendServiceImpl implements TrendService {
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final TrendMapper trendMapper;
+
+    @Override
+    public Map<String, Long> trend(Metric metric, LocalDate startDate, LocalDate endDate, Granularity granularity) {
+        // 先按桶补0，保证输出连续有序
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            buckets.putIfAbsent(bucketOf(day, granularity), 0L);
+        }
+
+        List<Map<String, Object>> rows = trendMapper.countByDay(metric.getTable(), metric.getColumn(),
+                metric.getStatus(), startDate, endDate.plusDays(1));
+        for (Map<String, Object> row : rows) {
+            LocalDate day = toLocalDate(row.get("day"));
+            if (day == null) {
+                continue;
+            }
+            long count = ((Number) row.get("count")).longValue();
+            buckets.merge(bucketOf(day, granularity), count, Long::sum);
+        }
+        return buckets;
+    }
+
+    @Override
+    public List<Map<String, Object>> trend(Map<String, Metric> series, LocalDate startDate, LocalDate endDate,
+                                           Granularity granularity) {
+        Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+        series.forEach((field, metric) ->
+                trend(metric, startDate, endDate, granularity).forEach((bucket, count) ->
+                        rows.computeIfAbsent(bucket, key -> {
+                            Map<String, Object> item = new LinkedHashMap<>();
+                            item.put("date", key);
+                            return item;
+                        }).put(field, count)));
+        return new ArrayList<>(rows.values());
+    }
+
+    /**
+     * 计算日期所属的桶标签
+     */
+    private String bucketOf(LocalDate day, Granularity granularity) {
+        switch (granularity) {
+            case WEEK:
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                        .format(DateTimeFormatter.ISO_LOCAL_DATE);
+            case MONTH:
+                return day.format(MONTH_FORMAT);
+            case DAY:
+            default:
+                return day.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+    }
+
+    private LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        } else if (value instanceof Date) {
+            return ((Date) value).toLocalDate();
+        } else if (value != null) {
+            return LocalDate.parse(value.toString());
+        }
+        return null;
+    }
+}
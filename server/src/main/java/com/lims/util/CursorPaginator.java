@@ -0,0 +1,123 @@
+package com.lims.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.lims.common.CursorPageResult;
+import com.lims.exception.BusinessException;
+import com.lims.mapper.StatisticsMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 游标（keyset）分页
+ * 以 (create_time, id) 倒序定位下一页：WHERE create_time &lt; t OR (create_time = t AND id &lt; id) LIMIT size+1，
+ * 深页与首页代价相同；总数按需计算且只在首页计算。
+ * 游标为 Base64 编码的 "create_time|id"，调用方应视为不透明字符串。
+ * create_time 为空的记录无法定位，不参与游标分页（也不计入精确总数）。
+ */
+@Component
+@RequiredArgsConstructor
+public class CursorPaginator {
+
+    /**
+     * 单页最大条数
+     */
+    private static final int MAX_SIZE = 500;
+
+    /**
+     * 总数计算方式
+     */
+    public enum CountMode {
+        /** 不计算 */
+        NONE,
+        /** COUNT(*) 精确计数 */
+        EXACT,
+        /** 表统计信息的近似行数，忽略查询条件 */
+        ESTIMATE;
+
+        public static CountMode of(String value) {
+            if (value == null || value.isEmpty()) {
+                return NONE;
+            }
+            try {
+                return valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException(400, "不支持的计数方式: " + value);
+            }
+        }
+    }
+
+    private final StatisticsMapper statisticsMapper;
+
+    /**
+     * 执行游标分页
+     * @param mapper 实体 Mapper
+     * @param wrapper 只包含过滤条件的查询（不要设置排序）
+     * @param timeColumn create_time 列
+     * @param idColumn 主键列
+     * @param cursor 上一页返回的游标，首页为 null
+     * @param size 每页条数
+     * @param countMode 总数计算方式
+     */
+    public <T> CursorPageResult<T> page(BaseMapper<T> mapper,
+                                        LambdaQueryWrapper<T> wrapper,
+                                        SFunction<T, LocalDateTime> timeColumn,
+                                        SFunction<T, Long> idColumn,
+                                        String cursor,
+                                        int size,
+                                        CountMode countMode) {
+        int limit = Math.min(Math.max(size, 1), MAX_SIZE);
+        wrapper.isNotNull(timeColumn);
+
+        Long total = null;
+        if (cursor == null || cursor.isEmpty()) {
+            if (countMode == CountMode.EXACT) {
+                total = mapper.selectCount(wrapper);
+            } else if (countMode == CountMode.ESTIMATE) {
+                Class<?> entityClass = LambdaUtils.extract(idColumn).getInstantiatedClass();
+                total = statisticsMapper.estimateRowCount(TableInfoHelper.getTableInfo(entityClass).getTableName());
+            }
+        } else {
+            Object[] position = decode(cursor);
+            LocalDateTime time = (LocalDateTime) position[0];
+            Long id = (Long) position[1];
+            wrapper.and(w -> w.lt(timeColumn, time)
+                    .or(o -> o.eq(timeColumn, time).lt(idColumn, id)));
+        }
+
+        wrapper.orderByDesc(timeColumn).orderByDesc(idColumn)
+               .last("LIMIT " + (limit + 1));
+        List<T> records = mapper.selectList(wrapper);
+
+        String nextCursor = null;
+        if (records.size() > limit) {
+            records = records.subList(0, limit);
+            T last = records.get(limit - 1);
+            nextCursor = encode(timeColumn.apply(last), idColumn.apply(last));
+        }
+        return new CursorPageResult<>(records, nextCursor, limit, total);
+    }
+
+    private String encode(LocalDateTime time, Long id) {
+        String raw = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Object[]{LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1))};
+        } catch (Exception e) {
+            throw new BusinessException(400, "无效的分页游标");
+        }
+    }
+}
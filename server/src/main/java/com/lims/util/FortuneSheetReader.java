@@ -0,0 +1,212 @@
+package com.lims.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Fortune-sheet 数据读取工具
+ * 使用 Jackson 流式解析 TestData.dataContent，只遍历一次第一个工作表的 celldata，
+ * 其余字段（样式、合并单元格等）直接跳过，不构建完整的 Map 结构。
+ * readRowBatches 在解析过程中按批输出行，内存中只保留当前一批的单元格。
+ */
+@Component
+@RequiredArgsConstructor
+public class FortuneSheetReader {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 单元格回调
+     */
+    @FunctionalInterface
+    public interface CellConsumer {
+        void accept(int row, int col, Object value);
+    }
+
+    /**
+     * 行批次回调，行格式同 toRowList
+     */
+    @FunctionalInterface
+    public interface RowBatchConsumer {
+        void accept(List<List<Object>> rows);
+    }
+
+    /**
+     * celldata 未按行排列：单元格所在行已随之前的批次输出
+     */
+    public static class UnorderedCellsException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        public UnorderedCellsException(int row, int flushedRows) {
+            super("单元格行号 " + row + " 位于已输出的前 " + flushedRows + " 行内");
+        }
+    }
+
+    /**
+     * 按 celldata 中的顺序逐个回调第一个工作表的单元格
+     * @param dataContent Fortune-sheet JSON
+     * @param consumer 单元格回调
+     */
+    public void readCells(String dataContent, CellConsumer consumer) throws IOException {
+        if (dataContent == null || dataContent.isEmpty()) {
+            return;
+        }
+        try (JsonParser parser = objectMapper.createParser(dataContent)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("sheets".equals(field) && token == JsonToken.START_ARRAY) {
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readSheet(parser, consumer);
+                    }
+                    return;
+                }
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * 边解析边按行号顺序分批回调第一个工作表的行，每批 batchRows 行（最后一批可能不足）
+     * Fortune-sheet 保存的 celldata 按行排列，读到下一批的行时输出当前批，内存中只保留一批的单元格；
+     * 批内单元格顺序不限。单元格所在行已输出时抛出 UnorderedCellsException，调用方可改用 readRows。
+     * @param dataContent Fortune-sheet JSON
+     * @param batchRows 每批行数
+     * @param consumer 行批次回调
+     * @return 输出的总行数（最后一个非空行号 + 1）
+     */
+    public int readRowBatches(String dataContent, int batchRows, RowBatchConsumer consumer) throws IOException {
+        RowBatcher batcher = new RowBatcher(batchRows, consumer);
+        readCells(dataContent, batcher::add);
+        return batcher.finish();
+    }
+
+    /**
+     * 读取为稀疏行：行号 -> (列号 -> 值)，行列均有序，只保存非空单元格
+     * @param dataContent Fortune-sheet JSON
+     * @return 稀疏行
+     */
+    public SortedMap<Integer, SortedMap<Integer, Object>> readRows(String dataContent) throws IOException {
+        SortedMap<Integer, SortedMap<Integer, Object>> rows = new TreeMap<>();
+        readCells(dataContent, (row, col, value) -> rows.computeIfAbsent(row, k -> new TreeMap<>()).put(col, value));
+        return rows;
+    }
+
+    /**
+     * 稀疏行转换为写入 Excel 的行：行内按列号补位，行间空行为空列表
+     * @param rows 稀疏行
+     * @param fromRow 起始行号（含）
+     * @param toRow 结束行号（不含）
+     * @return 行列表
+     */
+    public static List<List<Object>> toRowList(SortedMap<Integer, SortedMap<Integer, Object>> rows,
+                                               int fromRow, int toRow) {
+        List<List<Object>> result = new ArrayList<>(toRow - fromRow);
+        for (int r = fromRow; r < toRow; r++) {
+            SortedMap<Integer, Object> cells = rows.get(r);
+            if (cells == null || cells.isEmpty()) {
+                result.add(new ArrayList<>(0));
+                continue;
+            }
+            List<Object> row = new ArrayList<>(cells.lastKey() + 1);
+            for (int c = 0; c <= cells.lastKey(); c++) {
+                row.add(cells.get(c));
+            }
+            result.add(row);
+        }
+        return result;
+    }
+
+    /**
+     * 缓存当前批 [batchStart, batchStart + batchRows) 的单元格，读到之后的行时输出
+     */
+    private static class RowBatcher {
+        private final int batchRows;
+        private final RowBatchConsumer consumer;
+        private final SortedMap<Integer, SortedMap<Integer, Object>> pending = new TreeMap<>();
+        private int batchStart;
+
+        RowBatcher(int batchRows, RowBatchConsumer consumer) {
+            this.batchRows = batchRows;
+            this.consumer = consumer;
+        }
+
+        void add(int row, int col, Object value) {
+            if (row < batchStart) {
+                throw new UnorderedCellsException(row, batchStart);
+            }
+            while (row >= batchStart + batchRows) {
+                flush(batchStart + batchRows);
+            }
+            pending.computeIfAbsent(row, k -> new TreeMap<>()).put(col, value);
+        }
+
+        int finish() {
+            if (!pending.isEmpty()) {
+                flush(pending.lastKey() + 1);
+            }
+            return batchStart;
+        }
+
+        private void flush(int toRow) {
+            consumer.accept(toRowList(pending, batchStart, toRow));
+            pending.clear();
+            batchStart = toRow;
+        }
+    }
+
+    private void readSheet(JsonParser parser, CellConsumer consumer) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("celldata".equals(field) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    // 单个单元格很小，按树读取
+                    JsonNode cell = parser.readValueAsTree();
+                    JsonNode r = cell.get("r");
+                    JsonNode c = cell.get("c");
+                    if (r != null && c != null && r.canConvertToInt() && c.canConvertToInt()) {
+                        consumer.accept(r.intValue(), c.intValue(), cellValue(cell.get("v")));
+                    }
+                }
+                continue;
+            }
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * 单元格值可能是 {v: 原始值, m: 显示值, ...} 或直接是原始值
+     */
+    private Object cellValue(JsonNode v) {
+        if (v != null && v.isObject()) {
+            v = v.get("v");
+        }
+        if (v == null || v.isNull()) {
+            return null;
+        }
+        if (v.isNumber()) {
+            return v.numberValue();
+        }
+        if (v.isBoolean()) {
+            return v.booleanValue();
+        }
+        if (v.isValueNode()) {
+            return v.asText();
+        }
+        return v.toString();
+    }
+}
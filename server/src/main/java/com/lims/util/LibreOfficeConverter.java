@@ -1,16 +1,36 @@
 package com.lims.util;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.jodconverter.core.DocumentConverter;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.office.ExistingProcessAction;
+import org.jodconverter.local.office.LocalOfficeManager;
+import org.jodconverter.local.office.LocalOfficeUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.IntStream;
 
 /**
  * LibreOffice 文档转换工具
  * 用于将 Excel/Word 转换为 PDF
+ *
+ * 由 JODConverter 维护 pool-size 个常驻的 headless soffice 进程，分别监听 base-port 起的本地端口，
+ * 各自使用独立的配置目录（profile-dir 下）。转换经 UNO 连接加载文档并 storeToURL，
+ * 调用返回即表示 PDF 已写完，免去每次冷启动 soffice 的开销。
+ * 转换任务按空闲顺序轮流分配给各进程；UNO 连接断开（进程崩溃）时自动重启该进程，
+ * 单次转换超过 timeout 视为卡死，强制结束并重启；每个进程累计转换 max-conversions 次后重启。
+ * 输出先写入私有临时目录，校验为完整 PDF（%PDF- 开头、%%EOF 结尾）后才移动到目标位置。
  */
 @Slf4j
 @Component
@@ -22,6 +42,22 @@ public class LibreOfficeConverter {
     @Value("${libreoffice.timeout:60}")
     private int timeout;
 
+    @Value("${libreoffice.pool-size:2}")
+    private int poolSize;
+
+    @Value("${libreoffice.base-port:2002}")
+    private int basePort;
+
+    @Value("${libreoffice.profile-dir:/tmp/lims/office-profiles}")
+    private String profileDir;
+
+    @Value("${libreoffice.max-conversions:200}")
+    private int maxConversions;
+
+    private OfficeManager officeManager;
+
+    private DocumentConverter documentConverter;
+
     /**
      * 将文件转换为 PDF
      * @param inputFile 输入文件路径
@@ -39,39 +75,102 @@ public class LibreOfficeConverter {
             outDir.mkdirs();
         }
 
-        // LibreOffice 命令行转换
-        ProcessBuilder pb = new ProcessBuilder(
-            libreOfficePath,
-            "--headless",
-            "--convert-to", "pdf",
-            "--outdir", outputDir,
-            inputFile
-        );
-
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-
-        boolean finished = process.waitFor(timeout, TimeUnit.SECONDS);
-        if (!finished) {
-            process.destroyForcibly();
-            throw new IOException("LibreOffice 转换超时");
-        }
+        String baseName = input.getName().replaceFirst("[.][^.]+$", "");
+        File pdfFile = new File(outputDir + File.separator + baseName + ".pdf");
 
-        int exitCode = process.exitValue();
-        if (exitCode != 0) {
-            throw new IOException("LibreOffice 转换失败，退出码: " + exitCode);
+        DocumentConverter converter = documentConverter();
+        Path workDir = Files.createTempDirectory(outDir.toPath(), ".office-");
+        try {
+            File converted = new File(workDir.toFile(), baseName + ".pdf");
+            try {
+                converter.convert(input).to(converted).execute();
+            } catch (OfficeException e) {
+                if (e.getCause() instanceof InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw interrupted;
+                }
+                throw new IOException("LibreOffice 转换失败: " + e.getMessage(), e);
+            }
+            if (!PdfFiles.isComplete(converted)) {
+                throw new IOException(converted.exists() ? "PDF 文件不完整" : "PDF 文件生成失败");
+            }
+            Files.move(converted.toPath(), pdfFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            FileSystemUtils.deleteRecursively(workDir.toFile());
         }
 
-        // 返回生成的 PDF 文件路径
-        String baseName = input.getName().replaceFirst("[.][^.]+$", "");
-        String pdfPath = outputDir + File.separator + baseName + ".pdf";
+        log.info("PDF 转换成功: {}", pdfFile.getPath());
+        return pdfFile.getPath();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (officeManager != null) {
+            try {
+                officeManager.stop();
+            } catch (OfficeException e) {
+                log.warn("停止 LibreOffice 进程池失败: {}", e.getMessage());
+            }
+            officeManager = null;
+            documentConverter = null;
+        }
+    }
 
-        File pdfFile = new File(pdfPath);
-        if (!pdfFile.exists()) {
-            throw new IOException("PDF 文件生成失败");
+    /**
+     * 首次转换时启动进程池；启动失败时下次转换重试
+     */
+    private synchronized DocumentConverter documentConverter() throws IOException {
+        if (documentConverter == null) {
+            try {
+                if (officeManager == null) {
+                    // 找不到或无效的安装目录抛出 IllegalStateException
+                    officeManager = createOfficeManager();
+                }
+                if (!officeManager.isRunning()) {
+                    officeManager.start();
+                }
+            } catch (OfficeException | IllegalStateException e) {
+                officeManager = null;
+                throw new IOException("LibreOffice 进程池启动失败: " + e.getMessage(), e);
+            }
+            log.info("LibreOffice 进程池已启动: {} 个实例，端口 {} 起", Math.max(poolSize, 1), basePort);
+            documentConverter = LocalConverter.builder().officeManager(officeManager).build();
         }
+        return documentConverter;
+    }
 
-        log.info("PDF 转换成功: {}", pdfPath);
-        return pdfPath;
+    OfficeManager createOfficeManager() {
+        long timeoutMillis = timeout * 1000L;
+        LocalOfficeManager.Builder builder = LocalOfficeManager.builder()
+                .portNumbers(IntStream.range(0, Math.max(poolSize, 1)).map(i -> basePort + i).toArray())
+                .workingDir(profileDir)
+                .taskExecutionTimeout(timeoutMillis)
+                .taskQueueTimeout(timeoutMillis)
+                .maxTasksPerProcess(maxConversions)
+                // 上次未正常退出遗留在端口上的进程直接结束
+                .existingProcessAction(ExistingProcessAction.KILL)
+                .disableOpengl(true);
+        new File(profileDir).mkdirs();
+        return builder.officeHome(officeHome()).build();
+    }
+
+    /**
+     * 由 soffice 路径推出安装目录（program/soffice 的上两级）；路径不存在时查找默认安装位置
+     */
+    private File officeHome() {
+        try {
+            Path program = Paths.get(libreOfficePath).toRealPath().getParent();
+            if (program != null && program.getParent() != null) {
+                return program.getParent().toFile();
+            }
+        } catch (IOException e) {
+            log.warn("LibreOffice 路径不存在，查找默认安装目录: {}", libreOfficePath);
+        }
+        File officeHome = LocalOfficeUtils.getDefaultOfficeHome();
+        if (officeHome == null) {
+            throw new IllegalStateException("未找到 LibreOffice 安装目录");
+        }
+        return officeHome;
     }
 }
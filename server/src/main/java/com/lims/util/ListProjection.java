@@ -0,0 +1,21 @@
+package com.lims.util;
+
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.lims.annotation.ListExclude;
+
+/**
+ * 列表查询列投影
+ * 配合 QueryWrapper.select(entityClass, predicate) 使用，跳过标记了 {@link ListExclude} 的列（主键始终查询）
+ */
+public final class ListProjection {
+
+    private ListProjection() {
+    }
+
+    /**
+     * 列表查询是否读取该列
+     */
+    public static boolean include(TableFieldInfo fieldInfo) {
+        return !fieldInfo.getField().isAnnotationPresent(ListExclude.class);
+    }
+}
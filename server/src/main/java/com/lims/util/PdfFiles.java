@@ -0,0 +1,60 @@
+package com.lims.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * PDF 文件检查工具
+ */
+public final class PdfFiles {
+
+    private static final byte[] HEADER = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRAILER = "%%EOF".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 在文件末尾多少字节内查找 %%EOF（规范允许其后有少量空白等字节）
+     */
+    private static final int TRAILER_SEARCH_BYTES = 1024;
+
+    private PdfFiles() {
+    }
+
+    /**
+     * 是否为写入完整的 PDF：非空、以 %PDF- 开头、末尾含 %%EOF
+     * 截断或仍在写入的文件不满足末尾条件
+     */
+    public static boolean isComplete(File file) {
+        if (file == null || !file.isFile() || file.length() < HEADER.length + TRAILER.length) {
+            return false;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            byte[] header = new byte[HEADER.length];
+            raf.readFully(header);
+            if (indexOf(header, header.length, HEADER) != 0) {
+                return false;
+            }
+            int tailLength = (int) Math.min(TRAILER_SEARCH_BYTES, raf.length());
+            byte[] tail = new byte[tailLength];
+            raf.seek(raf.length() - tailLength);
+            raf.readFully(tail);
+            return indexOf(tail, tailLength, TRAILER) >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int indexOf(byte[] data, int length, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
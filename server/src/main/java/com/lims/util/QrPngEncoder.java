@@ -0,0 +1,97 @@
+package com.lims.util;
+
+import com.google.zxing.common.BitMatrix;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 二维码 PNG 编码工具
+ * 直接将 BitMatrix 编码为 1 位灰度 PNG，不经过 AWT BufferedImage / ImageIO。
+ */
+public final class QrPngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private QrPngEncoder() {
+    }
+
+    /**
+     * 编码为 PNG，BitMatrix 中置位的点为黑色
+     * @return PNG 字节
+     */
+    public static byte[] encode(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int rowBytes = (width + 7) / 8;
+
+        // 每行：1 字节过滤类型(0) + 按位打包的像素，1 为白、0 为黑
+        byte[] raw = new byte[(rowBytes + 1) * height];
+        int offset = 0;
+        for (int y = 0; y < height; y++) {
+            offset++;
+            for (int x = 0; x < width; x++) {
+                if (!matrix.get(x, y)) {
+                    raw[offset + (x >> 3)] |= (byte) (0x80 >>> (x & 7));
+                }
+            }
+            offset += rowBytes;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 128);
+        out.writeBytes(SIGNATURE);
+
+        byte[] header = new byte[13];
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = 1;  // 位深
+        header[9] = 0;  // 灰度
+        writeChunk(out, "IHDR", header, header.length);
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] compressed = new byte[raw.length + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            writeChunk(out, "IDAT", compressed, length);
+        } finally {
+            deflater.end();
+        }
+
+        writeChunk(out, "IEND", new byte[0], 0);
+        return out.toByteArray();
+    }
+
+    private static void writeChunk(ByteArrayOutputStream out, String type, byte[] data, int length) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        byte[] lengthBytes = new byte[4];
+        writeInt(lengthBytes, 0, length);
+        out.writeBytes(lengthBytes);
+        out.writeBytes(typeBytes);
+        out.write(data, 0, length);
+
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        byte[] crcBytes = new byte[4];
+        writeInt(crcBytes, 0, (int) crc.getValue());
+        out.writeBytes(crcBytes);
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+}
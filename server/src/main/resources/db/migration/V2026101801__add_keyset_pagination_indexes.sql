@@ -0,0 +1,9 @@
+-- =====================================================
+-- 2LIMS 数据库脚本
+-- 版本: V2026101801
+-- 功能: 游标分页索引，按 (create_time, id) 倒序定位下一页
+-- =====================================================
+
+ALTER TABLE biz_test_task ADD INDEX idx_create_time_id (create_time, id);
+ALTER TABLE biz_sample ADD INDEX idx_create_time_id (create_time, id);
+ALTER TABLE fin_payment ADD INDEX idx_create_time_id (create_time, id);
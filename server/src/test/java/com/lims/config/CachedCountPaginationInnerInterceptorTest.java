@@ -0,0 +1,159 @@
+package com.lims.config;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * COUNT 缓存：翻页复用总数，写入后（含事务结束后）失效
+ */
+class CachedCountPaginationInnerInterceptorTest {
+
+    private static final String NAMESPACE = "com.lims.mapper.SampleMapper";
+
+    private final MybatisConfiguration configuration = new MybatisConfiguration();
+    private final MappedStatement select = statement(NAMESPACE + ".selectPage", "SELECT id, name FROM biz_sample",
+            SqlCommandType.SELECT);
+    private final MappedStatement update = statement(NAMESPACE + ".updateById", "UPDATE biz_sample SET name = 'x'",
+            SqlCommandType.UPDATE);
+
+    private CachedCountPaginationInnerInterceptor interceptor;
+    private Executor executor;
+
+    /**
+     * 数据库中当前对其他会话可见的行数，以及实际执行 COUNT 的次数
+     */
+    private final AtomicLong rows = new AtomicLong(10);
+    private final AtomicLong counts = new AtomicLong();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        interceptor = new CachedCountPaginationInnerInterceptor(DbType.MYSQL, 100, 60_000);
+        executor = mock(Executor.class);
+        when(executor.query(any(MappedStatement.class), any(), any(RowBounds.class), any(),
+                any(), any(BoundSql.class))).thenAnswer(inv -> {
+            counts.incrementAndGet();
+            return new ArrayList<>(List.of(rows.get()));
+        });
+        when(executor.createCacheKey(any(), any(), any(), any())).thenReturn(new CacheKey());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(interceptor);
+    }
+
+    @Test
+    void pagingReusesCachedTotal() throws Exception {
+        assertThat(count(1)).isEqualTo(10);
+        assertThat(count(2)).isEqualTo(10);
+        assertThat(count(3)).isEqualTo(10);
+
+        assertThat(counts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void writeOutsideTransactionInvalidates() throws Exception {
+        count(1);
+
+        interceptor.beforeUpdate(executor, update, null);
+        rows.set(11);
+
+        assertThat(count(1)).isEqualTo(11);
+        assertThat(counts.get()).isEqualTo(2);
+    }
+
+    @Test
+    void countBetweenWriteAndCommitIsNotReusedAfterCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        interceptor.beforeUpdate(executor, update, null);
+        interceptor.beforeUpdate(executor, update, null);
+
+        // 事务未提交，其他会话仍看到 10 行，该结果存入了写入后的版本
+        assertThat(count(1)).isEqualTo(10);
+
+        rows.set(11);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(count(1)).isEqualTo(11);
+        assertThat(counts.get()).isEqualTo(2);
+    }
+
+    @Test
+    void countInsideRolledBackTransactionIsNotReused() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        interceptor.beforeUpdate(executor, update, null);
+
+        // 事务内的 COUNT 看到未提交的第 11 行
+        rows.set(11);
+        assertThat(count(1)).isEqualTo(11);
+
+        rows.set(10);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(count(1)).isEqualTo(10);
+    }
+
+    @Test
+    void transactionRegistersOneSynchronization() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        interceptor.beforeUpdate(executor, update, null);
+        interceptor.beforeUpdate(executor, update, null);
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(TransactionSynchronizationManager.getResource(interceptor)).isNull();
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    /**
+     * 按分页查询第 current 页，返回分页插件得到的总数
+     */
+    private long count(long current) throws Exception {
+        Page<Object> page = new Page<>(current, 10);
+        Map<String, Object> parameter = Map.of("page", page);
+        BoundSql boundSql = select.getBoundSql(parameter);
+        interceptor.willDoQuery(executor, select, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, boundSql);
+        return page.getTotal();
+    }
+
+    private MappedStatement statement(String id, String sql, SqlCommandType type) {
+        return new MappedStatement.Builder(configuration, id, new StaticSqlSource(configuration, sql), type)
+                .resultMaps(List.of(new ResultMap.Builder(configuration, id + "-result", Object.class,
+                        new ArrayList<>()).build()))
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.lims.controller;
+
+import com.lims.config.MinioConfig;
+import com.lims.exception.BusinessException;
+import com.lims.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 文件下载：Range 响应与读取时的 ETag 校验；预签名直传的目录与有效期限制
+ */
+class FileControllerTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private FileStorageService fileStorageService;
+    private MinioConfig minioConfig;
+    private FileController controller;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = mock(FileStorageService.class);
+        minioConfig = new MinioConfig();
+        controller = new FileController(fileStorageService, minioConfig);
+
+        FileStorageService.FileStat stat = new FileStorageService.FileStat();
+        stat.setSize(CONTENT.length);
+        stat.setEtag("abc");
+        stat.setContentType("text/plain");
+        when(fileStorageService.stat("common/a.txt")).thenReturn(stat);
+    }
+
+    @Test
+    void fullDownloadReadsWholeObjectPinnedToStatEtag() throws Exception {
+        when(fileStorageService.download("common/a.txt", 0, CONTENT.length, "abc"))
+                .thenReturn(new ByteArrayInputStream(CONTENT));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download("common/a.txt", null, false, new MockHttpServletRequest(), response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc\"");
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void rangeDownloadReadsRequestedBytesPinnedToStatEtag() throws Exception {
+        when(fileStorageService.download("common/a.txt", 2, 4, "abc"))
+                .thenReturn(new ByteArrayInputStream(CONTENT, 2, 4));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download("common/a.txt", null, false, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+        verify(fileStorageService).download("common/a.txt", 2, 4, "abc");
+    }
+
+    @Test
+    void objectReplacedAfterStatFailsWithoutBody() throws Exception {
+        when(fileStorageService.download(anyString(), anyLong(), anyLong(), anyString())).thenReturn(null);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download("common/a.txt", null, false, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(409);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void ifNoneMatchReturnsNotModifiedWithoutReading() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download("common/a.txt", null, false, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        verify(fileStorageService, never())
+                .download(anyString(), anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    void presignedUploadClampsExpiryToConfiguredMaximum() {
+        minioConfig.setPresignedUploadMaxExpiry(3600);
+        when(fileStorageService.getPresignedUploadUrl("instruments", "raw.csv", 3600))
+                .thenReturn(new String[]{"instruments/2026/10/18/x.csv", "http://minio/put"});
+
+        FileController.PresignedUploadResult result =
+                controller.presignedUpload("raw.csv", "instruments", 30 * 24 * 3600).getData();
+
+        assertThat(result.getExpiry()).isEqualTo(3600);
+        assertThat(result.getPath()).isEqualTo("instruments/2026/10/18/x.csv");
+    }
+
+    @Test
+    void presignedUploadNeverExceedsSevenDays() {
+        minioConfig.setPresignedUploadMaxExpiry(Integer.MAX_VALUE);
+        when(fileStorageService.getPresignedUploadUrl(anyString(), anyString(), anyInt()))
+                .thenReturn(new String[]{"common/x", "http://minio/put"});
+
+        assertThat(controller.presignedUpload("a.bin", "common", Integer.MAX_VALUE).getData().getExpiry())
+                .isEqualTo(7 * 24 * 3600);
+        assertThat(controller.presignedUpload("a.bin", "common", -5).getData().getExpiry()).isEqualTo(1);
+    }
+
+    @Test
+    void presignedUploadRejectsSystemManagedFolders() {
+        for (String folder : new String[]{"reports", "qrcodes", "samples", "common/../reports"}) {
+            assertThatThrownBy(() -> controller.presignedUpload("a.pdf", folder, 3600))
+                    .isInstanceOf(BusinessException.class);
+        }
+        verify(fileStorageService, never()).getPresignedUploadUrl(anyString(), anyString(), anyInt());
+    }
+}
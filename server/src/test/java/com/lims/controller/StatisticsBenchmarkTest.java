@@ -0,0 +1,153 @@
+package com.lims.controller;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lims.entity.Entrustment;
+import com.lims.mapper.EntrustmentMapper;
+import com.lims.mapper.StatisticsMapper;
+import com.lims.support.BenchmarkDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 统计聚合基准：委托单总览在 1 万 / 10 万 / 100 万行时，整表加载后内存分组 vs 数据库聚合的耗时与堆分配
+ * 默认构建不运行，使用 mvn test -Pbenchmark 执行（需要 Docker），结果输出到标准输出。
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class StatisticsBenchmarkTest {
+
+    private static final int[] ROW_COUNTS = {10_000, 100_000, 1_000_000};
+
+    private static final int WARMUP_ROUNDS = 1;
+    private static final int MEASURE_ROUNDS = 3;
+
+    private static final String[] STATUSES = {"pending", "approved", "testing", "completed", "cancelled"};
+
+    private static BenchmarkDatabase database;
+    private static JdbcTemplate jdbcTemplate;
+    private static EntrustmentMapper entrustmentMapper;
+    private static StatisticsController controller;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        database = BenchmarkDatabase.start();
+        DataSource dataSource = database.dataSource(true);
+        SqlSessionTemplate sqlSession = database.sqlSession(dataSource, EntrustmentMapper.class, StatisticsMapper.class);
+        entrustmentMapper = sqlSession.getMapper(EntrustmentMapper.class);
+        controller = new StatisticsController(sqlSession.getMapper(StatisticsMapper.class), null);
+        jdbcTemplate = database.jdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Test
+    void entrustmentOverview() {
+        int loaded = 0;
+        for (int rows : ROW_COUNTS) {
+            seed(loaded, rows);
+            loaded = rows;
+
+            Measurement inSql = measure("数据库聚合", rows, () -> controller.entrustmentOverview(null, null).getData());
+            Measurement inMemory;
+            try {
+                inMemory = measure("整表加载内存分组", rows, StatisticsBenchmarkTest::overviewInMemory);
+            } catch (OutOfMemoryError e) {
+                System.out.printf("%9d 行 / %-16s 堆内存不足%n", rows, "整表加载内存分组");
+                continue;
+            }
+
+            assertThat(inSql.result().get("total")).isEqualTo((long) rows);
+            assertThat(inSql.result().get("byStatus")).isEqualTo(inMemory.result().get("byStatus"));
+            assertThat((BigDecimal) inSql.result().get("totalAmount"))
+                    .isEqualByComparingTo((BigDecimal) inMemory.result().get("totalAmount"));
+            System.out.printf("%9d 行: 耗时降低 %.1fx, 堆分配降低 %.0fx%n", rows,
+                    inMemory.millis() / inSql.millis(), (double) inMemory.allocatedBytes() / inSql.allocatedBytes());
+        }
+    }
+
+    /**
+     * 调整前的实现：加载全部委托单实体后在内存中分组、求和
+     */
+    private static Map<String, Object> overviewInMemory() {
+        List<Entrustment> list = entrustmentMapper.selectList(new LambdaQueryWrapper<>());
+        Map<String, Object> result = new HashMap<>();
+        result.put("total", (long) list.size());
+        result.put("byStatus", list.stream().collect(Collectors.groupingBy(
+                e -> e.getStatus() != null ? e.getStatus() : "unknown", Collectors.counting())));
+        result.put("totalAmount", list.stream()
+                .map(e -> e.getEstimatedAmount() != null ? e.getEstimatedAmount() : BigDecimal.ZERO)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return result;
+    }
+
+    /**
+     * 补足委托单到 rows 行：数字表自连接生成序号，检测项目等文本列按实际长度填充
+     */
+    private static void seed(int from, int to) {
+        jdbcTemplate.update("INSERT INTO biz_entrustment (entrustment_no, client_id, client_name, contact_person, " +
+                "sample_name, sample_model, test_items, estimated_amount, status, remark) " +
+                "SELECT CONCAT('WT', LPAD(n, 10, '0')), n % 500, CONCAT('客户单位-', n % 500), '联系人', " +
+                "'复合材料试样', 'CF-T700', REPEAT('拉伸强度,弯曲强度,层间剪切强度;', 8), (n % 1000) * 12.5, " +
+                "ELT(n % 5 + 1, ?, ?, ?, ?, ?), REPEAT('备注', 20) " +
+                "FROM (SELECT ? + d0.d + d1.d * 10 + d2.d * 100 + d3.d * 1000 + d4.d * 10000 + d5.d * 100000 + 1 AS n " +
+                "FROM " + digits("d0") + ", " + digits("d1") + ", " + digits("d2") + ", " +
+                digits("d3") + ", " + digits("d4") + ", " + digits("d5") + ") seq " +
+                "WHERE n <= ?",
+                STATUSES[0], STATUSES[1], STATUSES[2], STATUSES[3], STATUSES[4], from, to);
+        jdbcTemplate.execute("ANALYZE TABLE biz_entrustment");
+    }
+
+    private static String digits(String alias) {
+        return "(SELECT 0 AS d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4 " +
+                "UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) " + alias;
+    }
+
+    /**
+     * 预热后多轮计时，返回平均耗时与当前线程的平均堆分配字节数
+     */
+    private static Measurement measure(String name, int rows, Supplier<Map<String, Object>> action) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Map<String, Object> result = null;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            result = action.get();
+        }
+        long elapsed = 0;
+        long allocated = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            result = action.get();
+            elapsed += System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        Measurement measurement = new Measurement(result, elapsed / 1e6 / MEASURE_ROUNDS, allocated / MEASURE_ROUNDS);
+        System.out.printf("%9d 行 / %-16s %10.1f ms  %10.1f MB%n", rows, name, measurement.millis(),
+                measurement.allocatedBytes() / 1024.0 / 1024.0);
+        return measurement;
+    }
+
+    private record Measurement(Map<String, Object> result, double millis, long allocatedBytes) {
+    }
+}
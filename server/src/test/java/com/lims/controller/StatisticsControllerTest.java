@@ -0,0 +1,133 @@
+package com.lims.controller;
+
+import com.lims.mapper.StatisticsMapper;
+import com.lims.service.TrendService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 统计报表：SQL 聚合结果到接口响应的映射
+ */
+class StatisticsControllerTest {
+
+    private StatisticsMapper statisticsMapper;
+    private StatisticsController controller;
+
+    @BeforeEach
+    void setUp() {
+        statisticsMapper = mock(StatisticsMapper.class);
+        controller = new StatisticsController(statisticsMapper, mock(TrendService.class));
+    }
+
+    @Test
+    void entrustmentOverviewMapsSummaryAndStatusGroups() {
+        when(statisticsMapper.entrustmentSummary(any(), any()))
+                .thenReturn(Map.of("total", 5L, "totalAmount", new BigDecimal("1200.50")));
+        when(statisticsMapper.countEntrustmentByStatus(any(), any())).thenReturn(List.of(
+                Map.of("name", "pending", "count", 3L),
+                Map.of("name", "completed", "count", 2L)));
+
+        Map<String, Object> data = controller.entrustmentOverview("2026-01-01", "2026-01-31").getData();
+
+        assertThat(data).containsEntry("total", 5L)
+                .containsEntry("totalAmount", new BigDecimal("1200.50"))
+                .containsEntry("byStatus", Map.of("pending", 3L, "completed", 2L));
+        // 结束日期按次日零点传入
+        verify(statisticsMapper).entrustmentSummary(LocalDateTime.of(2026, 1, 1, 0, 0), LocalDateTime.of(2026, 2, 1, 0, 0));
+    }
+
+    @Test
+    void entrustmentOverviewTreatsEmptySummaryAsZero() {
+        when(statisticsMapper.entrustmentSummary(any(), any())).thenReturn(null);
+        when(statisticsMapper.countEntrustmentByStatus(any(), any())).thenReturn(List.of());
+
+        Map<String, Object> data = controller.entrustmentOverview(null, null).getData();
+
+        assertThat(data).containsEntry("total", 0L)
+                .containsEntry("totalAmount", BigDecimal.ZERO)
+                .containsEntry("byStatus", Map.of());
+    }
+
+    @Test
+    void entrustmentByClientRenamesColumns() {
+        when(statisticsMapper.countEntrustmentByClient(any(), any(), eq(10)))
+                .thenReturn(List.of(Map.of("name", "客户A", "count", 7)));
+
+        List<Map<String, Object>> data = controller.entrustmentByClient(null, null, 10).getData();
+
+        assertThat(data).containsExactly(Map.of("clientName", "客户A", "count", 7L));
+    }
+
+    @Test
+    void sampleOverviewSumsStatusGroups() {
+        when(statisticsMapper.countSampleByStatus(any(), any())).thenReturn(List.of(
+                Map.of("name", "received", "count", 4L),
+                Map.of("name", "unknown", "count", 1L)));
+
+        Map<String, Object> data = controller.sampleOverview(null, null).getData();
+
+        assertThat(data).containsEntry("total", 5L)
+                .containsEntry("byStatus", Map.of("received", 4L, "unknown", 1L));
+    }
+
+    @Test
+    void taskCompletionRateComputesRates() {
+        when(statisticsMapper.taskCompletionSummary(any(), any()))
+                .thenReturn(Map.of("total", 10L, "completed", new BigDecimal("4"),
+                        "onTime", new BigDecimal("3"), "overdue", new BigDecimal("1")));
+
+        Map<String, Object> data = controller.taskCompletionRate(null, null).getData();
+
+        assertThat(data).containsEntry("total", 10L)
+                .containsEntry("completed", 4L)
+                .containsEntry("completionRate", 40.0)
+                .containsEntry("onTimeCount", 3L)
+                .containsEntry("onTimeRate", 75.0)
+                .containsEntry("overdueCount", 1L);
+    }
+
+    @Test
+    void taskCompletionRateWithoutTasksIsZero() {
+        when(statisticsMapper.taskCompletionSummary(any(), any()))
+                .thenReturn(Map.of("total", 0L, "completed", 0, "onTime", 0, "overdue", 0));
+
+        Map<String, Object> data = controller.taskCompletionRate(null, null).getData();
+
+        assertThat(data).containsEntry("completionRate", 0.0).containsEntry("onTimeRate", 0.0);
+    }
+
+    @Test
+    void taskByTesterRenamesColumns() {
+        when(statisticsMapper.countCompletedTaskByTester(any(), any()))
+                .thenReturn(List.of(Map.of("name", "张三", "count", 12L)));
+
+        List<Map<String, Object>> data = controller.taskByTester(null, null).getData();
+
+        assertThat(data).containsExactly(Map.of("tester", "张三", "completedCount", 12L));
+    }
+
+    @Test
+    void reportOverviewComputesIssueRate() {
+        when(statisticsMapper.countReportByStatus(any(), any())).thenReturn(List.of(
+                Map.of("name", "issued", "count", 3L),
+                Map.of("name", "draft", "count", 1L)));
+
+        Map<String, Object> data = controller.reportOverview(null, null).getData();
+
+        assertThat(data).containsEntry("total", 4L)
+                .containsEntry("issuedCount", 3L)
+                .containsEntry("issueRate", 75.0);
+    }
+}
@@ -0,0 +1,78 @@
+package com.lims.mapper;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 统计聚合 SQL：分组与过滤条件在数据库完成
+ */
+class StatisticsMapperSqlTest {
+
+    private static Configuration configuration;
+
+    @BeforeAll
+    static void setUp() {
+        configuration = new Configuration();
+        configuration.addMapper(StatisticsMapper.class);
+    }
+
+    @Test
+    void entrustmentSummaryAggregatesInSql() {
+        String sql = sql("entrustmentSummary", params(null, null));
+
+        assertThat(sql).contains("COUNT(*) AS total", "SUM(estimated_amount)", "deleted = 0")
+                .doesNotContain("create_time");
+    }
+
+    @Test
+    void dateRangeAddsBoundParameters() {
+        BoundSql boundSql = boundSql("countEntrustmentByStatus",
+                params(LocalDateTime.of(2026, 1, 1, 0, 0), LocalDateTime.of(2026, 2, 1, 0, 0)));
+
+        assertThat(normalize(boundSql.getSql()))
+                .contains("create_time >= ?", "create_time <= ?", "GROUP BY IFNULL(status, 'unknown')");
+        assertThat(boundSql.getParameterMappings()).extracting("property").containsExactly("startTime", "endTime");
+    }
+
+    @Test
+    void byClientLimitsInSql() {
+        Map<String, Object> params = params(null, null);
+        params.put("limit", 10);
+
+        assertThat(sql("countEntrustmentByClient", params))
+                .contains("GROUP BY client_name ORDER BY count DESC LIMIT ?");
+    }
+
+    @Test
+    void taskCompletionCountsOnTimeAndOverdueInSql() {
+        assertThat(sql("taskCompletionSummary", params(null, null)))
+                .contains("completed_date <= due_date", "completed_date > due_date", "FROM biz_test_task");
+    }
+
+    private static Map<String, Object> params(LocalDateTime startTime, LocalDateTime endTime) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("startTime", startTime);
+        params.put("endTime", endTime);
+        return params;
+    }
+
+    private static BoundSql boundSql(String method, Map<String, Object> params) {
+        return configuration.getMappedStatement(StatisticsMapper.class.getName() + "." + method).getBoundSql(params);
+    }
+
+    private static String sql(String method, Map<String, Object> params) {
+        return normalize(boundSql(method, params).getSql());
+    }
+
+    private static String normalize(String sql) {
+        return sql.replaceAll("\\s+", " ");
+    }
+}
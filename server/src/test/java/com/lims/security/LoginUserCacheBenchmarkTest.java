@@ -0,0 +1,145 @@
+package com.lims.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lims.mapper.SysUserMapper;
+import com.lims.support.BenchmarkDatabase;
+import com.lims.util.JwtUtil;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 认证过滤器开销基准（JMH）：每个请求从 MySQL 加载用户角色/权限 vs 登录用户缓存命中
+ * 默认构建不运行，使用 mvn test -Pbenchmark 执行（需要 Docker），结果输出到标准输出。
+ * Redis 层以空实现代替，缓存命中走本地一级缓存。
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginUserCacheBenchmarkTest {
+
+    /**
+     * init.sql 中的管理员，拥有全部权限
+     */
+    private static final Long ADMIN_ID = 1L;
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> { };
+
+    private BenchmarkDatabase database;
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private String authorization;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start();
+        SysUserMapper userMapper = database.sqlSession(database.dataSource(true), SysUserMapper.class)
+                .getMapper(SysUserMapper.class);
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(userMapper);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "lims-benchmark-secret-key-must-be-at-least-256-bits-long");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 7_200_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheSize", 10_000);
+        jwtUtil.init();
+        authorization = "Bearer " + jwtUtil.generateToken(ADMIN_ID, "admin");
+
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        LoginUserCache cache = new LoginUserCache(redisTemplate, objectMapper, 1000, 30, 1800);
+        // 调整前：每个请求直接调用 loadUserById
+        LoginUserCache noCache = new LoginUserCache(redisTemplate, objectMapper, 1000, 30, 1800) {
+            @Override
+            public LoginUserDetails get(Long userId, Function<Long, LoginUserDetails> loader) {
+                return loader.apply(userId);
+            }
+        };
+        cachedFilter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, cache);
+        uncachedFilter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, noCache);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Object uncachedLoadUserById() throws Exception {
+        return authenticate(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object cachedPrincipal() throws Exception {
+        return authenticate(cachedFilter);
+    }
+
+    private Object authenticate(JwtAuthenticationFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/sample/page");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NOOP_CHAIN);
+            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            if (!(principal instanceof LoginUserDetails)) {
+                throw new IllegalStateException("认证失败");
+            }
+            return principal;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void compareFilterOverhead() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(LoginUserCacheBenchmarkTest.class.getName() + "\\.")
+                .build()).run();
+
+        Map<String, Double> scores = results.stream().collect(Collectors.toMap(
+                result -> result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                result -> result.getPrimaryResult().getScore()));
+        System.out.printf("认证过滤器（us/请求）: 每次查库 %.1f, 缓存命中 %.1f, 提升 %.0fx%n",
+                scores.get("uncachedLoadUserById"), scores.get("cachedPrincipal"),
+                scores.get("uncachedLoadUserById") / scores.get("cachedPrincipal"));
+
+        assertThat(scores.get("cachedPrincipal")).isLessThan(scores.get("uncachedLoadUserById"));
+    }
+}
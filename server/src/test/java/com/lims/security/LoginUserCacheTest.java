@@ -0,0 +1,154 @@
+package com.lims.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 登录用户缓存：两级命中、按用户失效、角色版本失效，以及加载与失效并发时不回写旧数据
+ */
+class LoginUserCacheTest {
+
+    private static final Long USER_ID = 1L;
+
+    /**
+     * 模拟 Redis 的键值
+     */
+    private final Map<String, String> redis = new HashMap<>();
+
+    private StringRedisTemplate redisTemplate;
+    private LoginUserCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+        when(ops.get(anyString())).thenAnswer(inv -> redis.get(inv.<String>getArgument(0)));
+        when(ops.increment(anyString())).thenAnswer(inv -> {
+            String key = inv.getArgument(0);
+            long value = Long.parseLong(redis.getOrDefault(key, "0")) + 1;
+            redis.put(key, String.valueOf(value));
+            return value;
+        });
+        when(redisTemplate.delete(anyString())).thenAnswer(inv -> redis.remove(inv.<String>getArgument(0)) != null);
+        when(redisTemplate.expire(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        // SET_IF_GENERATION: KEYS = [principal, generation], ARGV = [expected generation, json, ttl]
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(inv -> {
+            List<String> keys = inv.getArgument(1);
+            Object[] argv = Arrays.copyOfRange(inv.getArguments(), 2, inv.getArguments().length);
+            if (!redis.getOrDefault(keys.get(1), "0").equals(argv[0])) {
+                return 0L;
+            }
+            redis.put(keys.get(0), (String) argv[1]);
+            return 1L;
+        });
+
+        cache = newCache();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void loadsOnceThenServesFromCacheWithoutPassword() {
+        LoginUserDetails first = cache.get(USER_ID, loader("tester"));
+        LoginUserDetails second = cache.get(USER_ID, loader("tester"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(first.getPassword()).isNull();
+        assertThat(second.getRoleCodes()).containsExactly("tester");
+    }
+
+    @Test
+    void otherNodeReadsFromRedis() {
+        cache.get(USER_ID, loader("tester"));
+
+        LoginUserDetails remote = newCache().get(USER_ID, loader("other"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(remote.getRoleCodes()).containsExactly("tester");
+    }
+
+    @Test
+    void evictForcesReload() {
+        cache.get(USER_ID, loader("tester"));
+        cache.evict(USER_ID);
+
+        LoginUserDetails reloaded = cache.get(USER_ID, loader("admin"));
+
+        assertThat(loads).hasValue(2);
+        assertThat(reloaded.getRoleCodes()).containsExactly("admin");
+    }
+
+    @Test
+    void evictDuringLoadDoesNotWriteStalePrincipalBack() {
+        // 加载已读到旧角色，此时管理员修改了角色并失效缓存
+        LoginUserDetails stale = cache.get(USER_ID, id -> {
+            LoginUserDetails user = loader("tester").apply(id);
+            cache.evict(USER_ID);
+            return user;
+        });
+
+        assertThat(stale.getRoleCodes()).containsExactly("tester");
+        assertThat(redis).doesNotContainKey("lims:auth:principal:" + USER_ID);
+        assertThat(cache.get(USER_ID, loader("admin")).getRoleCodes()).containsExactly("admin");
+        assertThat(newCache().get(USER_ID, loader("admin")).getRoleCodes()).containsExactly("admin");
+    }
+
+    @Test
+    void evictAllInvalidatesEveryUser() {
+        cache.get(USER_ID, loader("tester"));
+        cache.get(2L, loader("tester"));
+
+        cache.evictAll();
+        cache.get(USER_ID, loader("tester"));
+        cache.get(2L, loader("tester"));
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        assertThat(cache.get(USER_ID, id -> null)).isNull();
+        cache.get(USER_ID, loader("tester"));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    private LoginUserCache newCache() {
+        return new LoginUserCache(redisTemplate, new ObjectMapper().findAndRegisterModules(), 100, 30, 1800);
+    }
+
+    private Function<Long, LoginUserDetails> loader(String roleCode) {
+        return id -> {
+            loads.incrementAndGet();
+            LoginUserDetails user = new LoginUserDetails();
+            user.setUserId(id);
+            user.setUsername("user" + id);
+            user.setPassword("secret");
+            user.setRoleCodes(Set.of(roleCode));
+            return user;
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.lims.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 公开接口限流：只有受信任代理转发的 X-Real-IP 才作为客户端地址
+ */
+class PublicRateLimiterTest {
+
+    private final PublicRateLimiter limiter = new PublicRateLimiter(mock(StringRedisTemplate.class),
+            3, 0.001, 100, false, new String[]{"127.0.0.1", "172.28.0.0/24"});
+
+    @Test
+    void realIpFromTrustedProxyIsUsed() {
+        assertThat(limiter.resolveClientIp(request("127.0.0.1", "203.0.113.7"))).isEqualTo("203.0.113.7");
+        assertThat(limiter.resolveClientIp(request("172.28.0.10", " 203.0.113.8 "))).isEqualTo("203.0.113.8");
+    }
+
+    @Test
+    void realIpFromDirectClientIsIgnored() {
+        assertThat(limiter.resolveClientIp(request("198.51.100.20", "203.0.113.7"))).isEqualTo("198.51.100.20");
+        assertThat(limiter.resolveClientIp(request("172.28.1.10", "203.0.113.7"))).isEqualTo("172.28.1.10");
+    }
+
+    @Test
+    void trustedProxyWithoutRealIpUsesRemoteAddress() {
+        assertThat(limiter.resolveClientIp(request("127.0.0.1", null))).isEqualTo("127.0.0.1");
+    }
+
+    @Test
+    void rotatingSpoofedRealIpDoesNotEscapeTheLimit() {
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limiter.tryAcquire(request("198.51.100.20", "10.0.0." + i))) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isEqualTo(3);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String realIp) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (realIp != null) {
+            request.addHeader("X-Real-IP", realIp);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,143 @@
+package com.lims.service.impl;
+
+import com.lims.mapper.FileReferenceMapper;
+import com.lims.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 孤立文件清理：引用路径提取、只清理系统生成的文件夹、按批删除与删除失败计数
+ */
+class FileOrphanSweepServiceImplTest {
+
+    private FileStorageService fileStorageService;
+    private FileReferenceMapper fileReferenceMapper;
+    private FileOrphanSweepServiceImpl service;
+
+    /**
+     * listObjects 返回的存储对象
+     */
+    private final List<String> objects = new ArrayList<>();
+
+    /**
+     * 每次 deleteBatch 收到的路径（复制，调用方会复用列表）
+     */
+    private final List<List<String>> deleted = new ArrayList<>();
+
+    private Map<String, String> deleteFailures = Map.of();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        fileStorageService = mock(FileStorageService.class);
+        fileReferenceMapper = mock(FileReferenceMapper.class);
+        doAnswer(inv -> {
+            String prefix = inv.getArgument(0);
+            Consumer<String> consumer = inv.getArgument(2);
+            objects.stream().filter(path -> path.startsWith(prefix)).forEach(consumer);
+            return null;
+        }).when(fileStorageService).listObjects(anyString(), any(ZonedDateTime.class), any(Consumer.class));
+        when(fileStorageService.deleteBatch(anyList())).thenAnswer(inv -> {
+            deleted.add(List.copyOf(inv.<List<String>>getArgument(0)));
+            return deleteFailures;
+        });
+
+        service = new FileOrphanSweepServiceImpl(fileStorageService, fileReferenceMapper);
+        ReflectionTestUtils.setField(service, "minAgeHours", 24L);
+    }
+
+    @Test
+    void extractsPathsFromSingleJoinedJsonAndUrlValues() {
+        Set<String> paths = new HashSet<>();
+
+        FileOrphanSweepServiceImpl.extractPaths("qrcodes/2024/01/02/a.png", "qrcodes/", paths);
+        FileOrphanSweepServiceImpl.extractPaths("qrcodes/x/b.png,qrcodes/x/c.png; qrcodes/x/d.png", "qrcodes/", paths);
+        FileOrphanSweepServiceImpl.extractPaths("[\"qrcodes/x/e.png\",'qrcodes/x/f.png']", "qrcodes/", paths);
+        FileOrphanSweepServiceImpl.extractPaths(
+                "http://minio:9000/lims/qrcodes/x/g.png?X-Amz-Signature=abc", "qrcodes/", paths);
+        FileOrphanSweepServiceImpl.extractPaths("reports/x/r.pdf", "qrcodes/", paths);
+
+        assertThat(paths).containsExactlyInAnyOrder("qrcodes/2024/01/02/a.png", "qrcodes/x/b.png",
+                "qrcodes/x/c.png", "qrcodes/x/d.png", "qrcodes/x/e.png", "qrcodes/x/f.png", "qrcodes/x/g.png");
+    }
+
+    @Test
+    void deletesOnlyUnreferencedQrCodes() {
+        when(fileReferenceMapper.selectReferences("biz_test_report", "qr_code_url"))
+                .thenReturn(List.of("qrcodes/x/kept.png", "http://minio:9000/lims/qrcodes/x/url.png?sig=1"));
+        objects.addAll(List.of("qrcodes/x/kept.png", "qrcodes/x/url.png", "qrcodes/x/orphan.png"));
+
+        assertThat(service.sweep()).isEqualTo(1);
+
+        assertThat(deleted).containsExactly(List.of("qrcodes/x/orphan.png"));
+    }
+
+    @Test
+    void uploadFoldersAreNotSwept() {
+        // reports/、samples/ 可经通用上传接口写入，引用列无法完整列举
+        when(fileReferenceMapper.selectReferences(anyString(), anyString())).thenReturn(List.of());
+        objects.addAll(List.of("reports/x/a.pdf", "samples/x/b.jpg", "common/x/c.txt"));
+
+        assertThat(service.sweep()).isZero();
+
+        verify(fileStorageService).listObjects(eq("qrcodes/"), any(ZonedDateTime.class), any());
+        verify(fileStorageService, never()).listObjects(eq("reports/"), any(ZonedDateTime.class), any());
+        verify(fileStorageService, never()).listObjects(eq("samples/"), any(ZonedDateTime.class), any());
+        assertThat(deleted).isEmpty();
+    }
+
+    @Test
+    void orphansAreDeletedInBatchesOfOneThousand() {
+        when(fileReferenceMapper.selectReferences(anyString(), anyString())).thenReturn(List.of());
+        IntStream.range(0, 2_500).forEach(i -> objects.add("qrcodes/x/" + i + ".png"));
+
+        assertThat(service.sweep()).isEqualTo(2_500);
+
+        assertThat(deleted).extracting(List::size).containsExactly(1000, 1000, 500);
+        assertThat(deleted.get(2)).startsWith("qrcodes/x/2000.png");
+    }
+
+    @Test
+    void failedDeletesAreNotCounted() {
+        when(fileReferenceMapper.selectReferences(anyString(), anyString())).thenReturn(List.of());
+        objects.addAll(List.of("qrcodes/x/a.png", "qrcodes/x/b.png"));
+        deleteFailures = Map.of("qrcodes/x/b.png", "AccessDenied: denied");
+
+        assertThat(service.sweep()).isEqualTo(1);
+    }
+
+    @Test
+    void referenceQueryFailureDeletesNothing() {
+        when(fileReferenceMapper.selectReferences(anyString(), anyString()))
+                .thenThrow(new IllegalStateException("数据库不可用"));
+        objects.add("qrcodes/x/a.png");
+
+        assertThatThrownBy(() -> service.sweep()).isInstanceOf(IllegalStateException.class);
+
+        verify(fileStorageService, never()).deleteBatch(anyList());
+        // 异常后释放运行标记，下次可以再次执行
+        assertThat(ReflectionTestUtils.getField(service, "running")).hasToString("false");
+    }
+}
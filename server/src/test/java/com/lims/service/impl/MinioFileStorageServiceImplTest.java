@@ -0,0 +1,133 @@
+package com.lims.service.impl;
+
+import com.lims.config.MinioConfig;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量删除：按 1000 个对象分块请求、逐对象错误与整块请求失败的结果
+ * MinioClient 以模拟对象代替，removeObjects 按测试设定返回逐对象结果
+ */
+class MinioFileStorageServiceImplTest {
+
+    private MinioClient minioClient;
+    private MinioFileStorageServiceImpl service;
+
+    /**
+     * 每次 removeObjects 请求的对象名
+     */
+    private final List<List<String>> requests = new ArrayList<>();
+
+    /**
+     * 按请求的对象名生成该次请求的删除结果
+     */
+    private Function<List<String>, List<Result<DeleteError>>> results = names -> List.of();
+
+    @BeforeEach
+    void setUp() {
+        minioClient = mock(MinioClient.class);
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenAnswer(inv -> {
+            List<String> names = new ArrayList<>();
+            for (DeleteObject object : inv.<RemoveObjectsArgs>getArgument(0).objects()) {
+                names.add((String) ReflectionTestUtils.getField(object, "name"));
+            }
+            requests.add(names);
+            return results.apply(names);
+        });
+
+        MinioConfig minioConfig = new MinioConfig();
+        minioConfig.setBucketName("lims");
+        service = new MinioFileStorageServiceImpl(minioClient, minioConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void largeBatchIsSplitIntoRequestsOfAtMostOneThousandObjects() {
+        List<String> paths = IntStream.range(0, 2_500).mapToObj(i -> "qrcodes/x/" + i + ".png").toList();
+
+        Map<String, String> failed = service.deleteBatch(paths);
+
+        assertThat(failed).isEmpty();
+        assertThat(requests).extracting(List::size).containsExactly(1000, 1000, 500);
+        assertThat(requests.stream().flatMap(List::stream).toList()).isEqualTo(paths);
+    }
+
+    @Test
+    void perObjectErrorsAreReportedByPath() {
+        results = names -> names.contains("qrcodes/x/b.png")
+                ? List.of(new Result<>(deleteError("qrcodes/x/b.png", "AccessDenied", "Access Denied.")))
+                : List.of();
+
+        Map<String, String> failed = service.deleteBatch(List.of("qrcodes/x/a.png", "qrcodes/x/b.png"));
+
+        assertThat(failed).containsExactly(Map.entry("qrcodes/x/b.png", "AccessDenied: Access Denied."));
+    }
+
+    @Test
+    void failedRequestMarksOnlyItsChunkAsFailed() {
+        List<String> paths = IntStream.range(0, 1_500).mapToObj(i -> "qrcodes/x/" + i + ".png").toList();
+        Set<String> firstChunk = Set.copyOf(paths.subList(0, 1000));
+        // 第一块请求失败（例如连接中断），第二块正常
+        results = names -> names.size() == 1000
+                ? List.of(new Result<>(new IOException("connection reset")))
+                : List.of();
+
+        Map<String, String> failed = service.deleteBatch(paths);
+
+        assertThat(requests).hasSize(2);
+        assertThat(failed).hasSize(1000);
+        assertThat(failed.keySet()).isEqualTo(firstChunk);
+        assertThat(failed.values()).containsOnly("connection reset");
+    }
+
+    @Test
+    void objectErrorBeforeRequestFailureKeepsItsOwnMessage() {
+        results = names -> List.of(
+                new Result<>(deleteError("qrcodes/x/a.png", "NoSuchKey", "missing")),
+                new Result<>(new IOException("connection reset")));
+
+        Map<String, String> failed = service.deleteBatch(List.of("qrcodes/x/a.png", "qrcodes/x/b.png"));
+
+        assertThat(failed).containsExactly(
+                Map.entry("qrcodes/x/a.png", "NoSuchKey: missing"),
+                Map.entry("qrcodes/x/b.png", "connection reset"));
+    }
+
+    @Test
+    void emptyBatchSendsNoRequest() {
+        assertThat(service.deleteBatch(List.of())).isEmpty();
+        assertThat(requests).isEmpty();
+    }
+
+    private static DeleteError deleteError(String objectName, String code, String message) {
+        DeleteError error = new DeleteError();
+        ReflectionTestUtils.setField(error, "objectName", objectName);
+        ReflectionTestUtils.setField(error, "code", code);
+        ReflectionTestUtils.setField(error, "message", message);
+        return error;
+    }
+}
@@ -0,0 +1,159 @@
+package com.lims.service.impl;
+
+import com.lims.config.MinioConfig;
+import com.lims.service.FileStorageService;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 上传吞吐基准：本地 MinIO 容器
+ * 默认构建不运行，使用 mvn test -Pbenchmark 执行（需要 Docker），结果输出到标准输出。
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class MinioUploadBenchmarkTest {
+
+    private static final int MB = 1024 * 1024;
+
+    private static final int WARMUP_ROUNDS = 1;
+    private static final int MEASURE_ROUNDS = 3;
+
+    /**
+     * 调整前的固定分片大小
+     */
+    private static final long FIXED_PART_SIZE = 10L * MB;
+
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2023-09-04T19-57-37Z");
+
+    private static MinioClient minioClient;
+    private static MinioConfig minioConfig;
+    private static MinioFileStorageServiceImpl storage;
+
+    @BeforeAll
+    static void startStorage() {
+        minioConfig = new MinioConfig();
+        minioConfig.setEndpoint(MINIO.getS3URL());
+        minioConfig.setAccessKey(MINIO.getUserName());
+        minioConfig.setSecretKey(MINIO.getPassword());
+        minioConfig.setBucketName("lims-benchmark");
+        minioConfig.setUploadConcurrency(4);
+        minioClient = minioConfig.minioClient();
+        storage = new MinioFileStorageServiceImpl(minioClient, minioConfig);
+        storage.init();
+    }
+
+    @Test
+    void largeFilePartSize() throws Exception {
+        byte[] data = randomBytes(256 * MB);
+
+        double fixed = measure("单文件 256MB / 固定 10MB 分片", data.length, () -> {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object("bench/fixed.bin")
+                    .stream(new ByteArrayInputStream(data), data.length, FIXED_PART_SIZE)
+                    .build());
+            return null;
+        });
+        double adaptive = measure("单文件 256MB / 按大小调整分片", data.length, () ->
+                storage.upload(new ByteArrayInputStream(data), data.length, "bench", "adaptive.bin",
+                        "application/octet-stream"));
+
+        report("分片大小", fixed, adaptive);
+        assertThat(storage.stat("bench/adaptive.bin").getSize()).isEqualTo(data.length);
+    }
+
+    @Test
+    void batchUpload() throws Exception {
+        MultipartFile[] files = new MultipartFile[16];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = new MockMultipartFile("files", "data-" + i + ".bin", "application/octet-stream",
+                    randomBytes(8 * MB));
+        }
+        long totalBytes = 16L * 8 * MB;
+
+        double sequential = measure("批量 16 x 8MB / 逐个上传", totalBytes, () -> {
+            for (MultipartFile file : files) {
+                storage.upload(file, "bench");
+            }
+            return null;
+        });
+        double concurrent = measure("批量 16 x 8MB / 并发上传", totalBytes, () -> storage.uploadBatch(files, "bench"));
+
+        report("批量上传", sequential, concurrent);
+        List<String> paths = storage.uploadBatch(files, "bench");
+        assertThat(paths).hasSize(files.length).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void presignedDirectUpload() throws Exception {
+        byte[] data = randomBytes(64 * MB);
+        HttpClient http = HttpClient.newHttpClient();
+        String[] lastPath = new String[1];
+
+        double proxied = measure("单文件 64MB / 经应用上传", data.length, () ->
+                storage.upload(new ByteArrayInputStream(data), data.length, "bench", "proxied.bin",
+                        "application/octet-stream"));
+        double direct = measure("单文件 64MB / 预签名直传", data.length, () -> {
+            String[] presigned = storage.getPresignedUploadUrl("bench", "direct.bin", 600);
+            HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(presigned[1]))
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(data))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            assertThat(response.statusCode()).isEqualTo(200);
+            lastPath[0] = presigned[0];
+            return null;
+        });
+
+        report("预签名直传", proxied, direct);
+        FileStorageService.FileStat stat = storage.stat(lastPath[0]);
+        assertThat(stat.getSize()).isEqualTo(data.length);
+    }
+
+    /**
+     * 预热后多轮计时，返回平均吞吐（MB/s）
+     */
+    private static double measure(String name, long bytes, Callable<?> action) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            action.call();
+        }
+        long elapsed = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            action.call();
+            elapsed += System.nanoTime() - start;
+        }
+        double seconds = elapsed / 1e9 / MEASURE_ROUNDS;
+        double throughput = bytes / (double) MB / seconds;
+        System.out.printf("%-32s %8.1f ms  %8.1f MB/s%n", name, seconds * 1000, throughput);
+        return throughput;
+    }
+
+    private static void report(String name, double before, double after) {
+        System.out.printf("%-32s 提升 %.2fx%n", name, after / before);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,183 @@
+package com.lims.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.lims.entity.TestReport;
+import com.lims.event.StatusChangeEvent;
+import com.lims.mapper.TestReportMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 公开报告查询：布隆过滤器对 90% 不存在编号的工作负载减少的数据库查询
+ */
+class PublicReportServiceImplTest {
+
+    private static final int ISSUED_REPORTS = 20_000;
+    private static final int LOOKUPS = 50_000;
+    private static final double MISS_RATIO = 0.9;
+    private static final double FPP = 0.01;
+
+    /**
+     * 与生产默认值一致（public-api.report-cache.size）
+     */
+    private static final int CACHE_SIZE = 10_000;
+
+    private TestReportMapper reportMapper;
+    private List<String> issued;
+    private Map<String, Long> issuedIds;
+    private final AtomicLong selectOneCalls = new AtomicLong();
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), TestReport.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        issued = new ArrayList<>(ISSUED_REPORTS);
+        issuedIds = new HashMap<>();
+        for (int i = 0; i < ISSUED_REPORTS; i++) {
+            issue(String.format("BG2026%06d", i));
+        }
+
+        // 只计数不记录调用，避免十万次调用记录拖慢测试
+        reportMapper = mock(TestReportMapper.class, withSettings().stubOnly());
+        when(reportMapper.selectObjs(any())).thenReturn(new ArrayList<>(issued));
+        when(reportMapper.selectOne(any())).thenAnswer(inv -> {
+            selectOneCalls.incrementAndGet();
+            String reportNo = reportNoOf(inv.getArgument(0));
+            Long id = issuedIds.get(reportNo);
+            if (id == null) {
+                return null;
+            }
+            TestReport report = new TestReport();
+            report.setId(id);
+            report.setReportNo(reportNo);
+            report.setStatus("issued");
+            report.setVerificationCode("code-" + reportNo);
+            return report;
+        });
+    }
+
+    @Test
+    void bloomFilterRemovesMostQueriesForMissingReportNos() {
+        List<String> workload = workload();
+
+        ReportNoFilterServiceImpl unbuilt = filter();
+        long withoutFilter = run(new PublicReportServiceImpl(reportMapper, unbuilt, CACHE_SIZE, 120, 30), workload);
+
+        ReportNoFilterServiceImpl filter = filter();
+        filter.init();
+        long withFilter = run(new PublicReportServiceImpl(reportMapper, filter, CACHE_SIZE, 120, 30), workload);
+
+        long misses = Math.round(LOOKUPS * MISS_RATIO);
+        System.out.printf("查询 %d 次（%d%% 不存在）: 无过滤器 %d 次查库, 有过滤器 %d 次查库, 减少 %.1f%%%n",
+                LOOKUPS, Math.round(MISS_RATIO * 100), withoutFilter, withFilter,
+                (1 - (double) withFilter / withoutFilter) * 100);
+
+        // 伪造编号各不相同，无过滤器时每个都查库
+        assertThat(withoutFilter).isGreaterThanOrEqualTo(misses);
+        // 有过滤器时不存在的编号只有误判的部分查库，存在的编号每个最多查一次（之后走缓存）
+        assertThat(withFilter).isLessThan(Math.round(misses * FPP * 2) + ISSUED_REPORTS);
+        assertThat(withFilter).isLessThan(withoutFilter / 4);
+    }
+
+    @Test
+    void issuedReportsAreNeverRejected() {
+        ReportNoFilterServiceImpl filter = filter();
+        filter.init();
+        PublicReportServiceImpl service = new PublicReportServiceImpl(reportMapper, filter, CACHE_SIZE, 120, 30);
+
+        for (String reportNo : issued.subList(0, 1000)) {
+            assertThat(service.getReport(reportNo)).isNotNull();
+            assertThat(service.checkVerificationCode(reportNo, "code-" + reportNo)).isTrue();
+        }
+
+        // 启动后新发布的编号立即可查
+        issue("BG2026999999");
+        filter.add("BG2026999999");
+        assertThat(service.getReport("BG2026999999")).isNotNull();
+    }
+
+    @Test
+    void statusChangeEvictsOnlyThatReport() {
+        ReportNoFilterServiceImpl filter = filter();
+        filter.init();
+        PublicReportServiceImpl service = new PublicReportServiceImpl(reportMapper, filter, CACHE_SIZE, 120, 30);
+        String changed = issued.get(1);
+        String unchanged = issued.get(2);
+        service.getReport(changed);
+        service.getReport(unchanged);
+
+        long before = selectOneCalls.get();
+        service.onStatusChange(new StatusChangeEvent(this, StatusChangeEvent.EntityType.REPORT,
+                issuedIds.get(changed), "issued", "approved"));
+        service.getReport(changed);
+        service.getReport(unchanged);
+
+        assertThat(selectOneCalls.get() - before).isEqualTo(1);
+    }
+
+    private void issue(String reportNo) {
+        issuedIds.put(reportNo, (long) issued.size());
+        issued.add(reportNo);
+    }
+
+    /**
+     * 90% 为各不相同的伪造编号，10% 为已发布编号
+     */
+    private List<String> workload() {
+        Random random = new Random(42);
+        List<String> workload = new ArrayList<>(LOOKUPS);
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (random.nextDouble() < MISS_RATIO) {
+                workload.add("FAKE" + Long.toHexString(random.nextLong()));
+            } else {
+                workload.add(issued.get(random.nextInt(issued.size())));
+            }
+        }
+        return workload;
+    }
+
+    /**
+     * 执行工作负载，返回期间的查库次数
+     */
+    private long run(PublicReportServiceImpl service, List<String> workload) {
+        long before = selectOneCalls.get();
+        for (String reportNo : workload) {
+            service.getReport(reportNo);
+        }
+        return selectOneCalls.get() - before;
+    }
+
+    private ReportNoFilterServiceImpl filter() {
+        return new ReportNoFilterServiceImpl(reportMapper, mock(StringRedisTemplate.class), ISSUED_REPORTS, FPP, false);
+    }
+
+    /**
+     * 取出查询条件中的报告编号参数
+     */
+    private static String reportNoOf(AbstractWrapper<?, ?, ?> wrapper) {
+        // 条件参数在生成 SQL 片段时才写入
+        wrapper.getSqlSegment();
+        return wrapper.getParamNameValuePairs().values().iterator().next().toString();
+    }
+}
@@ -0,0 +1,148 @@
+package com.lims.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.lims.dto.BatchOperationResult;
+import com.lims.entity.TestReport;
+import com.lims.mapper.TestReportMapper;
+import com.lims.service.FileStorageService;
+import com.lims.service.PublicReportService;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量生成报告二维码：已有验证码的跳过、按更新行数核对结果
+ */
+class QrCodeServiceImplTest {
+
+    private TestReportMapper reportMapper;
+    private FileStorageService fileStorageService;
+    private PublicReportService publicReportService;
+    private QrCodeServiceImpl service;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), TestReport.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        reportMapper = mock(TestReportMapper.class);
+        fileStorageService = mock(FileStorageService.class);
+        publicReportService = mock(PublicReportService.class);
+        when(fileStorageService.upload(any(InputStream.class), anyLong(), eq("qrcodes"), anyString(), eq("image/png")))
+                .thenAnswer(inv -> "qrcodes/" + inv.getArgument(3));
+        service = new QrCodeServiceImpl(fileStorageService, reportMapper, publicReportService, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void reportsWithVerificationCodeAreSkippedByDefault() {
+        when(reportMapper.selectList(any())).thenReturn(List.of(
+                report(1L, "R001", "issued-code"),
+                report(2L, "R002", null),
+                report(3L, "R003", "")));
+        when(reportMapper.updateQrCodes(anyList(), anyBoolean())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size());
+
+        BatchOperationResult result = service.generateReportQrCodes(new Long[]{1L, 2L, 3L, 4L}, false);
+
+        assertThat(result.getTotal()).isEqualTo(4);
+        assertThat(result.getSucceeded()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(result.getSkipped()).containsExactly(1L);
+        assertThat(result.getFailed()).containsOnlyKeys(4L).containsEntry(4L, BatchOperationResult.NOT_FOUND);
+        assertThat(updatedIds(false)).containsExactlyInAnyOrder(2L, 3L);
+        verify(publicReportService, never()).evict("R001");
+    }
+
+    @Test
+    void regenerateReplacesExistingCodes() {
+        when(reportMapper.selectList(any())).thenReturn(List.of(
+                report(1L, "R001", "issued-code"),
+                report(2L, "R002", null)));
+        when(reportMapper.updateQrCodes(anyList(), anyBoolean())).thenReturn(2);
+
+        BatchOperationResult result = service.generateReportQrCodes(new Long[]{1L, 2L}, true);
+
+        assertThat(result.getSucceeded()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(result.getSkipped()).isEmpty();
+        assertThat(updatedIds(true)).containsExactlyInAnyOrder(1L, 2L);
+        verify(publicReportService).evict("R001");
+    }
+
+    @Test
+    void rowsNotUpdatedAreNotReportedAsSucceeded() {
+        // 首次查询时三条都没有验证码；更新前 2 被删除，3 被其他请求生成了验证码
+        when(reportMapper.selectList(any()))
+                .thenReturn(List.of(report(1L, "R001", null), report(2L, "R002", null), report(3L, "R003", null)))
+                .thenAnswer(inv -> List.of(
+                        report(1L, null, writtenCode(1L)),
+                        report(3L, null, "other-request-code")));
+        when(reportMapper.updateQrCodes(anyList(), anyBoolean())).thenReturn(1);
+
+        BatchOperationResult result = service.generateReportQrCodes(new Long[]{1L, 2L, 3L}, false);
+
+        assertThat(result.getSucceeded()).containsExactly(1L);
+        assertThat(result.getFailed()).containsOnlyKeys(2L).containsEntry(2L, BatchOperationResult.NOT_FOUND);
+        assertThat(result.getSkipped()).containsExactly(3L);
+        verify(publicReportService).evict("R001");
+        verify(publicReportService, never()).evict("R002");
+
+        // 未写入的二维码图片随即删除
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(fileStorageService).deleteBatch(deleted.capture());
+        assertThat(deleted.getValue()).hasSize(2).allMatch(path -> !path.contains("R001"));
+    }
+
+    private List<Long> updatedIds(boolean overwrite) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TestReport>> captor = ArgumentCaptor.forClass(List.class);
+        verify(reportMapper).updateQrCodes(captor.capture(), eq(overwrite));
+        return captor.getValue().stream().map(TestReport::getId).toList();
+    }
+
+    /**
+     * 本次为该报告生成并提交更新的验证码
+     */
+    private String writtenCode(Long id) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TestReport>> captor = ArgumentCaptor.forClass(List.class);
+        verify(reportMapper).updateQrCodes(captor.capture(), anyBoolean());
+        return captor.getValue().stream()
+                .filter(report -> report.getId().equals(id))
+                .findFirst()
+                .orElseThrow()
+                .getVerificationCode();
+    }
+
+    private static TestReport report(Long id, String reportNo, String verificationCode) {
+        TestReport report = new TestReport();
+        report.setId(id);
+        report.setReportNo(reportNo);
+        report.setVerificationCode(verificationCode);
+        return report;
+    }
+}
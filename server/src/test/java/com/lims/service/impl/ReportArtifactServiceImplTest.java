@@ -0,0 +1,114 @@
+package com.lims.service.impl;
+
+import com.lims.exception.BusinessException;
+import com.lims.mapper.ElnTemplateMapper;
+import com.lims.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 报告产物缓存：交付文件不受缓存淘汰影响，不完整的 PDF 不进入缓存
+ */
+class ReportArtifactServiceImplTest {
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef";
+    private static final String PDF = "%PDF-1.7\nbody\n%%EOF\n";
+
+    @TempDir
+    Path outputDir;
+
+    private FileStorageService fileStorageService;
+    private ReportArtifactServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = mock(FileStorageService.class);
+        service = new ReportArtifactServiceImpl(mock(ElnTemplateMapper.class), fileStorageService);
+        ReflectionTestUtils.setField(service, "outputDir", outputDir.toString());
+        ReflectionTestUtils.setField(service, "maxLocalSizeMb", 0L);
+        ReflectionTestUtils.setField(service, "orphanTtlHours", 24L);
+    }
+
+    @Test
+    void handedOutFileSurvivesCacheEviction() throws IOException {
+        String path = service.put(KEY, render(PDF).toString());
+        assertThat(path).isNotEqualTo(outputDir.resolve("cache/" + KEY + ".pdf").toString());
+
+        // 容量为 0，缓存文件全部淘汰
+        service.cleanup();
+
+        assertThat(outputDir.resolve("cache/" + KEY + ".pdf")).doesNotExist();
+        assertThat(Files.readString(Path.of(path))).isEqualTo(PDF);
+        verify(fileStorageService).putObject(eq("report-artifacts/" + KEY + ".pdf"), any(InputStream.class),
+                anyLong(), eq("application/pdf"));
+    }
+
+    @Test
+    void eachLocalHitGetsItsOwnFile() throws IOException {
+        service.put(KEY, render(PDF).toString());
+
+        String first = service.get(KEY);
+        String second = service.get(KEY);
+
+        assertThat(first).isNotEqualTo(second);
+        Files.delete(Path.of(first));
+        assertThat(Files.readString(Path.of(second))).isEqualTo(PDF);
+    }
+
+    @Test
+    void incompletePdfIsNotCached() throws IOException {
+        Path truncated = render("%PDF-1.7\nhalf");
+
+        assertThatThrownBy(() -> service.put(KEY, truncated.toString())).isInstanceOf(BusinessException.class);
+
+        assertThat(truncated).doesNotExist();
+        assertThat(outputDir.resolve("cache/" + KEY + ".pdf")).doesNotExist();
+        verify(fileStorageService, never()).putObject(anyString(), any(InputStream.class), anyLong(), anyString());
+    }
+
+    @Test
+    void incompleteRemoteCopyIsTreatedAsMiss() {
+        when(fileStorageService.exists("report-artifacts/" + KEY + ".pdf")).thenReturn(true);
+        when(fileStorageService.download("report-artifacts/" + KEY + ".pdf"))
+                .thenReturn(new ByteArrayInputStream("%PDF-1.7\nhalf".getBytes(StandardCharsets.US_ASCII)));
+
+        assertThat(service.get(KEY)).isNull();
+        assertThat(outputDir.resolve("cache/" + KEY + ".pdf")).doesNotExist();
+    }
+
+    @Test
+    void completeRemoteCopyIsRestored() throws IOException {
+        when(fileStorageService.exists("report-artifacts/" + KEY + ".pdf")).thenReturn(true);
+        when(fileStorageService.download("report-artifacts/" + KEY + ".pdf"))
+                .thenReturn(new ByteArrayInputStream(PDF.getBytes(StandardCharsets.US_ASCII)));
+
+        String path = service.get(KEY);
+
+        assertThat(Files.readString(Path.of(path))).isEqualTo(PDF);
+        assertThat(outputDir.resolve("cache/" + KEY + ".pdf")).exists();
+    }
+
+    private Path render(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(outputDir, "report_", ".pdf"), content, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,239 @@
+package com.lims.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lims.common.ResultCode;
+import com.lims.entity.TestReport;
+import com.lims.exception.BusinessException;
+import com.lims.mapper.TestReportMapper;
+import com.lims.service.ReportRenderJobService;
+import com.lims.util.LibreOfficeConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 报告导出：批量 Word 按请求顺序写入 ZIP、在途条目不超过窗口、分批查询；PDF 转换经报告生成线程池
+ */
+class ReportExportServiceImplTest {
+
+    /**
+     * 2 个生成线程，窗口为 4
+     */
+    private static final int WORKERS = 2;
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<Long, TestReport> reports = new HashMap<>();
+    private final List<Integer> fetchedChunkSizes = new ArrayList<>();
+
+    private TestReportMapper reportMapper;
+    private LibreOfficeConverter libreOfficeConverter;
+    private ReportRenderJobService reportRenderJobService;
+    private ReportExportServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        reportMapper = mock(TestReportMapper.class);
+        when(reportMapper.selectBatchIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            fetchedChunkSizes.add(ids.size());
+            // 数据库返回顺序与请求顺序无关
+            List<TestReport> found = new ArrayList<>(ids.stream().filter(reports::containsKey).map(reports::get).toList());
+            Collections.reverse(found);
+            return found;
+        });
+        when(reportMapper.selectById(any())).thenAnswer(inv -> reports.get(inv.<Long>getArgument(0)));
+        libreOfficeConverter = mock(LibreOfficeConverter.class);
+        reportRenderJobService = mock(ReportRenderJobService.class);
+
+        service = new ReportExportServiceImpl(reportMapper, libreOfficeConverter, reportRenderJobService,
+                new ObjectMapper(), WORKERS);
+        ReflectionTestUtils.setField(service, "outputDir", tempDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void entriesAreWrittenInRequestOrderAndMissingReportsSkipped() throws Exception {
+        report(1L, "R-001");
+        report(2L, "R-002");
+        report(3L, "R-001");
+        report(5L, null);
+
+        List<String> names = entryNames(export(3L, 4L, 1L, 5L, 2L, 1L, null));
+
+        // 重名追加报告ID，无编号时使用 report_ID，重复ID只导出一次
+        assertThat(names).containsExactly("R-001.docx", "R-001_1.docx", "report_5.docx", "R-002.docx");
+    }
+
+    @Test
+    void reportsAreFetchedInChunksOfOneHundred() throws Exception {
+        LongStream.rangeClosed(1, 250).forEach(id -> report(id, "R-" + id));
+
+        List<String> names = entryNames(export(LongStream.rangeClosed(1, 250).boxed().toArray(Long[]::new)));
+
+        assertThat(fetchedChunkSizes).containsExactly(100, 100, 50);
+        assertThat(names).hasSize(250).startsWith("R-1.docx", "R-2.docx").endsWith("R-250.docx");
+    }
+
+    @Test
+    void inFlightEntriesAreBoundedByWindow() throws Exception {
+        CountDownLatch firstBlocked = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        for (long id = 1; id <= 20; id++) {
+            long reportId = id;
+            TestReport report = new TestReport() {
+                @Override
+                public String getTestResults() {
+                    // 每个条目生成时调用一次；第一个条目阻塞，ZIP 无法写出
+                    started.incrementAndGet();
+                    if (reportId == 1) {
+                        try {
+                            firstBlocked.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return null;
+                }
+            };
+            report.setId(id);
+            report.setReportNo("R-" + id);
+            reports.put(id, report);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompletableFuture<Void> export = CompletableFuture.runAsync(() -> {
+            try {
+                service.batchExportToWord(LongStream.rangeClosed(1, 20).boxed().toArray(Long[]::new), out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (started.get() < WORKERS * 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // 第一个条目未写出前，最多提交窗口大小的条目
+        Thread.sleep(200);
+        assertThat(started.get()).isEqualTo(WORKERS * 2);
+
+        firstBlocked.countDown();
+        export.get(10, TimeUnit.SECONDS);
+        assertThat(started.get()).isEqualTo(20);
+        assertThat(entryNames(out.toByteArray())).first().isEqualTo("R-1.docx");
+        assertThat(entryNames(out.toByteArray())).hasSize(20).last().isEqualTo("R-20.docx");
+    }
+
+    @Test
+    void renderFailureAbortsExport() {
+        TestReport broken = new TestReport() {
+            @Override
+            public String getTestResults() {
+                throw new IllegalStateException("模板损坏");
+            }
+        };
+        broken.setId(2L);
+        report(1L, "R-001");
+        reports.put(2L, broken);
+
+        assertThatThrownBy(() -> service.batchExportToWord(new Long[]{1L, 2L}, new ByteArrayOutputStream()))
+                .isInstanceOf(IOException.class).hasMessageContaining("模板损坏");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pdfIsConvertedInRenderPool() throws Exception {
+        report(1L, "R-001");
+        Path pdf = Files.writeString(tempDir.resolve("converted.pdf"), "%PDF-1.7\n%%EOF");
+        when(libreOfficeConverter.convertToPdf(anyString(), anyString())).thenReturn(pdf.toString());
+        when(reportRenderJobService.execute(any(Callable.class))).thenAnswer(inv -> inv.<Callable<?>>getArgument(0).call());
+
+        byte[] content = service.exportToPdf(1L);
+
+        assertThat(new String(content)).startsWith("%PDF-");
+        verify(reportRenderJobService).execute(any(Callable.class));
+        // 中间 docx 与 PDF 已删除
+        assertThat(pdf).doesNotExist();
+        assertThat(tempDir.resolve("export").toFile().list()).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pdfExportIsRejectedWhenRenderQueueIsFull() throws Exception {
+        report(1L, "R-001");
+        when(reportRenderJobService.execute(any(Callable.class))).thenThrow(
+                new BusinessException(ResultCode.TOO_MANY_REQUESTS.getCode(), "报告生成队列已满，请稍后重试"));
+
+        assertThatThrownBy(() -> service.exportToPdf(1L))
+                .isInstanceOf(BusinessException.class)
+                .extracting("code").isEqualTo(ResultCode.TOO_MANY_REQUESTS.getCode());
+
+        verify(libreOfficeConverter, never()).convertToPdf(anyString(), anyString());
+        assertThat(tempDir.resolve("export").toFile().list()).isEmpty();
+    }
+
+    private void report(Long id, String reportNo) {
+        TestReport report = new TestReport();
+        report.setId(id);
+        report.setReportNo(reportNo);
+        reports.put(id, report);
+    }
+
+    private byte[] export(Long... ids) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.batchExportToWord(ids, out);
+        return out.toByteArray();
+    }
+
+    private static List<String> entryNames(byte[] zip) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                names.add(entry.getName());
+                assertThat(in.readAllBytes()).isNotEmpty();
+            }
+        }
+        assertThat(Set.copyOf(names)).hasSameSizeAs(names);
+        return names;
+    }
+}
@@ -0,0 +1,90 @@
+package com.lims.service.impl;
+
+import com.lims.common.ResultCode;
+import com.lims.exception.BusinessException;
+import com.lims.service.ReportGeneratorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 同步转换经有界线程池执行：返回结果、异常原样抛出、线程与队列占满时以 429 拒绝
+ */
+class ReportRenderJobServiceImplTest {
+
+    private ReportRenderJobServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        // 1 个线程 + 1 个排队位置
+        service = new ReportRenderJobServiceImpl(mock(ReportGeneratorService.class), 1, 1, 3600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void conversionRunsOnRenderThread() throws Exception {
+        String thread = service.execute(() -> Thread.currentThread().getName());
+
+        assertThat(thread).startsWith("report-render-");
+    }
+
+    @Test
+    void conversionFailuresArePropagated() {
+        assertThatThrownBy(() -> service.execute(() -> {
+            throw new IOException("LibreOffice 转换超时");
+        })).isInstanceOf(IOException.class).hasMessage("LibreOffice 转换超时");
+
+        assertThatThrownBy(() -> service.execute(() -> {
+            throw new BusinessException("报告不存在");
+        })).isInstanceOf(BusinessException.class).hasMessage("报告不存在");
+    }
+
+    @Test
+    void conversionIsRejectedWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> active = CompletableFuture.supplyAsync(() -> call(() -> {
+            running.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "active";
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> call(() -> "queued"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((int) service.getStats().get("queueDepth") < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThatThrownBy(() -> service.execute(() -> "rejected"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("报告生成队列已满，请稍后重试")
+                .extracting("code").isEqualTo(ResultCode.TOO_MANY_REQUESTS.getCode());
+        assertThat(service.getStats()).containsEntry("rejected", 1L);
+
+        release.countDown();
+        assertThat(active.get(5, TimeUnit.SECONDS)).isEqualTo("active");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    private String call(Callable<String> conversion) {
+        try {
+            return service.execute(conversion);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.lims.service.impl;
+
+import com.lims.entity.Sample;
+import com.lims.mapper.EntrustmentMapper;
+import com.lims.mapper.SampleMapper;
+import com.lims.service.SequenceService;
+import com.lims.support.BenchmarkDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量创建样品基准：MySQL 容器，逐条插入 / JDBC 批量 / JDBC 批量 + rewriteBatchedStatements
+ * 默认构建不运行，使用 mvn test -Pbenchmark 执行（需要 Docker），结果输出到标准输出。
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class SampleBatchCreateBenchmarkTest {
+
+    private static final int[] BATCH_SIZES = {10, 100, 1000};
+
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURE_ROUNDS = 5;
+
+    private static BenchmarkDatabase database;
+    private static DataSource rewritten;
+    private static DataSource plain;
+
+    /**
+     * 会话工厂按实体类注册，只能有一个；测量不同驱动参数时切换其背后的连接池
+     */
+    private static DelegatingDataSource dataSource;
+    private static SampleMapper sampleMapper;
+    private static TransactionTemplate transactionTemplate;
+    private static JdbcTemplate jdbcTemplate;
+    private static SampleServiceImpl service;
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        database = BenchmarkDatabase.start();
+        rewritten = database.dataSource(true);
+        plain = database.dataSource(false);
+        dataSource = new DelegatingDataSource(rewritten);
+        SqlSessionTemplate sqlSession = database.sqlSession(dataSource, SampleMapper.class, EntrustmentMapper.class);
+        sampleMapper = sqlSession.getMapper(SampleMapper.class);
+        transactionTemplate = database.transactionTemplate(dataSource);
+        jdbcTemplate = database.jdbcTemplate(dataSource);
+
+        SequenceService sequenceService = mock(SequenceService.class);
+        when(sequenceService.nextNo(any())).thenAnswer(inv -> nextSampleNo());
+        when(sequenceService.nextNos(any(), anyInt())).thenAnswer(inv ->
+                IntStream.range(0, inv.<Integer>getArgument(1)).mapToObj(i -> nextSampleNo()).toList());
+        service = new SampleServiceImpl(sqlSession.getMapper(EntrustmentMapper.class), event -> { },
+                sequenceService, null);
+        ReflectionTestUtils.setField(service, "baseMapper", sampleMapper);
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Test
+    void batchCreate() {
+        for (int size : BATCH_SIZES) {
+            dataSource.setTargetDataSource(rewritten);
+            double rowByRow = measure("逐条插入", size, () -> {
+                // 调整前：每个样品单独取号、单独 INSERT
+                for (Sample sample : samples(size)) {
+                    sample.setSampleNo(service.generateSampleNo());
+                    sample.setStatus("pending");
+                    sampleMapper.insert(sample);
+                }
+            });
+            dataSource.setTargetDataSource(plain);
+            double batched = measure("JDBC 批量", size, () -> service.batchCreate(1L, samples(size)));
+            dataSource.setTargetDataSource(rewritten);
+            double rewrittenBatch = measure("JDBC 批量 + rewriteBatchedStatements", size,
+                    () -> service.batchCreate(1L, samples(size)));
+
+            System.out.printf("%4d 个样品: 批量较逐条 %.1fx, 合并多值 INSERT 较逐条 %.1fx%n",
+                    size, rowByRow / batched, rowByRow / rewrittenBatch);
+        }
+    }
+
+    @Test
+    void batchIsAtomicAndBackfillsIds() {
+        dataSource.setTargetDataSource(rewritten);
+        List<Sample> created = transactionTemplate.execute(status -> service.batchCreate(1L, samples(1000)));
+        assertThat(created).allSatisfy(sample -> assertThat(sample.getId()).isNotNull());
+        assertThat(created).extracting(Sample::getId).doesNotHaveDuplicates();
+
+        // 第 600 个样品的编号已被占用：第一批 500 条已执行，第二批冲突，整个事务回滚
+        jdbcTemplate.update("INSERT INTO biz_sample (sample_no, name) VALUES (?, ?)",
+                String.format("YP%012d", SEQUENCE.get() + 600), "已占用编号");
+        Long before = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM biz_sample", Long.class);
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                service.batchCreate(1L, samples(1000))))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM biz_sample", Long.class)).isEqualTo(before);
+    }
+
+    /**
+     * 在事务中预热后多轮计时，返回平均耗时（毫秒）
+     */
+    private static double measure(String name, int rows, Runnable action) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            transactionTemplate.executeWithoutResult(status -> action.run());
+        }
+        long elapsed = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> action.run());
+            elapsed += System.nanoTime() - start;
+        }
+        double millis = elapsed / 1e6 / MEASURE_ROUNDS;
+        System.out.printf("%4d 个样品 / %-36s %8.1f ms  %8.0f 行/s%n", rows, name, millis, rows / millis * 1000);
+        return millis;
+    }
+
+    private static List<Sample> samples(int count) {
+        List<Sample> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Sample sample = new Sample();
+            sample.setName("复合材料试样-" + i);
+            sample.setSpec("100x100x3mm");
+            sample.setQuantity(1);
+            sample.setUnit("件");
+            samples.add(sample);
+        }
+        return samples;
+    }
+
+    private static String nextSampleNo() {
+        return String.format("YP%012d", SEQUENCE.incrementAndGet());
+    }
+}
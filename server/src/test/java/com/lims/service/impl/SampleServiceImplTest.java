@@ -0,0 +1,131 @@
+package com.lims.service.impl;
+
+import com.lims.entity.Entrustment;
+import com.lims.entity.Sample;
+import com.lims.event.StatusChangeEvent;
+import com.lims.mapper.EntrustmentMapper;
+import com.lims.service.SequenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量创建样品：一次预留编号、一次批量插入、一个汇总状态事件，插入失败时整体回滚且不发事件
+ */
+class SampleServiceImplTest {
+
+    private static final Long ENTRUSTMENT_ID = 7L;
+
+    private EntrustmentMapper entrustmentMapper;
+    private ApplicationEventPublisher eventPublisher;
+    private SequenceService sequenceService;
+    private SampleServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        entrustmentMapper = mock(EntrustmentMapper.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        sequenceService = mock(SequenceService.class);
+
+        Entrustment entrustment = new Entrustment();
+        entrustment.setId(ENTRUSTMENT_ID);
+        entrustment.setEntrustmentNo("WT202610180001");
+        when(entrustmentMapper.selectById(ENTRUSTMENT_ID)).thenReturn(entrustment);
+        when(sequenceService.nextNos(eq(SequenceService.BizNoType.SAMPLE), anyInt())).thenAnswer(inv ->
+                IntStream.rangeClosed(1, inv.<Integer>getArgument(1))
+                        .mapToObj(i -> String.format("YP20261018%04d", i))
+                        .toList());
+
+        // 批量插入依赖 SqlSessionFactory，这里只验证调用方式
+        service = spy(new SampleServiceImpl(entrustmentMapper, eventPublisher, sequenceService, null));
+        doReturn(true).when(service).saveBatch(anyList(), anyInt());
+    }
+
+    @Test
+    void samplesAreNumberedInOrderAndInsertedInOneBatch() {
+        List<Sample> samples = samples(3);
+
+        List<Sample> created = service.batchCreate(ENTRUSTMENT_ID, samples);
+
+        assertThat(created).extracting(Sample::getSampleNo)
+                .containsExactly("YP202610180001", "YP202610180002", "YP202610180003");
+        assertThat(created).allSatisfy(sample -> {
+            assertThat(sample.getEntrustmentId()).isEqualTo(ENTRUSTMENT_ID);
+            assertThat(sample.getEntrustmentNo()).isEqualTo("WT202610180001");
+            assertThat(sample.getStatus()).isEqualTo("pending");
+        });
+        verify(sequenceService, times(1)).nextNos(SequenceService.BizNoType.SAMPLE, 3);
+        verify(sequenceService, never()).nextNo(any());
+        verify(service, times(1)).saveBatch(samples, 500);
+    }
+
+    @Test
+    void oneBulkStatusEventForTheWholeBatch() {
+        service.batchCreate(ENTRUSTMENT_ID, samples(1000));
+
+        ArgumentCaptor<StatusChangeEvent> captor = ArgumentCaptor.forClass(StatusChangeEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        StatusChangeEvent event = captor.getValue();
+        assertThat(event.getEntityType()).isEqualTo(StatusChangeEvent.EntityType.SAMPLE);
+        assertThat(event.getEntityId()).isNull();
+        assertThat(event.getPreviousStatus()).isNull();
+        assertThat(event.getStatus()).isEqualTo("pending");
+        assertThat(event.getCount()).isEqualTo(1000);
+    }
+
+    @Test
+    void failedInsertPropagatesWithoutEvent() throws NoSuchMethodException {
+        doThrow(new IllegalStateException("duplicate sample_no")).when(service).saveBatch(anyList(), anyInt());
+
+        assertThatThrownBy(() -> service.batchCreate(ENTRUSTMENT_ID, samples(2)))
+                .isInstanceOf(IllegalStateException.class);
+        verify(eventPublisher, never()).publishEvent(any());
+
+        // 异常向外抛出，由事务回滚已插入的批次
+        Transactional transactional = SampleServiceImpl.class.getMethod("batchCreate", Long.class, List.class)
+                .getAnnotation(Transactional.class);
+        assertThat(transactional).isNotNull();
+        assertThat(transactional.rollbackFor()).contains(Exception.class);
+    }
+
+    @Test
+    void emptyBatchDoesNothing() {
+        assertThat(service.batchCreate(ENTRUSTMENT_ID, new ArrayList<>())).isEmpty();
+        assertThat(service.batchCreate(ENTRUSTMENT_ID, null)).isEmpty();
+
+        verify(sequenceService, never()).nextNos(any(), anyInt());
+        verify(service, never()).saveBatch(anyList(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static List<Sample> samples(int count) {
+        List<Sample> samples = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Sample sample = new Sample();
+            sample.setName("试样-" + i);
+            samples.add(sample);
+        }
+        return samples;
+    }
+}
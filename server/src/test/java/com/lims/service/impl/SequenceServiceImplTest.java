@@ -0,0 +1,158 @@
+package com.lims.service.impl;
+
+import com.lims.mapper.SequenceMapper;
+import com.lims.service.SequenceService.BizNoType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 业务编号：多线程并发分配不重复、不跳号，计数器缺失时从数据库最大序号续号
+ */
+class SequenceServiceImplTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 200;
+
+    /**
+     * 模拟 Redis 计数器，所有操作在同一把锁内完成以保证与 Redis 一样的原子性
+     */
+    private final Map<String, Long> redis = new HashMap<>();
+
+    private SequenceMapper sequenceMapper;
+    private SequenceServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+        // INCR_IF_EXISTS
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(inv -> {
+            String key = inv.<List<String>>getArgument(1).get(0);
+            long delta = Long.parseLong((String) inv.getArguments()[2]);
+            synchronized (redis) {
+                Long value = redis.get(key);
+                if (value == null) {
+                    return -1L;
+                }
+                redis.put(key, value + delta);
+                return value + delta;
+            }
+        });
+        when(ops.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(inv -> {
+            synchronized (redis) {
+                return redis.putIfAbsent(inv.getArgument(0), Long.parseLong(inv.getArgument(1))) == null;
+            }
+        });
+        when(ops.increment(anyString(), anyLong())).thenAnswer(inv -> {
+            synchronized (redis) {
+                return redis.merge(inv.getArgument(0), inv.<Long>getArgument(1), Long::sum);
+            }
+        });
+
+        sequenceMapper = mock(SequenceMapper.class);
+        when(sequenceMapper.selectMaxSeq(anyString(), anyString(), anyString())).thenReturn(0L);
+        service = new SequenceServiceImpl(redisTemplate, sequenceMapper);
+    }
+
+    @Test
+    void concurrentAllocationHasNoDuplicatesOrGaps() throws Exception {
+        BizNoType[] types = {BizNoType.SAMPLE, BizNoType.TASK, BizNoType.REPORT};
+        Set<String> allNos = ConcurrentHashMap.newKeySet();
+        List<String> duplicates = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ROUNDS; i++) {
+                        BizNoType type = types[(thread + i) % types.length];
+                        // 单个与批量预留交替进行
+                        List<String> nos = i % 5 == 0 ? service.nextNos(type, 3) : List.of(service.nextNo(type));
+                        for (String no : nos) {
+                            if (!allNos.add(no)) {
+                                duplicates.add(no);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(duplicates).isEmpty();
+        // 每个前缀+日期的序号从 1 开始连续
+        Map<String, List<Long>> byPrefix = allNos.stream().collect(Collectors.groupingBy(
+                no -> no.substring(0, no.length() - 4), TreeMap::new,
+                Collectors.mapping(no -> Long.parseLong(no.substring(no.length() - 4)), Collectors.toList())));
+        assertThat(byPrefix).hasSize(types.length);
+        byPrefix.forEach((prefix, seqs) -> {
+            Collections.sort(seqs);
+            assertThat(seqs).as(prefix).containsExactlyElementsOf(
+                    LongStream.rangeClosed(1, seqs.size()).boxed().collect(Collectors.toList()));
+        });
+        assertThat(allNos).hasSize(THREADS * (ROUNDS / 5 * 3 + ROUNDS * 4 / 5));
+    }
+
+    @Test
+    void missingCounterContinuesFromDatabaseMax() {
+        when(sequenceMapper.selectMaxSeq(eq("biz_sample"), eq("sample_no"), anyString())).thenReturn(37L);
+
+        List<String> nos = service.nextNos(BizNoType.SAMPLE, 2);
+
+        assertThat(nos).allMatch(no -> no.startsWith("YP"));
+        assertThat(nos).extracting(no -> no.substring(no.length() - 4)).containsExactly("0038", "0039");
+    }
+
+    @Test
+    void lostCounterIsReseededWithoutReuse() {
+        String first = service.nextNo(BizNoType.TASK);
+        synchronized (redis) {
+            redis.clear();
+        }
+        when(sequenceMapper.selectMaxSeq(eq("biz_test_task"), eq("task_no"), anyString())).thenReturn(1L);
+
+        String second = service.nextNo(BizNoType.TASK);
+
+        assertThat(first).endsWith("0001");
+        assertThat(second).endsWith("0002");
+    }
+}
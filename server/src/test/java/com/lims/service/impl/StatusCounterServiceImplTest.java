@@ -0,0 +1,163 @@
+package com.lims.service.impl;
+
+import com.lims.event.StatusChangeEvent;
+import com.lims.mapper.StatisticsMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 状态计数：事件增减，对账只采用期间没有变更提交的 COUNT
+ */
+class StatusCounterServiceImplTest {
+
+    private static final StatusChangeEvent.EntityType SAMPLE = StatusChangeEvent.EntityType.SAMPLE;
+
+    private StatisticsMapper statisticsMapper;
+    private StatusCounterServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        statisticsMapper = mock(StatisticsMapper.class);
+        when(statisticsMapper.countAllByStatus(anyString())).thenReturn(List.of());
+        service = new StatusCounterServiceImpl(statisticsMapper);
+    }
+
+    @Test
+    void eventsMoveCountsBetweenStatuses() {
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, null, "pending", 3));
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, 1L, "pending", "testing"));
+
+        assertThat(service.counts(SAMPLE)).containsEntry("pending", 2L).containsEntry("testing", 1L);
+    }
+
+    @Test
+    void removedEventDecrementsPreviousStatus() {
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, null, "pending", 2));
+        service.onStatusChange(StatusChangeEvent.removed(this, SAMPLE, 1L, "pending"));
+
+        assertThat(service.count(SAMPLE, "pending")).isEqualTo(1L);
+    }
+
+    @Test
+    void nonStatusEventIsIgnored() {
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, 1L, null, null));
+
+        assertThat(service.counts(SAMPLE)).isEmpty();
+    }
+
+    @Test
+    void reconcileReplacesDriftedValues() {
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, null, "pending", 5));
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, null, "testing", 2));
+        when(statisticsMapper.countAllByStatus("biz_sample"))
+                .thenReturn(List.of(Map.of("name", "pending", "count", 4L)));
+
+        service.reconcile();
+
+        assertThat(service.count(SAMPLE, "pending")).isEqualTo(4L);
+        assertThat(service.count(SAMPLE, "testing")).isZero();
+    }
+
+    @Test
+    void countOverlappingAnEventIsRetried() {
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, null, "pending", 10));
+        AtomicInteger queries = new AtomicInteger();
+        when(statisticsMapper.countAllByStatus("biz_sample")).thenAnswer(invocation -> {
+            if (queries.incrementAndGet() == 1) {
+                // 事务在 COUNT 快照之前提交，提交后事件在 COUNT 执行期间才计入：COUNT 已包含这 2 个
+                service.onStatusChange(new StatusChangeEvent(this, SAMPLE, null, "pending", 2));
+            }
+            return List.of(Map.of("name", "pending", "count", 12L));
+        });
+
+        service.reconcile();
+
+        assertThat(queries).hasValue(2);
+        assertThat(service.count(SAMPLE, "pending")).isEqualTo(12L);
+    }
+
+    @Test
+    void eventsAfterReconcileAddToDatabaseCount() {
+        when(statisticsMapper.countAllByStatus("biz_sample"))
+                .thenReturn(List.of(Map.of("name", "pending", "count", 10L)));
+        service.reconcile();
+
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, 1L, "pending", "testing"));
+
+        assertThat(service.counts(SAMPLE)).containsEntry("pending", 9L).containsEntry("testing", 1L);
+    }
+
+    @Test
+    void reconcileWaitsForCommittingTransaction() {
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, null, "pending", 3));
+        StatusChangeEvent inFlight = new StatusChangeEvent(this, SAMPLE, null, "pending", 1);
+        service.onCommitting(inFlight);
+        when(statisticsMapper.countAllByStatus("biz_sample"))
+                .thenReturn(List.of(Map.of("name", "pending", "count", 100L)));
+
+        // 提交尚未结束：COUNT 是否包含它无法判断，不采用
+        service.reconcile();
+        assertThat(service.count(SAMPLE, "pending")).isEqualTo(3L);
+
+        service.onStatusChange(inFlight);
+        service.onCompleted(inFlight);
+        service.reconcile();
+        assertThat(service.count(SAMPLE, "pending")).isEqualTo(100L);
+    }
+
+    @Test
+    void rolledBackTransactionDoesNotBlockReconcile() {
+        // 提交前已回滚的事务只收到结束通知
+        service.onCompleted(new StatusChangeEvent(this, SAMPLE, null, "pending", 1));
+        StatusChangeEvent failedCommit = new StatusChangeEvent(this, SAMPLE, null, "pending", 1);
+        service.onCommitting(failedCommit);
+        service.onCompleted(failedCommit);
+        when(statisticsMapper.countAllByStatus("biz_sample"))
+                .thenReturn(List.of(Map.of("name", "pending", "count", 7L)));
+
+        service.reconcile();
+
+        assertThat(service.count(SAMPLE, "pending")).isEqualTo(7L);
+    }
+
+    @Test
+    void concurrentEventsAreNotLost() throws InterruptedException {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    service.onStatusChange(new StatusChangeEvent(this, SAMPLE, null, "pending", 1));
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(service.count(SAMPLE, "pending")).isEqualTo((long) threads * perThread);
+    }
+
+    @Test
+    void failedReconcileKeepsCurrentValues() {
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, null, "pending", 3));
+        when(statisticsMapper.countAllByStatus("biz_sample")).thenThrow(new IllegalStateException("db down"));
+
+        service.reconcile();
+        service.onStatusChange(new StatusChangeEvent(this, SAMPLE, null, "pending", 1));
+
+        assertThat(service.count(SAMPLE, "pending")).isEqualTo(4L);
+    }
+}
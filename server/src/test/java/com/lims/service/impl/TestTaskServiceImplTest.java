@@ -0,0 +1,267 @@
+package com.lims.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.lims.dto.BatchOperationResult;
+import com.lims.entity.TestTask;
+import com.lims.event.StatusChangeEvent;
+import com.lims.mapper.TestTaskMapper;
+import com.lims.service.TestTaskService.BatchAction;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量任务操作：按读取时状态分组的条件更新，NOT_FOUND / INVALID_STATUS / CONFLICT 判定与分块
+ * Mapper 以内存表模拟，按条件构造器生成的 SQL 片段（id IN、status =、SET 列）执行查询与更新
+ */
+class TestTaskServiceImplTest {
+
+    private static final Pattern PARAM = Pattern.compile("#\\{ew\\.paramNameValuePairs\\.(\\w+)}");
+    private static final Pattern ID_IN = Pattern.compile("id IN \\(([^)]*)\\)");
+    private static final Pattern STATUS_EQ = Pattern.compile("status = (#\\{[^}]+})");
+    private static final Pattern SET = Pattern.compile("(\\w+)=(#\\{[^}]+})");
+
+    private final Map<Long, TestTask> table = new LinkedHashMap<>();
+
+    /**
+     * 在每次 UPDATE 执行前运行，模拟读取与更新之间其他请求的修改
+     */
+    private Consumer<Map<Long, TestTask>> beforeUpdate = rows -> { };
+
+    private final List<Integer> selectedChunkSizes = new ArrayList<>();
+
+    private TestTaskMapper taskMapper;
+    private ApplicationEventPublisher eventPublisher;
+    private TestTaskServiceImpl service;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), TestTask.class);
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        taskMapper = mock(TestTaskMapper.class);
+        when(taskMapper.selectList(any())).thenAnswer(inv -> {
+            List<Long> ids = ids(inv.getArgument(0));
+            selectedChunkSizes.add(ids.size());
+            return ids.stream().filter(table::containsKey).map(id -> copy(table.get(id))).toList();
+        });
+        when(taskMapper.update(isNull(), any())).thenAnswer(inv -> {
+            beforeUpdate.accept(table);
+            return update(inv.getArgument(1));
+        });
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        service = new TestTaskServiceImpl(eventPublisher, null, null);
+        ReflectionTestUtils.setField(service, "baseMapper", taskMapper);
+    }
+
+    @Test
+    void batchAssignRejectsMissingAndFinishedTasks() {
+        task(1L, "pending");
+        task(2L, "in_progress");
+        task(3L, "completed");
+
+        BatchOperationResult result = service.batchAssign(List.of(1L, 2L, 3L, 4L, 1L), 9L, "张三");
+
+        assertThat(result.getTotal()).isEqualTo(4);
+        assertThat(result.getSucceeded()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(result.getFailed()).containsExactly(
+                Map.entry(3L, BatchOperationResult.INVALID_STATUS),
+                Map.entry(4L, BatchOperationResult.NOT_FOUND));
+        assertThat(table.get(1L).getAssigneeId()).isEqualTo(9L);
+        assertThat(table.get(2L).getAssignee()).isEqualTo("张三");
+        // 已完成的任务不被改派
+        assertThat(table.get(3L).getAssigneeId()).isNull();
+    }
+
+    @Test
+    void startUpdatesEachReadStatusGroupAndPublishesOneEventPerGroup() {
+        task(1L, "pending");
+        task(2L, "pending");
+        task(3L, "in_progress");
+
+        BatchOperationResult result = service.batchOperate(BatchAction.START, List.of(1L, 2L, 3L), null, null, null);
+
+        assertThat(result.getSucceeded()).containsExactly(1L, 2L);
+        assertThat(result.getFailed()).containsExactly(Map.entry(3L, BatchOperationResult.INVALID_STATUS));
+        assertThat(table.get(1L).getStatus()).isEqualTo("in_progress");
+        assertThat(table.get(1L).getProgress()).isEqualTo(10);
+
+        List<StatusChangeEvent> events = events();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getPreviousStatus()).isEqualTo("pending");
+        assertThat(events.get(0).getStatus()).isEqualTo("in_progress");
+        assertThat(events.get(0).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void completeGroupsPendingAndInProgressSeparately() {
+        task(1L, "pending");
+        task(2L, "in_progress");
+
+        service.batchOperate(BatchAction.COMPLETE, List.of(1L, 2L), null, null, null);
+
+        assertThat(events()).extracting(StatusChangeEvent::getPreviousStatus, StatusChangeEvent::getCount)
+                .containsExactly(tuple("pending", 1), tuple("in_progress", 1));
+        assertThat(table.values()).allSatisfy(task -> assertThat(task.getStatus()).isEqualTo("completed"));
+    }
+
+    @Test
+    void taskChangedAfterReadIsConflictUnlessAlreadyInTargetState() {
+        task(1L, "pending");
+        task(2L, "pending");
+        task(3L, "pending");
+        beforeUpdate = rows -> {
+            // 读取后：任务 2 被其他人取消，任务 3 已被其他请求开始
+            rows.get(2L).setStatus("cancelled");
+            rows.get(3L).setStatus("in_progress");
+        };
+
+        BatchOperationResult result = service.batchOperate(BatchAction.START, List.of(1L, 2L, 3L), null, null, null);
+
+        assertThat(result.getSucceeded()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(result.getFailed()).containsExactly(Map.entry(2L, BatchOperationResult.CONFLICT));
+        assertThat(table.get(2L).getStatus()).isEqualTo("cancelled");
+        // 事件只计入本次实际更新的行
+        assertThat(events()).singleElement().extracting(StatusChangeEvent::getCount).isEqualTo(1);
+    }
+
+    @Test
+    void assignConflictResolvesByAssignee() {
+        task(1L, "pending");
+        task(2L, "pending");
+        beforeUpdate = rows -> {
+            // 读取后：任务 1 已被分配给同一检测员并开始，任务 2 已完成
+            rows.get(1L).setStatus("in_progress");
+            rows.get(1L).setAssigneeId(9L);
+            rows.get(2L).setStatus("completed");
+        };
+
+        BatchOperationResult result = service.batchAssign(List.of(1L, 2L), 9L, "张三");
+
+        assertThat(result.getSucceeded()).containsExactly(1L);
+        assertThat(result.getFailed()).containsExactly(Map.entry(2L, BatchOperationResult.CONFLICT));
+        assertThat(events()).isEmpty();
+    }
+
+    @Test
+    void largeBatchIsSplitIntoChunksOfAtMostOneThousandIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 2_500).boxed().toList();
+        ids.forEach(id -> task(id, "pending"));
+
+        BatchOperationResult result = service.batchOperate(BatchAction.START, ids, null, null, null);
+
+        assertThat(result.getTotal()).isEqualTo(2_500);
+        assertThat(result.getSucceeded()).hasSize(2_500);
+        assertThat(result.getFailed()).isEmpty();
+        assertThat(selectedChunkSizes).containsExactly(1000, 1000, 500);
+        assertThat(events()).extracting(StatusChangeEvent::getCount).containsExactly(1000, 1000, 500);
+    }
+
+    @Test
+    void emptyRequestDoesNothing() {
+        BatchOperationResult result = service.batchOperate(BatchAction.START, null, null, null, null);
+
+        assertThat(result.getTotal()).isZero();
+        assertThat(selectedChunkSizes).isEmpty();
+    }
+
+    private void task(Long id, String status) {
+        TestTask task = new TestTask();
+        task.setId(id);
+        task.setStatus(status);
+        table.put(id, task);
+    }
+
+    private List<StatusChangeEvent> events() {
+        ArgumentCaptor<StatusChangeEvent> captor = ArgumentCaptor.forClass(StatusChangeEvent.class);
+        verify(eventPublisher, atLeast(0)).publishEvent(captor.capture());
+        return captor.getAllValues();
+    }
+
+    /**
+     * 执行 UPDATE ... SET ... WHERE id IN (...) AND status = ?，返回影响行数
+     */
+    private int update(LambdaUpdateWrapper<TestTask> wrapper) {
+        String where = wrapper.getSqlSegment();
+        Matcher status = STATUS_EQ.matcher(where);
+        String expected = status.find() ? (String) param(wrapper, status.group(1)) : null;
+        Map<String, Object> set = new HashMap<>();
+        Matcher column = SET.matcher(wrapper.getSqlSet());
+        while (column.find()) {
+            set.put(column.group(1), param(wrapper, column.group(2)));
+        }
+        int affected = 0;
+        for (Long id : ids(wrapper)) {
+            TestTask task = table.get(id);
+            if (task == null || expected != null && !expected.equals(task.getStatus())) {
+                continue;
+            }
+            if (set.containsKey("status")) {
+                task.setStatus((String) set.get("status"));
+            }
+            if (set.containsKey("progress")) {
+                task.setProgress((Integer) set.get("progress"));
+            }
+            if (set.containsKey("assignee_id")) {
+                task.setAssigneeId((Long) set.get("assignee_id"));
+                task.setAssignee((String) set.get("assignee"));
+            }
+            affected++;
+        }
+        return affected;
+    }
+
+    private static List<Long> ids(AbstractWrapper<TestTask, ?, ?> wrapper) {
+        Matcher in = ID_IN.matcher(wrapper.getSqlSegment());
+        assertThat(in.find()).isTrue();
+        List<Long> ids = new ArrayList<>();
+        for (String placeholder : in.group(1).split(",")) {
+            ids.add((Long) param(wrapper, placeholder.trim()));
+        }
+        return ids;
+    }
+
+    private static Object param(AbstractWrapper<TestTask, ?, ?> wrapper, String placeholder) {
+        Matcher name = PARAM.matcher(placeholder);
+        assertThat(name.matches()).isTrue();
+        return wrapper.getParamNameValuePairs().get(name.group(1));
+    }
+
+    private static TestTask copy(TestTask source) {
+        TestTask task = new TestTask();
+        task.setId(source.getId());
+        task.setStatus(source.getStatus());
+        task.setAssigneeId(source.getAssigneeId());
+        return task;
+    }
+}
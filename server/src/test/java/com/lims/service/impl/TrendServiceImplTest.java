@@ -0,0 +1,167 @@
+package com.lims.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.lims.mapper.TrendMapper;
+import com.lims.service.TrendService.Granularity;
+import com.lims.service.TrendService.Metric;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 趋势统计：Metric 枚举生成的 SQL、按天/周/月分桶补0、多序列按桶合并
+ */
+class TrendServiceImplTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 9, 28);
+    private static final LocalDate END = LocalDate.of(2026, 10, 4);
+
+    private static MybatisConfiguration configuration;
+
+    private TrendMapper trendMapper;
+    private TrendServiceImpl service;
+
+    @BeforeAll
+    static void registerMapper() {
+        configuration = new MybatisConfiguration();
+        configuration.addMapper(TrendMapper.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        trendMapper = mock(TrendMapper.class);
+        service = new TrendServiceImpl(trendMapper);
+    }
+
+    @Test
+    void everyMetricRendersRangeQueryOnItsOwnTableAndColumn() {
+        for (Metric metric : Metric.values()) {
+            // ${table}/${column} 直接拼接，只允许普通标识符
+            assertThat(metric.getTable()).matches("[a-z_]+");
+            assertThat(metric.getColumn()).matches("[a-z_]+");
+
+            BoundSql sql = countByDaySql(metric);
+            String column = metric.getColumn();
+            assertThat(normalize(sql.getSql())).isEqualTo(
+                    "SELECT DATE(" + column + ") AS day, COUNT(*) AS count FROM " + metric.getTable()
+                            + " WHERE deleted = 0 AND " + column + " >= ? AND " + column + " < ?"
+                            + (metric.getStatus() != null ? " AND status = ?" : "")
+                            + " GROUP BY DATE(" + column + ")");
+            assertThat(sql.getParameterMappings()).extracting(ParameterMapping::getProperty)
+                    .containsExactlyElementsOf(metric.getStatus() != null
+                            ? List.of("startDate", "endDate", "status")
+                            : List.of("startDate", "endDate"));
+        }
+    }
+
+    @Test
+    void statusFilterIsAddedOnlyForStatusMetrics() {
+        assertThat(Metric.TASK_COMPLETED.getStatus()).isEqualTo("completed");
+        assertThat(Metric.REPORT_ISSUED.getStatus()).isEqualTo("issued");
+        assertThat(normalize(countByDaySql(Metric.TASK_COMPLETED).getSql())).contains("AND status = ?");
+        assertThat(normalize(countByDaySql(Metric.TASK_CREATED).getSql())).doesNotContain("status");
+    }
+
+    @Test
+    void dailyTrendFillsMissingDaysAndQueriesHalfOpenRange() {
+        rows(Metric.TASK_COMPLETED,
+                row(LocalDate.of(2026, 9, 29), 3),
+                row(Date.valueOf("2026-10-02"), 5),
+                row("2026-10-04", 1),
+                row(null, 9));
+
+        Map<String, Long> trend = service.trend(Metric.TASK_COMPLETED, START, END, Granularity.DAY);
+
+        assertThat(trend).containsExactly(
+                Map.entry("2026-09-28", 0L), Map.entry("2026-09-29", 3L), Map.entry("2026-09-30", 0L),
+                Map.entry("2026-10-01", 0L), Map.entry("2026-10-02", 5L), Map.entry("2026-10-03", 0L),
+                Map.entry("2026-10-04", 1L));
+        // 结束日期含当天：查询上界为次日零点
+        verify(trendMapper).countByDay("biz_test_task", "completed_date", "completed", START, END.plusDays(1));
+    }
+
+    @Test
+    void weeklyAndMonthlyTrendsSumDaysIntoBuckets() {
+        LocalDate start = LocalDate.of(2026, 9, 24);
+        LocalDate end = LocalDate.of(2026, 10, 6);
+        rows(Metric.SAMPLE_RECEIVED,
+                row(LocalDate.of(2026, 9, 24), 1),
+                row(LocalDate.of(2026, 9, 27), 2),
+                row(LocalDate.of(2026, 9, 28), 4),
+                row(LocalDate.of(2026, 10, 6), 8));
+
+        // 周标签为周一；首周从周一（9/21）开始计
+        assertThat(service.trend(Metric.SAMPLE_RECEIVED, start, end, Granularity.WEEK)).containsExactly(
+                Map.entry("2026-09-21", 3L), Map.entry("2026-09-28", 4L), Map.entry("2026-10-05", 8L));
+        assertThat(service.trend(Metric.SAMPLE_RECEIVED, start, end, Granularity.MONTH)).containsExactly(
+                Map.entry("2026-09", 7L), Map.entry("2026-10", 8L));
+    }
+
+    @Test
+    void multipleSeriesAreMergedIntoOneRowPerBucket() {
+        rows(Metric.TASK_COMPLETED, row(LocalDate.of(2026, 9, 28), 2));
+        rows(Metric.ENTRUSTMENT_CREATED, row(LocalDate.of(2026, 10, 4), 6));
+        rows(Metric.SAMPLE_RECEIVED);
+        Map<String, Metric> series = new LinkedHashMap<>();
+        series.put("completed", Metric.TASK_COMPLETED);
+        series.put("entrustments", Metric.ENTRUSTMENT_CREATED);
+        series.put("samples", Metric.SAMPLE_RECEIVED);
+
+        List<Map<String, Object>> trend = service.trend(series, START, END, Granularity.DAY);
+
+        assertThat(trend).hasSize(7);
+        assertThat(trend.get(0)).containsExactly(Map.entry("date", "2026-09-28"),
+                Map.entry("completed", 2L), Map.entry("entrustments", 0L), Map.entry("samples", 0L));
+        assertThat(trend.get(6)).containsExactly(Map.entry("date", "2026-10-04"),
+                Map.entry("completed", 0L), Map.entry("entrustments", 6L), Map.entry("samples", 0L));
+        assertThat(trend).extracting(row -> row.get("date")).isSorted();
+        // 每个序列一次范围查询
+        verify(trendMapper, times(3)).countByDay(any(), any(), any(), eq(START), eq(END.plusDays(1)));
+        verify(trendMapper).countByDay(eq("biz_entrustment"), eq("create_time"), isNull(), any(), any());
+    }
+
+    private static BoundSql countByDaySql(Metric metric) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("table", metric.getTable());
+        params.put("column", metric.getColumn());
+        params.put("status", metric.getStatus());
+        params.put("startDate", START);
+        params.put("endDate", END.plusDays(1));
+        return configuration.getMappedStatement(TrendMapper.class.getName() + ".countByDay").getBoundSql(params);
+    }
+
+    private static String normalize(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    @SafeVarargs
+    private void rows(Metric metric, Map<String, Object>... rows) {
+        when(trendMapper.countByDay(eq(metric.getTable()), eq(metric.getColumn()), any(), any(), any()))
+                .thenReturn(List.of(rows));
+    }
+
+    private static Map<String, Object> row(Object day, long count) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("day", day);
+        row.put("count", count);
+        return row;
+    }
+}
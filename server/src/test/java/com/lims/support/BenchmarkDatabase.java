@@ -0,0 +1,131 @@
+package com.lims.support;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import com.lims.config.MybatisPlusConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试用数据库：Testcontainers 启动 MySQL 8，执行 db 目录下的建表脚本，
+ * 按与生产一致的 MyBatis-Plus 配置（下划线转驼峰、自增主键、逻辑删除、自动填充）创建会话。
+ * 只在 -Pbenchmark 下使用，需要本机 Docker。
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    /**
+     * 建表脚本（init.sql 含建库语句）
+     */
+    private static final String[] SCHEMA = {"db/init.sql", "db/business.sql"};
+
+    private final MySQLContainer<?> container;
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+
+    private BenchmarkDatabase(MySQLContainer<?> container) {
+        this.container = container;
+    }
+
+    /**
+     * 启动容器并执行建表脚本
+     * @param extraScripts SCHEMA 之外需要的脚本（classpath 路径）
+     */
+    public static BenchmarkDatabase start(String... extraScripts) {
+        MySQLContainer<?> container = new MySQLContainer<>("mysql:8.0.36")
+                .withDatabaseName("lims")
+                .withUsername("root")
+                .withPassword("lims")
+                .withCommand("--character-set-server=utf8mb4", "--collation-server=utf8mb4_unicode_ci");
+        container.start();
+        BenchmarkDatabase database = new BenchmarkDatabase(container);
+        try (Connection connection = database.dataSource(false).getConnection()) {
+            List<String> scripts = new ArrayList<>(List.of(SCHEMA));
+            scripts.addAll(List.of(extraScripts));
+            for (String script : scripts) {
+                ScriptUtils.executeSqlScript(connection,
+                        new EncodedResource(new ClassPathResource(script), StandardCharsets.UTF_8));
+            }
+        } catch (Exception e) {
+            database.close();
+            throw new IllegalStateException("初始化基准数据库失败", e);
+        }
+        return database;
+    }
+
+    /**
+     * 连接池，参数与 application.yml 中的 JDBC URL 一致
+     * @param rewriteBatchedStatements 驱动是否把 JDBC 批量 INSERT 改写为多值 INSERT
+     */
+    public HikariDataSource dataSource(boolean rewriteBatchedStatements) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:mysql://" + container.getHost() + ":" + container.getMappedPort(3306)
+                + "/lims?useUnicode=true&characterEncoding=utf8&useSSL=false&serverTimezone=Asia/Shanghai"
+                + "&allowPublicKeyRetrieval=true&rewriteBatchedStatements=" + rewriteBatchedStatements);
+        dataSource.setUsername(container.getUsername());
+        dataSource.setPassword(container.getPassword());
+        dataSource.setMaximumPoolSize(4);
+        dataSources.add(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * MyBatis-Plus 会话，加载 mapper 目录下的 XML 并注册给定的 Mapper 接口
+     * 同一实体只能属于一个会话工厂（批量方法按实体类查找），同一基准内应只创建一次
+     */
+    public SqlSessionTemplate sqlSession(DataSource dataSource, Class<?>... mappers) throws Exception {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.setCacheEnabled(false);
+
+        GlobalConfig globalConfig = GlobalConfigUtils.defaults();
+        globalConfig.setMetaObjectHandler(new MybatisPlusConfig().metaObjectHandler());
+        globalConfig.getDbConfig().setIdType(IdType.AUTO);
+        globalConfig.getDbConfig().setLogicDeleteField("deleted");
+        globalConfig.getDbConfig().setLogicDeleteValue("1");
+        globalConfig.getDbConfig().setLogicNotDeleteValue("0");
+
+        MybatisSqlSessionFactoryBean factory = new MybatisSqlSessionFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setConfiguration(configuration);
+        factory.setGlobalConfig(globalConfig);
+        factory.setTypeAliasesPackage("com.lims.entity");
+        factory.setMapperLocations(new PathMatchingResourcePatternResolver().getResources("classpath*:/mapper/**/*.xml"));
+        SqlSessionTemplate sqlSession = new SqlSessionTemplate(factory.getObject());
+        for (Class<?> mapper : mappers) {
+            if (!configuration.hasMapper(mapper)) {
+                configuration.addMapper(mapper);
+            }
+        }
+        return sqlSession;
+    }
+
+    public TransactionTemplate transactionTemplate(DataSource dataSource) {
+        return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+        container.stop();
+    }
+}
@@ -0,0 +1,249 @@
+package com.lims.util;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.lims.common.CursorPageResult;
+import com.lims.entity.TestTask;
+import com.lims.exception.BusinessException;
+import com.lims.mapper.StatisticsMapper;
+import com.lims.mapper.TestTaskMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 游标分页：游标编解码、(create_time, id) 定位条件、size+1 判断是否有下一页、总数计算方式
+ * Mapper 以内存表模拟，按条件构造器生成的定位参数与 LIMIT 执行查询
+ */
+class CursorPaginatorTest {
+
+    private static final Pattern PARAM = Pattern.compile("#\\{ew\\.paramNameValuePairs\\.(\\w+)}");
+    private static final Pattern SEEK = Pattern.compile(
+            "create_time < (#\\{[^}]+}) OR \\(create_time = (#\\{[^}]+}) AND id < (#\\{[^}]+})\\)");
+    private static final Pattern LIMIT = Pattern.compile("LIMIT (\\d+)$");
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 1, 8, 0);
+
+    private final List<TestTask> table = new ArrayList<>();
+    private final List<String> executedSql = new ArrayList<>();
+
+    private TestTaskMapper mapper;
+    private StatisticsMapper statisticsMapper;
+    private CursorPaginator paginator;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), TestTask.class);
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mapper = mock(TestTaskMapper.class);
+        when(mapper.selectList(any(LambdaQueryWrapper.class))).thenAnswer(inv -> select(inv.getArgument(0)));
+        when(mapper.selectCount(any(LambdaQueryWrapper.class))).thenAnswer(inv ->
+                rows(inv.getArgument(0)).count());
+        statisticsMapper = mock(StatisticsMapper.class);
+        paginator = new CursorPaginator(statisticsMapper);
+    }
+
+    @Test
+    void walksAllPagesInOrderWithoutGapsOrDuplicates() {
+        // 多条记录同一 create_time，翻页必须按 id 继续定位
+        for (long id = 1; id <= 7; id++) {
+            task(id, BASE.plusMinutes(id / 3));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageResult<TestTask> page = page(cursor, 3, CursorPaginator.CountMode.NONE);
+            page.getRecords().forEach(task -> seen.add(task.getId()));
+            assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(7L, 6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void hasMoreIsDetectedFromOneExtraRow() {
+        for (long id = 1; id <= 3; id++) {
+            task(id, BASE.plusMinutes(id));
+        }
+
+        CursorPageResult<TestTask> exact = page(null, 3, CursorPaginator.CountMode.NONE);
+        assertThat(exact.getRecords()).hasSize(3);
+        assertThat(exact.isHasMore()).isFalse();
+        assertThat(exact.getNextCursor()).isNull();
+        assertThat(executedSql.get(0)).endsWith("LIMIT 4");
+
+        CursorPageResult<TestTask> shorter = page(null, 2, CursorPaginator.CountMode.NONE);
+        assertThat(shorter.getRecords()).extracting(TestTask::getId).containsExactly(3L, 2L);
+        assertThat(shorter.isHasMore()).isTrue();
+        assertThat(decode(shorter.getNextCursor())).isEqualTo(BASE.plusMinutes(2) + "|2");
+    }
+
+    @Test
+    void seekPredicateUsesCursorPositionAndDescendingOrder() {
+        String cursor = encode(BASE + "|42");
+
+        page(cursor, 10, CursorPaginator.CountMode.NONE);
+
+        String sql = executedSql.get(0);
+        assertThat(sql).contains("create_time IS NOT NULL")
+                .containsPattern(SEEK)
+                .contains("ORDER BY create_time DESC,id DESC")
+                .endsWith("LIMIT 11");
+    }
+
+    @Test
+    void rowsWithoutCreateTimeAreExcluded() {
+        task(1L, BASE);
+        task(2L, null);
+        task(3L, BASE.plusMinutes(1));
+        task(4L, null);
+
+        CursorPageResult<TestTask> first = page(null, 1, CursorPaginator.CountMode.EXACT);
+        CursorPageResult<TestTask> second = page(first.getNextCursor(), 1, CursorPaginator.CountMode.EXACT);
+
+        assertThat(first.getRecords()).extracting(TestTask::getId).containsExactly(3L);
+        assertThat(first.getTotal()).isEqualTo(2L);
+        assertThat(second.getRecords()).extracting(TestTask::getId).containsExactly(1L);
+        assertThat(second.isHasMore()).isFalse();
+
+        // 倒序时 NULL 排在最后，不排除时本页为 3、1、4，游标 "null|4" 在下一页无法解析
+        CursorPageResult<TestTask> whole = page(null, 3, CursorPaginator.CountMode.NONE);
+        assertThat(whole.getRecords()).extracting(TestTask::getId).containsExactly(3L, 1L);
+        assertThat(whole.getNextCursor()).isNull();
+    }
+
+    @Test
+    void invalidCursorIsRejectedWithBadRequest() {
+        for (String cursor : List.of("not-base64!", encode("null|5"), encode(BASE + "|x"), encode("no-separator"))) {
+            assertThatThrownBy(() -> page(cursor, 10, CursorPaginator.CountMode.NONE))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("无效的分页游标")
+                    .extracting("code").isEqualTo(400);
+        }
+    }
+
+    @Test
+    void countModesAreEvaluatedOnFirstPageOnly() {
+        task(1L, BASE);
+        task(2L, BASE.plusMinutes(1));
+        when(statisticsMapper.estimateRowCount("biz_test_task")).thenReturn(1_000L);
+
+        assertThat(page(null, 1, CursorPaginator.CountMode.NONE).getTotal()).isNull();
+        assertThat(page(null, 1, CursorPaginator.CountMode.EXACT).getTotal()).isEqualTo(2L);
+        assertThat(page(null, 1, CursorPaginator.CountMode.ESTIMATE).getTotal()).isEqualTo(1_000L);
+
+        String cursor = page(null, 1, CursorPaginator.CountMode.NONE).getNextCursor();
+        assertThat(page(cursor, 1, CursorPaginator.CountMode.EXACT).getTotal()).isNull();
+        assertThat(page(cursor, 1, CursorPaginator.CountMode.ESTIMATE).getTotal()).isNull();
+    }
+
+    @Test
+    void countModeIsParsedCaseInsensitively() {
+        assertThat(CursorPaginator.CountMode.of(null)).isEqualTo(CursorPaginator.CountMode.NONE);
+        assertThat(CursorPaginator.CountMode.of("")).isEqualTo(CursorPaginator.CountMode.NONE);
+        assertThat(CursorPaginator.CountMode.of("exact")).isEqualTo(CursorPaginator.CountMode.EXACT);
+        assertThat(CursorPaginator.CountMode.of("Estimate")).isEqualTo(CursorPaginator.CountMode.ESTIMATE);
+        assertThatThrownBy(() -> CursorPaginator.CountMode.of("fast"))
+                .isInstanceOf(BusinessException.class).hasMessageContaining("fast");
+        verify(statisticsMapper, never()).estimateRowCount(any());
+    }
+
+    @Test
+    void sizeIsClampedToOneAndFiveHundred() {
+        page(null, 0, CursorPaginator.CountMode.NONE);
+        page(null, 10_000, CursorPaginator.CountMode.NONE);
+
+        assertThat(executedSql).satisfiesExactly(
+                sql -> assertThat(sql).endsWith("LIMIT 2"),
+                sql -> assertThat(sql).endsWith("LIMIT 501"));
+    }
+
+    private CursorPageResult<TestTask> page(String cursor, int size, CursorPaginator.CountMode countMode) {
+        return paginator.page(mapper, new LambdaQueryWrapper<>(), TestTask::getCreateTime, TestTask::getId,
+                cursor, size, countMode);
+    }
+
+    private void task(Long id, LocalDateTime createTime) {
+        TestTask task = new TestTask();
+        task.setId(id);
+        task.setCreateTime(createTime);
+        table.add(task);
+    }
+
+    /**
+     * 执行 [WHERE create_time IS NOT NULL] [AND 定位条件] ORDER BY create_time DESC, id DESC LIMIT n，
+     * 与 MySQL 一致，倒序时 NULL 排在最后
+     */
+    private List<TestTask> select(LambdaQueryWrapper<TestTask> wrapper) {
+        String sql = wrapper.getSqlSegment();
+        executedSql.add(sql);
+        Matcher limit = LIMIT.matcher(sql);
+        assertThat(limit.find()).isTrue();
+        return rows(wrapper)
+                .sorted(Comparator.comparing(TestTask::getCreateTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(TestTask::getId).reversed())
+                .limit(Long.parseLong(limit.group(1)))
+                .toList();
+    }
+
+    private Stream<TestTask> rows(LambdaQueryWrapper<TestTask> wrapper) {
+        String sql = wrapper.getSqlSegment();
+        Stream<TestTask> rows = table.stream();
+        if (sql.contains("create_time IS NOT NULL")) {
+            rows = rows.filter(task -> task.getCreateTime() != null);
+        }
+        Matcher seek = SEEK.matcher(sql);
+        if (seek.find()) {
+            LocalDateTime time = (LocalDateTime) param(wrapper, seek.group(1));
+            assertThat(param(wrapper, seek.group(2))).isEqualTo(time);
+            Long id = (Long) param(wrapper, seek.group(3));
+            // 与 NULL 比较不成立
+            rows = rows.filter(task -> task.getCreateTime() != null && (task.getCreateTime().isBefore(time)
+                    || task.getCreateTime().isEqual(time) && task.getId() < id));
+        }
+        return rows;
+    }
+
+    private static Object param(LambdaQueryWrapper<TestTask> wrapper, String placeholder) {
+        Matcher name = PARAM.matcher(placeholder);
+        assertThat(name.matches()).isTrue();
+        return wrapper.getParamNameValuePairs().get(name.group(1));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
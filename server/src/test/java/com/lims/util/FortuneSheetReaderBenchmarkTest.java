@@ -0,0 +1,154 @@
+package com.lims.util;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SortedMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 大型 ELN 工作表导出基准：整表读入稀疏行后分批写 Excel vs 边解析边分批写 Excel，
+ * 比较耗时、线程堆分配与堆峰值。不依赖容器。
+ * 默认构建不运行，使用 mvn test -Pbenchmark 执行，结果输出到标准输出。
+ */
+@Tag("benchmark")
+class FortuneSheetReaderBenchmarkTest {
+
+    private static final int MB = 1024 * 1024;
+
+    private static final int[] ROW_COUNTS = {10_000, 50_000, 100_000};
+    private static final int COL_COUNT = 20;
+    private static final int WRITE_BATCH_ROWS = 1000;
+
+    private static final int WARMUP_ROUNDS = 1;
+    private static final int MEASURE_ROUNDS = 3;
+
+    private final FortuneSheetReader reader = new FortuneSheetReader(new ObjectMapper());
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    void bufferedVersusStreamedExport() throws Exception {
+        for (int rows : ROW_COUNTS) {
+            String json = elnSheet(rows);
+            System.out.printf("%7d 行 x %d 列，JSON %.1f MB%n", rows, COL_COUNT, json.length() / (double) MB);
+
+            Measurement buffered = measure("整表读入后写入", rows, file -> writeBuffered(json, file));
+            Measurement streamed = measure("边解析边写入", rows, file -> writeStreamed(json, file));
+
+            assertThat(Files.size(streamed.file())).isPositive();
+            System.out.printf("%7d 行: 耗时 %.2fx, 堆分配 %.2fx, 堆峰值降低 %.1f MB%n", rows,
+                    buffered.millis() / streamed.millis(),
+                    (double) buffered.allocatedBytes() / streamed.allocatedBytes(),
+                    (buffered.peakBytes() - streamed.peakBytes()) / (double) MB);
+        }
+    }
+
+    /**
+     * 调整前的实现：readRows 读入全部稀疏行，再按批转换写入
+     */
+    private void writeBuffered(String json, Path file) throws IOException {
+        SortedMap<Integer, SortedMap<Integer, Object>> rows = reader.readRows(json);
+        int rowCount = rows.isEmpty() ? 0 : rows.lastKey() + 1;
+        ExcelWriter excelWriter = EasyExcel.write(file.toFile()).build();
+        try {
+            WriteSheet writeSheet = EasyExcel.writerSheet("检测报告").build();
+            for (int from = 0; from < rowCount; from += WRITE_BATCH_ROWS) {
+                excelWriter.write(FortuneSheetReader.toRowList(rows, from, Math.min(from + WRITE_BATCH_ROWS, rowCount)),
+                        writeSheet);
+            }
+        } finally {
+            excelWriter.finish();
+        }
+    }
+
+    private void writeStreamed(String json, Path file) throws IOException {
+        ExcelWriter excelWriter = EasyExcel.write(file.toFile()).build();
+        try {
+            WriteSheet writeSheet = EasyExcel.writerSheet("检测报告").build();
+            reader.readRowBatches(json, WRITE_BATCH_ROWS, batch -> excelWriter.write(batch, writeSheet));
+        } finally {
+            excelWriter.finish();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        void run(Path file) throws IOException;
+    }
+
+    /**
+     * 预热后多轮计时，返回平均耗时、当前线程平均堆分配字节数与最大堆峰值增量
+     * 堆峰值为各堆内存池峰值之和减去开始前（GC 后）的占用，含尚未回收的垃圾，只用于同条件下对比
+     */
+    private Measurement measure(String name, int rows, Export export) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Path file = Files.createTempFile(outputDir, "report-" + rows + "-", ".xlsx");
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            export.run(file);
+        }
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        long elapsed = 0;
+        long allocated = 0;
+        long peak = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            System.gc();
+            long baseline = heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            export.run(file);
+            elapsed += System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            peak = Math.max(peak, heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - baseline);
+        }
+        Measurement measurement = new Measurement(file, elapsed / 1e6 / MEASURE_ROUNDS, allocated / MEASURE_ROUNDS, peak);
+        System.out.printf("%7d 行 / %-10s %9.1f ms  分配 %8.1f MB  峰值 %7.1f MB%n", rows, name,
+                measurement.millis(), measurement.allocatedBytes() / (double) MB, measurement.peakBytes() / (double) MB);
+        return measurement;
+    }
+
+    /**
+     * 模拟 ELN 原始记录表：首行表头，其余为数值与文本混合，按 Fortune-sheet 保存顺序（逐行）排列
+     */
+    private static String elnSheet(int rowCount) {
+        StringBuilder json = new StringBuilder(rowCount * COL_COUNT * 48);
+        json.append("{\"sheets\":[{\"name\":\"原始记录\",\"config\":{},\"celldata\":[");
+        for (int r = 0; r < rowCount; r++) {
+            for (int c = 0; c < COL_COUNT; c++) {
+                json.append(r == 0 && c == 0 ? "" : ",").append("{\"r\":").append(r).append(",\"c\":").append(c)
+                        .append(",\"v\":{");
+                if (r == 0) {
+                    json.append("\"v\":\"检测项目").append(c).append("\",\"bl\":1}}");
+                } else if (c % 4 == 0) {
+                    json.append("\"v\":\"S").append(r).append('-').append(c).append("\"}}");
+                } else {
+                    double value = r * 0.37 + c;
+                    json.append("\"v\":").append(value).append(",\"m\":\"").append(String.format("%.2f", value))
+                            .append("\"}}");
+                }
+            }
+        }
+        return json.append("]}]}").toString();
+    }
+
+    private record Measurement(Path file, double millis, long allocatedBytes, long peakBytes) {
+    }
+}
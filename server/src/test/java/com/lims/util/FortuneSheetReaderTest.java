@@ -0,0 +1,183 @@
+package com.lims.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Fortune-sheet 流式读取：只取第一个工作表的 celldata，跳过其他字段
+ */
+class FortuneSheetReaderTest {
+
+    private final FortuneSheetReader reader = new FortuneSheetReader(new ObjectMapper());
+
+    @Test
+    void readsCellValuesOfFirstSheetOnly() throws IOException {
+        String json = """
+                {"version": 1,
+                 "sheets": [
+                   {"name": "Sheet1",
+                    "config": {"merge": {"0_0": {"r": 0, "c": 0, "rs": 1, "cs": 2}}},
+                    "celldata": [
+                      {"r": 0, "c": 0, "v": {"v": "项目", "m": "项目", "bl": 1}},
+                      {"r": 0, "c": 2, "v": {"v": 12.5, "m": "12.50"}},
+                      {"r": 1, "c": 1, "v": true},
+                      {"r": 2, "c": 0, "v": {"m": "只有显示值"}},
+                      {"r": "x", "c": 0, "v": "坏坐标"}
+                    ],
+                    "data": [[null, null], [null, null]]},
+                   {"name": "Sheet2", "celldata": [{"r": 0, "c": 0, "v": "不读取"}]}
+                 ]}
+                """;
+
+        SortedMap<Integer, SortedMap<Integer, Object>> rows = reader.readRows(json);
+
+        assertThat(rows.keySet()).containsExactly(0, 1, 2);
+        assertThat(rows.get(0)).containsEntry(0, "项目").containsEntry(2, 12.5);
+        assertThat(rows.get(1)).containsEntry(1, true);
+        assertThat(rows.get(2)).containsEntry(0, null);
+    }
+
+    @Test
+    void emptyOrMissingContentYieldsNoRows() throws IOException {
+        assertThat(reader.readRows(null)).isEmpty();
+        assertThat(reader.readRows("")).isEmpty();
+        assertThat(reader.readRows("[]")).isEmpty();
+        assertThat(reader.readRows("{\"sheets\": []}")).isEmpty();
+    }
+
+    @Test
+    void toRowListPadsColumnsAndKeepsBlankRows() {
+        SortedMap<Integer, SortedMap<Integer, Object>> rows = new TreeMap<>();
+        rows.computeIfAbsent(0, k -> new TreeMap<>()).put(2, "c");
+        rows.computeIfAbsent(2, k -> new TreeMap<>()).put(0, "a");
+
+        List<List<Object>> list = FortuneSheetReader.toRowList(rows, 0, 3);
+
+        assertThat(list).containsExactly(Arrays.asList(null, null, "c"), List.of(), List.of("a"));
+    }
+
+    @Test
+    void streamsLargeSheetInDocumentOrder() throws IOException {
+        int rowCount = 20_000;
+        int colCount = 10;
+        String json = largeSheet(rowCount, colCount);
+        AtomicInteger cells = new AtomicInteger();
+        List<int[]> outOfOrder = new ArrayList<>();
+
+        reader.readCells(json, (row, col, value) -> {
+            int index = cells.getAndIncrement();
+            if (row != index / colCount || col != index % colCount || !Integer.valueOf(index).equals(((Number) value).intValue())) {
+                outOfOrder.add(new int[]{row, col});
+            }
+        });
+
+        assertThat(cells).hasValue(rowCount * colCount);
+        assertThat(outOfOrder).isEmpty();
+    }
+
+    @Test
+    void cellsAreDeliveredBeforeTheRestOfTheDocumentIsParsed() {
+        // 回调在解析过程中逐个发生：第 10 个单元格中止后，文档末尾的非法 JSON 不会被读到
+        String json = largeSheet(1_000, 10).replaceFirst("]}$", "]} GARBAGE");
+        AtomicInteger cells = new AtomicInteger();
+
+        assertThatThrownBy(() -> reader.readCells(json, (row, col, value) -> {
+            if (cells.incrementAndGet() == 10) {
+                throw new IllegalStateException("stop");
+            }
+        })).hasMessage("stop");
+        assertThat(cells).hasValue(10);
+    }
+
+    @Test
+    void rowBatchesAreEmittedWhileParsingAndKeepBlankRows() throws IOException {
+        // 第 1、3、4 行为空，最后一批只有一行；批内单元格顺序不限
+        String json = """
+                {"sheets": [{"celldata": [
+                  {"r": 0, "c": 1, "v": "b"}, {"r": 0, "c": 0, "v": "a"},
+                  {"r": 2, "c": 0, "v": 2},
+                  {"r": 5, "c": 2, "v": 5},
+                  {"r": 6, "c": 0, "v": 6}
+                ]}]}
+                """;
+        List<List<List<Object>>> batches = new ArrayList<>();
+
+        int rowCount = reader.readRowBatches(json, 3, batches::add);
+
+        assertThat(rowCount).isEqualTo(7);
+        assertThat(batches).containsExactly(
+                List.of(List.of("a", "b"), List.of(), List.of(2)),
+                List.of(List.of(), List.of(), Arrays.asList(null, null, 5)),
+                List.of(List.of(6)));
+    }
+
+    @Test
+    void rowBatchesMatchBufferedRowsOnLargeSheet() throws IOException {
+        String json = largeSheet(5_000, 10);
+        List<List<Object>> streamed = new ArrayList<>();
+        AtomicInteger largestBatch = new AtomicInteger();
+
+        int rowCount = reader.readRowBatches(json, 1000, batch -> {
+            largestBatch.accumulateAndGet(batch.size(), Math::max);
+            streamed.addAll(batch);
+        });
+
+        assertThat(rowCount).isEqualTo(5_000);
+        assertThat(largestBatch).hasValue(1000);
+        assertThat(streamed).isEqualTo(FortuneSheetReader.toRowList(reader.readRows(json), 0, 5_000));
+    }
+
+    @Test
+    void rowBatchesOfEmptyContent() throws IOException {
+        List<List<List<Object>>> batches = new ArrayList<>();
+
+        assertThat(reader.readRowBatches(null, 10, batches::add)).isZero();
+        assertThat(reader.readRowBatches("{\"sheets\": [{\"celldata\": []}]}", 10, batches::add)).isZero();
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    void cellOfAnAlreadyEmittedRowIsRejected() {
+        String json = """
+                {"sheets": [{"celldata": [
+                  {"r": 0, "c": 0, "v": 0}, {"r": 4, "c": 0, "v": 4}, {"r": 1, "c": 0, "v": 1}
+                ]}]}
+                """;
+        List<List<List<Object>>> batches = new ArrayList<>();
+
+        assertThatThrownBy(() -> reader.readRowBatches(json, 2, batches::add))
+                .isInstanceOf(FortuneSheetReader.UnorderedCellsException.class)
+                .hasMessageContaining("1");
+        assertThat(batches).hasSize(2);
+    }
+
+    private static String largeSheet(int rowCount, int colCount) {
+        StringBuilder json = new StringBuilder(rowCount * colCount * 40);
+        // celldata 之前放一个大的无关字段，需整体跳过
+        json.append("{\"sheets\":[{\"name\":\"S\",\"data\":[");
+        for (int r = 0; r < rowCount; r++) {
+            json.append(r > 0 ? "," : "").append("[null]");
+        }
+        json.append("],\"celldata\":[");
+        for (int r = 0; r < rowCount; r++) {
+            for (int c = 0; c < colCount; c++) {
+                int index = r * colCount + c;
+                json.append(index > 0 ? "," : "")
+                        .append("{\"r\":").append(r).append(",\"c\":").append(c)
+                        .append(",\"v\":{\"v\":").append(index).append(",\"m\":\"").append(index).append("\"}}");
+            }
+        }
+        return json.append("]}]}").toString();
+    }
+}
@@ -0,0 +1,109 @@
+package com.lims.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Token 解析基准（JMH）：每次重建密钥与解析器 / 复用解析器 / Claims 缓存
+ * 默认构建不运行，使用 mvn test -Pbenchmark 执行，结果输出到标准输出。
+ * JMH 生成的代码要求基准类为 public。
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmarkTest {
+
+    private static final String SECRET = "lims-benchmark-secret-key-must-be-at-least-256-bits-long";
+
+    private JwtUtil jwtUtil;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 7_200_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheSize", 10_000);
+        jwtUtil.init();
+        parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        token = jwtUtil.generateToken(42L, "alice");
+    }
+
+    /**
+     * 调整前：每次解析都重新派生密钥、构建解析器并验签
+     */
+    @Benchmark
+    public Claims rebuildKeyAndParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    /**
+     * 复用密钥与解析器，每次验签
+     */
+    @Benchmark
+    public Claims sharedParser() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * JwtUtil.parseToken：同一 Token 命中 Claims 缓存
+     */
+    @Benchmark
+    public Claims cachedClaims() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Test
+    void compareParsing() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmarkTest.class.getName() + "\\.")
+                .build()).run();
+
+        Map<String, Double> scores = results.stream().collect(Collectors.toMap(
+                result -> result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                result -> result.getPrimaryResult().getScore()));
+        System.out.printf("Token 解析（us/op）: 重建 %.2f, 复用解析器 %.2f, 缓存 %.3f, 缓存较重建提升 %.0fx%n",
+                scores.get("rebuildKeyAndParser"), scores.get("sharedParser"), scores.get("cachedClaims"),
+                scores.get("rebuildKeyAndParser") / scores.get("cachedClaims"));
+
+        assertThat(scores.get("cachedClaims")).isLessThan(scores.get("sharedParser"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.lims.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * JWT：签发/解析、Claims 缓存及其随 Token 过期失效
+ */
+class JwtUtilTest {
+
+    private static final String SECRET = "lims-test-secret-key-must-be-at-least-256-bits-long";
+
+    @Test
+    void parsesGeneratedTokenClaims() {
+        JwtUtil jwtUtil = newJwtUtil(3_600_000L);
+        String token = jwtUtil.generateToken(42L, "alice");
+
+        assertThat(jwtUtil.getUserId(token)).isEqualTo(42L);
+        assertThat(jwtUtil.getUsername(token)).isEqualTo("alice");
+        assertThat(jwtUtil.validateToken(token)).isTrue();
+        assertThat(jwtUtil.isTokenExpired(token)).isFalse();
+    }
+
+    @Test
+    void refreshTokenCarriesType() {
+        JwtUtil jwtUtil = newJwtUtil(3_600_000L);
+
+        Claims claims = jwtUtil.parseToken(jwtUtil.generateRefreshToken(42L, "alice"));
+
+        assertThat(claims.get("type", String.class)).isEqualTo("refresh");
+    }
+
+    @Test
+    void repeatedParseIsServedFromCache() {
+        JwtUtil jwtUtil = newJwtUtil(3_600_000L);
+        String token = jwtUtil.generateToken(42L, "alice");
+
+        assertThat(jwtUtil.parseToken(token)).isSameAs(jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        JwtUtil jwtUtil = newJwtUtil(3_600_000L);
+        String token = jwtUtil.generateToken(42L, "alice");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtUtil.parseToken(tampered)).isInstanceOf(JwtException.class);
+        assertThat(jwtUtil.validateToken(tampered)).isFalse();
+    }
+
+    @Test
+    void cachedClaimsExpireWithToken() throws InterruptedException {
+        // exp 精度为秒，1.5 秒后签发的 Token 最迟 2 秒内过期
+        JwtUtil jwtUtil = newJwtUtil(1_500L);
+        String token = jwtUtil.generateToken(42L, "alice");
+        assertThat(jwtUtil.validateToken(token)).isTrue();
+
+        Thread.sleep(2_100L);
+
+        assertThatThrownBy(() -> jwtUtil.parseToken(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(jwtUtil.isTokenExpired(token)).isTrue();
+    }
+
+    private JwtUtil newJwtUtil(long expiration) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expiration);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", expiration * 2);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheSize", 100);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,179 @@
+package com.lims.util;
+
+import com.alibaba.excel.EasyExcel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * PDF 转换基准：每次转换启动一个 soffice --convert-to 进程 vs 常驻进程池（JODConverter）
+ * 比较单个转换的延迟与 POOL_SIZE 并发下的吞吐。
+ * 默认构建不运行，使用 mvn test -Pbenchmark 执行（需要本机安装 LibreOffice，未安装时跳过），结果输出到标准输出。
+ */
+@Tag("benchmark")
+class LibreOfficeConverterBenchmarkTest {
+
+    private static final String SOFFICE = System.getProperty("libreoffice.path", "/usr/bin/soffice");
+
+    private static final int POOL_SIZE = 2;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURE_ROUNDS = 10;
+    private static final int TIMEOUT_SECONDS = 120;
+
+    @TempDir
+    Path tempDir;
+
+    private File input;
+    private LibreOfficeConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(new File(SOFFICE).canExecute(), "未安装 LibreOffice: " + SOFFICE);
+
+        // 与检测报告相当的工作表：200 行 x 12 列
+        input = tempDir.resolve("report.xlsx").toFile();
+        List<List<Object>> rows = new ArrayList<>();
+        for (int r = 0; r < 200; r++) {
+            List<Object> row = new ArrayList<>();
+            for (int c = 0; c < 12; c++) {
+                row.add(r == 0 ? "检测项目" + c : r * 0.37 + c);
+            }
+            rows.add(row);
+        }
+        EasyExcel.write(input).sheet("检测报告").doWrite(rows);
+
+        converter = new LibreOfficeConverter();
+        ReflectionTestUtils.setField(converter, "libreOfficePath", SOFFICE);
+        ReflectionTestUtils.setField(converter, "timeout", TIMEOUT_SECONDS);
+        ReflectionTestUtils.setField(converter, "poolSize", POOL_SIZE);
+        ReflectionTestUtils.setField(converter, "basePort", 2102);
+        ReflectionTestUtils.setField(converter, "profileDir", tempDir.resolve("pool").toString());
+        ReflectionTestUtils.setField(converter, "maxConversions", 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (converter != null) {
+            converter.shutdown();
+        }
+    }
+
+    @Test
+    void pooledVersusForkPerConversion() throws Exception {
+        // 进程池的启动在第一次转换中完成，计入预热
+        Conversion pooled = out -> converter.convertToPdf(input.getPath(), out.getPath());
+        Conversion forked = this::forkConvert;
+
+        double forkLatency = latency("每次启动 soffice", forked);
+        double poolLatency = latency("常驻进程池", pooled);
+        double forkThroughput = throughput("每次启动 soffice", forked);
+        double poolThroughput = throughput("常驻进程池", pooled);
+
+        System.out.printf("单个转换延迟降低 %.1fx，%d 并发吞吐提升 %.1fx%n",
+                forkLatency / poolLatency, POOL_SIZE, poolThroughput / forkThroughput);
+        assertThat(poolLatency).isLessThan(forkLatency);
+    }
+
+    /**
+     * 调整前的实现：每次转换启动独立的 soffice 进程，使用私有配置目录，以进程退出作为完成信号
+     */
+    private String forkConvert(File outDir) throws IOException, InterruptedException {
+        Path profile = Files.createTempDirectory(tempDir, "profile-");
+        try {
+            Process process = new ProcessBuilder(SOFFICE,
+                    "-env:UserInstallation=" + profile.toUri(),
+                    "--headless", "--invisible", "--nologo", "--nodefault", "--norestore", "--nolockcheck",
+                    "--convert-to", "pdf", "--outdir", outDir.getPath(), input.getPath())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("LibreOffice 转换超时");
+            }
+            File pdf = new File(outDir, "report.pdf");
+            if (process.exitValue() != 0 || !PdfFiles.isComplete(pdf)) {
+                throw new IOException("LibreOffice 转换失败，退出码: " + process.exitValue());
+            }
+            return pdf.getPath();
+        } finally {
+            FileSystemUtils.deleteRecursively(profile);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Conversion {
+        String convert(File outDir) throws Exception;
+    }
+
+    /**
+     * 逐个转换，返回平均延迟（毫秒）
+     */
+    private double latency(String name, Conversion conversion) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            convertOnce(conversion);
+        }
+        long[] millis = new long[MEASURE_ROUNDS];
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            convertOnce(conversion);
+            millis[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        Arrays.sort(millis);
+        double avg = Arrays.stream(millis).average().orElse(0);
+        System.out.printf("%-16s 延迟: 平均 %7.0f ms  p50 %6d ms  max %6d ms%n", name, avg,
+                millis[MEASURE_ROUNDS / 2], millis[MEASURE_ROUNDS - 1]);
+        return avg;
+    }
+
+    /**
+     * POOL_SIZE 个线程并发转换，返回吞吐（个/分钟）
+     */
+    private double throughput(String name, Conversion conversion) throws Exception {
+        int total = MEASURE_ROUNDS * POOL_SIZE;
+        ExecutorService executor = Executors.newFixedThreadPool(POOL_SIZE);
+        try {
+            long start = System.nanoTime();
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                futures.add(executor.submit(() -> convertOnce(conversion)));
+            }
+            for (Future<String> future : futures) {
+                assertThat(PdfFiles.isComplete(new File(future.get()))).isTrue();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double perMinute = total / seconds * 60;
+            System.out.printf("%-16s 吞吐: %d 个 / %.1f s = %.1f 个/分钟%n", name, total, seconds, perMinute);
+            return perMinute;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 每次转换使用独立的输出目录，避免并发转换写同名文件
+     */
+    private String convertOnce(Conversion conversion) throws Exception {
+        File outDir = Files.createTempDirectory(tempDir, "out-").toFile();
+        return conversion.convert(outDir);
+    }
+}
@@ -0,0 +1,213 @@
+package com.lims.util;
+
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * LibreOffice 转换：经进程池执行，校验 PDF 完整性后移动到目标位置，进程池懒启动、失败可重试
+ * 使用模拟的 OfficeManager，转换结果由测试指定；真实进程池的对比见 LibreOfficeConverterBenchmarkTest
+ */
+class LibreOfficeConverterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path input;
+    private Path outputDir;
+    private FakeOfficeManager officeManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        input = Files.writeString(tempDir.resolve("report.xlsx"), "xlsx");
+        outputDir = tempDir.resolve("out");
+        officeManager = new FakeOfficeManager();
+    }
+
+    @Test
+    void convertsThroughPoolAndMovesCompletePdf() throws Exception {
+        officeManager.output = "%PDF-1.7\nbody\n%%EOF\n";
+        LibreOfficeConverter converter = converter();
+
+        String pdf = converter.convertToPdf(input.toString(), outputDir.toString());
+
+        assertThat(pdf).isEqualTo(outputDir.resolve("report.pdf").toString());
+        assertThat(PdfFiles.isComplete(new File(pdf))).isTrue();
+        // 私有临时目录已清理
+        assertThat(outputDir.toFile().list()).containsExactly("report.pdf");
+        assertThat(officeManager.targets).hasSize(1);
+        assertThat(officeManager.targets.get(0).getParentFile()).isNotEqualTo(outputDir.toFile());
+    }
+
+    @Test
+    void poolIsStartedOnceOnFirstConversion() throws Exception {
+        officeManager.output = "%PDF-1.7\n%%EOF";
+        LibreOfficeConverter converter = converter();
+        assertThat(officeManager.starts).isZero();
+
+        converter.convertToPdf(input.toString(), outputDir.toString());
+        converter.convertToPdf(input.toString(), outputDir.toString());
+
+        assertThat(officeManager.starts).isEqualTo(1);
+        assertThat(officeManager.targets).hasSize(2);
+
+        converter.shutdown();
+        assertThat(officeManager.isRunning()).isFalse();
+    }
+
+    @Test
+    void truncatedPdfIsRejected() throws Exception {
+        officeManager.output = "%PDF-1.7\nhalf written";
+        LibreOfficeConverter converter = converter();
+
+        assertThatThrownBy(() -> converter.convertToPdf(input.toString(), outputDir.toString()))
+                .isInstanceOf(IOException.class).hasMessageContaining("不完整");
+
+        assertThat(outputDir.toFile().list()).isEmpty();
+    }
+
+    @Test
+    void missingOutputIsRejected() throws Exception {
+        LibreOfficeConverter converter = converter();
+
+        assertThatThrownBy(() -> converter.convertToPdf(input.toString(), outputDir.toString()))
+                .isInstanceOf(IOException.class).hasMessageContaining("生成失败");
+    }
+
+    @Test
+    void taskFailureIsReportedAsIOException() throws Exception {
+        // 超时或进程崩溃时进程池重启该实例并以 OfficeException 结束任务
+        officeManager.failure = new OfficeException("Task did not complete within timeout");
+        LibreOfficeConverter converter = converter();
+
+        assertThatThrownBy(() -> converter.convertToPdf(input.toString(), outputDir.toString()))
+                .isInstanceOf(IOException.class).hasMessageContaining("timeout");
+        assertThat(outputDir.toFile().list()).isEmpty();
+    }
+
+    @Test
+    void interruptWhileWaitingForInstanceIsPropagated() throws Exception {
+        officeManager.failure = new OfficeException("interrupted", new InterruptedException());
+        LibreOfficeConverter converter = converter();
+
+        try {
+            assertThatThrownBy(() -> converter.convertToPdf(input.toString(), outputDir.toString()))
+                    .isInstanceOf(InterruptedException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void failedStartIsRetriedOnNextConversion() throws Exception {
+        officeManager.output = "%PDF-1.7\n%%EOF";
+        officeManager.startFailures = 1;
+        LibreOfficeConverter converter = converter();
+
+        assertThatThrownBy(() -> converter.convertToPdf(input.toString(), outputDir.toString()))
+                .isInstanceOf(IOException.class).hasMessageContaining("启动失败");
+        assertThat(converter.convertToPdf(input.toString(), outputDir.toString())).endsWith("report.pdf");
+        assertThat(officeManager.starts).isEqualTo(2);
+    }
+
+    @Test
+    void missingInstallationIsReportedOnConversion() {
+        assumeTrue(LocalOfficeUtils.getDefaultOfficeHome() == null, "本机已安装 LibreOffice");
+        LibreOfficeConverter converter = new LibreOfficeConverter();
+        configure(converter);
+
+        assertThatThrownBy(() -> converter.convertToPdf(input.toString(), outputDir.toString()))
+                .isInstanceOf(IOException.class).hasMessageContaining("未找到 LibreOffice 安装目录");
+    }
+
+    private LibreOfficeConverter converter() {
+        LibreOfficeConverter converter = new LibreOfficeConverter() {
+            @Override
+            OfficeManager createOfficeManager() {
+                return officeManager;
+            }
+        };
+        configure(converter);
+        return converter;
+    }
+
+    private void configure(LibreOfficeConverter converter) {
+        ReflectionTestUtils.setField(converter, "libreOfficePath", tempDir.resolve("no-soffice").toString());
+        ReflectionTestUtils.setField(converter, "timeout", 10);
+        ReflectionTestUtils.setField(converter, "poolSize", 1);
+        ReflectionTestUtils.setField(converter, "basePort", 2002);
+        ReflectionTestUtils.setField(converter, "profileDir", tempDir.resolve("profiles").toString());
+        ReflectionTestUtils.setField(converter, "maxConversions", 100);
+    }
+
+    /**
+     * 按设定写出目标文件或抛出异常，代替常驻 soffice 执行转换任务
+     */
+    private static class FakeOfficeManager implements OfficeManager {
+
+        private String output;
+        private OfficeException failure;
+        private int startFailures;
+        private int starts;
+        private boolean running;
+        private final List<File> targets = new ArrayList<>();
+
+        @Override
+        public void execute(OfficeTask task) throws OfficeException {
+            if (!running) {
+                throw new IllegalStateException("进程池未启动");
+            }
+            File target = ((TargetDocumentSpecs) ReflectionTestUtils.getField(task, "target")).getFile();
+            targets.add(target);
+            if (failure != null) {
+                throw failure;
+            }
+            if (output != null) {
+                try {
+                    Files.writeString(target.toPath(), output, StandardCharsets.ISO_8859_1);
+                } catch (IOException e) {
+                    throw new OfficeException("写入失败", e);
+                }
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public void start() throws OfficeException {
+            starts++;
+            if (startFailures > 0) {
+                startFailures--;
+                throw new OfficeException("端口 2002 启动超时");
+            }
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+    }
+}
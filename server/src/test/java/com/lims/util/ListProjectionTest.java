@@ -0,0 +1,162 @@
+package com.lims.util;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.lims.controller.ElnTemplateController;
+import com.lims.controller.TestDataController;
+import com.lims.entity.ClientReportTemplate;
+import com.lims.entity.ElnTemplate;
+import com.lims.entity.TestData;
+import com.lims.entity.TestReport;
+import com.lims.mapper.ClientReportTemplateMapper;
+import com.lims.mapper.ElnTemplateMapper;
+import com.lims.mapper.TestDataMapper;
+import com.lims.mapper.TestReportMapper;
+import com.lims.service.ReportNoFilterService;
+import com.lims.service.SequenceService;
+import com.lims.service.TestTaskService;
+import com.lims.service.impl.ClientReportTemplateServiceImpl;
+import com.lims.service.impl.TestReportServiceImpl;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 列表查询列投影：分页接口生成的 SELECT 不包含大字段列
+ */
+class ListProjectionTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * 单行大字段的模拟大小（检测结果 JSON / 录入数据等）
+     */
+    private static final int BLOB_SIZE = 32 * 1024;
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, TestReport.class);
+        TableInfoHelper.initTableInfo(assistant, TestData.class);
+        TableInfoHelper.initTableInfo(assistant, ElnTemplate.class);
+        TableInfoHelper.initTableInfo(assistant, ClientReportTemplate.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reportPageSkipsTestResults() {
+        TestReportMapper mapper = mock(TestReportMapper.class);
+        when(mapper.selectPage(any(), any())).thenAnswer(inv -> inv.getArgument(0));
+        TestReportServiceImpl service = new TestReportServiceImpl(mock(ApplicationEventPublisher.class),
+                mock(SequenceService.class), mock(ReportNoFilterService.class));
+        ReflectionTestUtils.setField(service, "baseMapper", mapper);
+
+        service.pageList(1, PAGE_SIZE, "BG", null, "issued");
+
+        ArgumentCaptor<LambdaQueryWrapper<TestReport>> captor = ArgumentCaptor.forClass(LambdaQueryWrapper.class);
+        verify(mapper).selectPage(any(), captor.capture());
+        assertThat(columns(captor.getValue())).doesNotContain("test_results")
+                .contains("id", "report_no", "client_name", "status", "verification_code");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDataPageSkipsDataAndResultContent() {
+        TestDataMapper mapper = mock(TestDataMapper.class);
+        when(mapper.selectPage(any(), any())).thenAnswer(inv -> inv.getArgument(0));
+
+        new TestDataController(mapper, mock(TestTaskService.class)).page(1, PAGE_SIZE, null, null, null);
+
+        ArgumentCaptor<LambdaQueryWrapper<TestData>> captor = ArgumentCaptor.forClass(LambdaQueryWrapper.class);
+        verify(mapper).selectPage(any(), captor.capture());
+        assertThat(columns(captor.getValue())).doesNotContain("data_content", "result_content")
+                .contains("id", "task_no", "sample_no", "status");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void elnTemplatePageSkipsTemplateContent() {
+        ElnTemplateMapper mapper = mock(ElnTemplateMapper.class);
+        when(mapper.selectPage(any(), any())).thenAnswer(inv -> inv.getArgument(0));
+
+        new ElnTemplateController(mapper).page(1, PAGE_SIZE, null, null);
+
+        ArgumentCaptor<LambdaQueryWrapper<ElnTemplate>> captor = ArgumentCaptor.forClass(LambdaQueryWrapper.class);
+        verify(mapper).selectPage(any(), captor.capture());
+        assertThat(columns(captor.getValue())).doesNotContain("template_content")
+                .contains("id", "name", "test_parameter", "status");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clientReportTemplatePageSkipsPages() {
+        ClientReportTemplateMapper mapper = mock(ClientReportTemplateMapper.class);
+        when(mapper.selectPage(any(), any())).thenAnswer(inv -> inv.getArgument(0));
+
+        new ClientReportTemplateServiceImpl(mapper).page(1, PAGE_SIZE, null, null);
+
+        ArgumentCaptor<LambdaQueryWrapper<ClientReportTemplate>> captor = ArgumentCaptor.forClass(LambdaQueryWrapper.class);
+        verify(mapper).selectPage(any(), captor.capture());
+        assertThat(columns(captor.getValue())).doesNotContain("pages")
+                .contains("id", "name", "client_id", "is_default");
+    }
+
+    @Test
+    void projectedPagePayloadExcludesBlobs() throws Exception {
+        JsonMapper json = JsonMapper.builder().findAndAddModules().build();
+        List<TestReport> full = new ArrayList<>();
+        List<TestReport> projected = new ArrayList<>();
+        for (long i = 0; i < PAGE_SIZE; i++) {
+            TestReport report = report(i);
+            report.setTestResults("x".repeat(BLOB_SIZE));
+            full.add(report);
+            projected.add(report(i));
+        }
+
+        int before = json.writeValueAsBytes(full).length;
+        int after = json.writeValueAsBytes(projected).length;
+        System.out.printf("报告列表 %d 行（每行检测结果 %d KB）: 投影前 %d 字节, 投影后 %d 字节%n",
+                PAGE_SIZE, BLOB_SIZE / 1024, before, after);
+
+        assertThat(after).isLessThan(PAGE_SIZE * 2048);
+        // 每行减少大字段内容（null 与引号的长度差 2 字节）
+        assertThat(before - after).isEqualTo(PAGE_SIZE * (BLOB_SIZE - 2));
+    }
+
+    /**
+     * SELECT 列清单
+     */
+    private static List<String> columns(LambdaQueryWrapper<?> wrapper) {
+        List<String> columns = new ArrayList<>();
+        for (String column : wrapper.getSqlSelect().split(",")) {
+            String name = column.trim();
+            int alias = name.indexOf(" AS ");
+            columns.add(alias > 0 ? name.substring(0, alias) : name);
+        }
+        return columns;
+    }
+
+    private static TestReport report(long id) {
+        TestReport report = new TestReport();
+        report.setId(id);
+        report.setReportNo(String.format("BG2026%06d", id));
+        report.setClientName("某汽车零部件有限公司");
+        report.setSampleName("复合材料试样");
+        report.setStatus("issued");
+        return report;
+    }
+}
@@ -0,0 +1,41 @@
+package com.lims.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfFilesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void completePdfHasHeaderAndTrailer() throws IOException {
+        assertThat(PdfFiles.isComplete(write("%PDF-1.7\n1 0 obj\nendobj\n%%EOF\n"))).isTrue();
+    }
+
+    @Test
+    void truncatedPdfIsIncomplete() throws IOException {
+        assertThat(PdfFiles.isComplete(write("%PDF-1.7\n1 0 obj\nend"))).isFalse();
+    }
+
+    @Test
+    void emptyOrNonPdfIsIncomplete() throws IOException {
+        assertThat(PdfFiles.isComplete(write(""))).isFalse();
+        assertThat(PdfFiles.isComplete(write("<html>%%EOF</html>"))).isFalse();
+        assertThat(PdfFiles.isComplete(tempDir.resolve("missing.pdf").toFile())).isFalse();
+    }
+
+    private File write(String content) throws IOException {
+        Path file = Files.createTempFile(tempDir, "doc", ".pdf");
+        Files.writeString(file, content, StandardCharsets.ISO_8859_1);
+        return file.toFile();
+    }
+}